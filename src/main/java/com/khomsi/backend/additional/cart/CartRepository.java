@@ -3,13 +3,17 @@ package com.khomsi.backend.additional.cart;
 import com.khomsi.backend.additional.cart.model.entity.Cart;
 import com.khomsi.backend.main.game.model.entity.Game;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
+    // The cart and its games in one query, eager to-one associations would otherwise be loaded per item
+    @EntityGraph(attributePaths = {"games", "games.publisher", "games.developer", "games.gameMedia"})
     List<Cart> findAllByUserOrderByCreatedDate(UserInfo userInfo);
     List<Cart> findAllByUserExternalId(String userId);
     Cart findByUserAndGames(UserInfo user, Game game);
+    boolean existsByUserExternalIdAndGamesId(String userId, Long gameId);
     void deleteAllByUserExternalId(String userId);
 }
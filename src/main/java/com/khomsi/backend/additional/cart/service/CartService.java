@@ -2,6 +2,10 @@ package com.khomsi.backend.additional.cart.service;
 
 import com.khomsi.backend.additional.cart.model.dto.CartDTO;
 import com.khomsi.backend.additional.cart.model.response.CartResponse;
+import com.khomsi.backend.main.game.model.entity.Game;
+import com.khomsi.backend.main.user.model.entity.UserInfo;
+
+import java.util.Collection;
 
 public interface CartService {
     CartResponse addToCart(Long gameId);
@@ -11,4 +15,7 @@ public interface CartService {
     CartResponse deleteCartItem(Long gameId);
 
     CartResponse cleanCartItems();
+
+    // Puts games of an abandoned order back into the user's cart, skipping owned, inactive and already added ones
+    int returnGamesToCart(UserInfo user, Collection<Game> games);
 }
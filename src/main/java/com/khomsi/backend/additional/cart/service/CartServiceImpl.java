@@ -11,6 +11,7 @@ import com.khomsi.backend.main.game.service.GameService;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import com.khomsi.backend.main.user.model.dto.FullUserInfoDTO;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.service.MembershipService;
 import com.khomsi.backend.main.user.service.UserGamesService;
 import com.khomsi.backend.main.user.service.UserInfoService;
 import jakarta.transaction.Transactional;
@@ -19,6 +20,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -30,6 +32,7 @@ public class CartServiceImpl implements CartService {
     private final GameService gameService;
     private final CartMapper cartMapper;
     private final UserGamesService userGamesService;
+    private final MembershipService membershipService;
 
     @Override
     public CartResponse addToCart(Long gameId) {
@@ -46,8 +49,7 @@ public class CartServiceImpl implements CartService {
             return new CartResponse("Game is free. Added directly to library.");
         }
 
-        Cart existingCartEntry = cartRepository.findByUserAndGames(existingUser, game);
-        if (existingCartEntry != null) {
+        if (membershipService.hasInCart(existingUser.getExternalId(), game.getId())) {
             return new CartResponse("Game is already in the cart.");
         }
         cartRepository.save(new Cart(game, existingUser));
@@ -91,4 +93,17 @@ public class CartServiceImpl implements CartService {
 
         return new CartResponse("Cart items was successfully deleted for user %s !".formatted(externalId));
     }
+
+    @Override
+    public int returnGamesToCart(UserInfo user, Collection<Game> games) {
+        String userId = user.getExternalId();
+        List<Cart> restored = games.stream()
+                .filter(game -> Boolean.TRUE.equals(game.getActive()))
+                .filter(game -> !membershipService.ownsGame(userId, game.getId()))
+                .filter(game -> !membershipService.hasInCart(userId, game.getId()))
+                .map(game -> new Cart(game, user))
+                .toList();
+        cartRepository.saveAll(restored);
+        return restored.size();
+    }
 }
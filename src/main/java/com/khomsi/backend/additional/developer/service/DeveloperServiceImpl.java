@@ -4,17 +4,21 @@ import com.khomsi.backend.additional.developer.DeveloperRepository;
 import com.khomsi.backend.additional.developer.model.entity.Developer;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+import static com.khomsi.backend.config.CacheConfig.DEVELOPERS;
+
 @Service
 @RequiredArgsConstructor
 public class DeveloperServiceImpl implements DeveloperService {
     private final DeveloperRepository developerRepository;
 
     @Override
+    @Cacheable(DEVELOPERS)
     public List<Developer> getAllDevelopers() {
         return developerRepository.findAll();
     }
@@ -5,17 +5,21 @@ import com.khomsi.backend.additional.genre.model.entity.Genre;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+import static com.khomsi.backend.config.CacheConfig.GENRES;
+
 @Service
 @RequiredArgsConstructor
 public class GenreServiceImpl implements GenreService {
     private final GenreRepository genreRepository;
 
     @Override
+    @Cacheable(GENRES)
     public List<Genre> getAllGenres() {
         return genreRepository.findAll();
     }
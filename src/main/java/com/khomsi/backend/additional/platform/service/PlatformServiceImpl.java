@@ -5,17 +5,21 @@ import com.khomsi.backend.additional.platform.model.entity.Platform;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+import static com.khomsi.backend.config.CacheConfig.PLATFORMS;
+
 @Service
 @RequiredArgsConstructor
 public class PlatformServiceImpl implements PlatformService {
     private final PlatformRepository platformRepository;
 
     @Override
+    @Cacheable(PLATFORMS)
     public List<Platform> getAllPlatforms() {
         return platformRepository.findAll();
     }
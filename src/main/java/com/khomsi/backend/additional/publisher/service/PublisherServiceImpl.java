@@ -4,17 +4,21 @@ import com.khomsi.backend.additional.publisher.PublisherRepository;
 import com.khomsi.backend.additional.publisher.model.entity.Publisher;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+import static com.khomsi.backend.config.CacheConfig.PUBLISHERS;
+
 @Service
 @RequiredArgsConstructor
 public class PublisherServiceImpl implements PublisherService {
     private final PublisherRepository publisherRepository;
 
     @Override
+    @Cacheable(PUBLISHERS)
     public List<Publisher> getAllPublishers() {
         return publisherRepository.findAll();
     }
@@ -0,0 +1,32 @@
+package com.khomsi.backend.additional.review;
+
+import com.khomsi.backend.additional.review.model.entity.GameRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface GameRatingStatsRepository extends JpaRepository<GameRatingStats, Long> {
+    /**
+     * Moves one review out of the removed rating and into the added one, 0 stands for "none".
+     * A single upsert, so concurrent reviews of the same game never lose an update.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO game_rating_stats
+                (game_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5)
+            VALUES (:gameId, (:added > 0) - (:removed > 0), :added - :removed,
+                    (:added = 1) - (:removed = 1), (:added = 2) - (:removed = 2), (:added = 3) - (:removed = 3),
+                    (:added = 4) - (:removed = 4), (:added = 5) - (:removed = 5)) AS delta
+            ON DUPLICATE KEY UPDATE
+                review_count = game_rating_stats.review_count + delta.review_count,
+                rating_sum = game_rating_stats.rating_sum + delta.rating_sum,
+                rating_1 = game_rating_stats.rating_1 + delta.rating_1,
+                rating_2 = game_rating_stats.rating_2 + delta.rating_2,
+                rating_3 = game_rating_stats.rating_3 + delta.rating_3,
+                rating_4 = game_rating_stats.rating_4 + delta.rating_4,
+                rating_5 = game_rating_stats.rating_5 + delta.rating_5
+            """, nativeQuery = true)
+    void applyDelta(@Param("gameId") Long gameId, @Param("removed") int removedRating,
+                    @Param("added") int addedRating);
+}
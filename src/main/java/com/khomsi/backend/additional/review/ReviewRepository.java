@@ -1,21 +1,50 @@
 package com.khomsi.backend.additional.review;
 
+import com.khomsi.backend.additional.review.model.dto.ReviewDTO;
 import com.khomsi.backend.additional.review.model.entity.Review;
 import com.khomsi.backend.main.game.model.entity.Game;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface ReviewRepository extends JpaRepository<Review, Long> {
-    @Query("SELECT r FROM Review r WHERE r.games.id = :gameId order by r.reviewDate DESC")
-    List<Review> findAllByGameIdOrderByReviewDate(Long gameId);
+public interface ReviewRepository extends JpaRepository<Review, Long>, JpaSpecificationExecutor<Review> {
+    // Rows go straight to the DTO; newest first, the page starts after the given review date and id
+    @Query("""
+            SELECT new com.khomsi.backend.additional.review.model.dto.ReviewDTO(
+                r.id, u.username, r.rating, r.comment, r.reviewDate)
+            FROM Review r JOIN r.users u
+            WHERE r.games.id = :gameId
+                AND (:afterDate IS NULL OR r.reviewDate < :afterDate OR r.reviewDate = :afterDate AND r.id < :afterId)
+            ORDER BY r.reviewDate DESC, r.id DESC
+            """)
+    List<ReviewDTO> findReviewsPage(@Param("gameId") Long gameId, @Param("afterDate") LocalDateTime afterDate,
+                                    @Param("afterId") Long afterId, Pageable pageable);
+
+    default List<ReviewDTO> findReviewsPageAfter(Long gameId, ReviewDTO last, Pageable pageable) {
+        return last == null ? findReviewsPage(gameId, null, null, pageable)
+                : findReviewsPage(gameId, last.reviewDate(), last.reviewId(), pageable);
+    }
+
+    // No count query, the total comes from game_rating_stats
+    @Query("""
+            SELECT new com.khomsi.backend.additional.review.model.dto.ReviewDTO(
+                r.id, u.username, r.rating, r.comment, r.reviewDate)
+            FROM Review r JOIN r.users u
+            WHERE r.games.id = :gameId
+            """)
+    List<ReviewDTO> findReviewPageByGameId(@Param("gameId") Long gameId, Pageable pageable);
 
     Optional<Review> findByUsersAndGames(UserInfo user, Game game);
 
+    boolean existsByUsersExternalIdAndGamesId(String userId, Long gameId);
+
     Page<Review> findAllByGamesId(Long gameId, Pageable pageable);
 }
@@ -1,8 +1,11 @@
 package com.khomsi.backend.additional.review.controller;
 
+import com.khomsi.backend.additional.review.model.dto.GameRatingSummary;
 import com.khomsi.backend.additional.review.model.dto.ReviewDTO;
+import com.khomsi.backend.additional.review.model.dto.ReviewPage;
 import com.khomsi.backend.additional.review.model.dto.ReviewRequest;
 import com.khomsi.backend.additional.review.model.dto.ReviewResponse;
+import com.khomsi.backend.additional.review.service.GameRatingService;
 import com.khomsi.backend.additional.review.service.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -14,8 +17,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static com.khomsi.backend.config.ApplicationConfig.BEARER_KEY_SECURITY_SCHEME;
 
@@ -26,6 +28,7 @@ import static com.khomsi.backend.config.ApplicationConfig.BEARER_KEY_SECURITY_SC
 @RequiredArgsConstructor
 public class ReviewController {
     private final ReviewService reviewService;
+    private final GameRatingService gameRatingService;
 
     @GetMapping("/get/{game-id}")
     @Operation(security = {@SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME)},
@@ -62,8 +65,26 @@ public class ReviewController {
 
     @GetMapping("/{game-id}")
     @Operation(summary = "View all reviews to game")
-    public List<ReviewDTO> viewReviewForGame(@PathVariable("game-id")
+    public ResponseEntity<StreamingResponseBody> viewReviewForGame(@PathVariable("game-id")
                                              @Min(1) @Max(Long.MAX_VALUE) Long gameId) {
         return reviewService.viewReview(gameId);
     }
+
+    @GetMapping("/{game-id}/page")
+    @Operation(summary = "View reviews to game page by page, with the rating summary")
+    public ReviewPage viewReviewPageForGame(@PathVariable("game-id")
+                                            @Min(1) @Max(Long.MAX_VALUE) Long gameId,
+                                            @RequestParam(value = "page", defaultValue = "0")
+                                            @Min(0) int page,
+                                            @RequestParam(value = "size", defaultValue = "10")
+                                            @Min(1) @Max(50) int size) {
+        return reviewService.getReviewPage(gameId, page, size);
+    }
+
+    @GetMapping("/{game-id}/rating")
+    @Operation(summary = "Get review count, average rating and rating histogram of game")
+    public GameRatingSummary viewRatingForGame(@PathVariable("game-id")
+                                               @Min(1) @Max(Long.MAX_VALUE) Long gameId) {
+        return gameRatingService.getSummary(gameId);
+    }
 }
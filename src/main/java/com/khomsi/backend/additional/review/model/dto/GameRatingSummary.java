@@ -0,0 +1,30 @@
+package com.khomsi.backend.additional.review.model.dto;
+
+import com.khomsi.backend.additional.review.model.entity.GameRatingStats;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Histogram keys are the star ratings 1 to 5, in order
+public record GameRatingSummary(Long gameId, long reviewCount, BigDecimal averageRating,
+                                Map<Integer, Long> histogram) {
+    public static GameRatingSummary of(GameRatingStats stats) {
+        return new GameRatingSummary(stats.getGameId(), stats.getReviewCount(), stats.getAverageRating(),
+                histogram(stats.getOneStar(), stats.getTwoStars(), stats.getThreeStars(),
+                        stats.getFourStars(), stats.getFiveStars()));
+    }
+
+    public static GameRatingSummary empty(Long gameId) {
+        return new GameRatingSummary(gameId, 0, null, histogram(0, 0, 0, 0, 0));
+    }
+
+    private static Map<Integer, Long> histogram(long... countsByStars) {
+        Map<Integer, Long> histogram = new TreeMap<>();
+        for (int i = 0; i < countsByStars.length; i++) {
+            histogram.put(i + 1, countsByStars[i]);
+        }
+        return Collections.unmodifiableMap(histogram);
+    }
+}
@@ -0,0 +1,7 @@
+package com.khomsi.backend.additional.review.model.dto;
+
+import java.util.List;
+
+public record ReviewPage(List<ReviewDTO> reviews, GameRatingSummary rating, long totalItems, int totalPages,
+                         int currentPage) {
+}
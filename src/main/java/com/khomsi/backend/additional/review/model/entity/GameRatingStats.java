@@ -0,0 +1,46 @@
+package com.khomsi.backend.additional.review.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+// Read side of game_rating_stats, rows are only written by GameRatingStatsRepository.applyDelta
+@Getter
+@Entity
+@Immutable
+@Table(name = "game_rating_stats")
+public class GameRatingStats {
+    @Id
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_1", nullable = false)
+    private long oneStar;
+
+    @Column(name = "rating_2", nullable = false)
+    private long twoStars;
+
+    @Column(name = "rating_3", nullable = false)
+    private long threeStars;
+
+    @Column(name = "rating_4", nullable = false)
+    private long fourStars;
+
+    @Column(name = "rating_5", nullable = false)
+    private long fiveStars;
+
+    // Generated by the db from the sum and count, null while the game has no reviews
+    @Column(name = "average_rating", precision = 3, scale = 2, insertable = false, updatable = false)
+    private BigDecimal averageRating;
+}
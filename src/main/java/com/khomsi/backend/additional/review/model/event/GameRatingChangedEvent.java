@@ -0,0 +1,5 @@
+package com.khomsi.backend.additional.review.model.event;
+
+// Published when a review of the game is added, re-rated or removed
+public record GameRatingChangedEvent(Long gameId) {
+}
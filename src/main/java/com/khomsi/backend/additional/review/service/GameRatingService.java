@@ -0,0 +1,14 @@
+package com.khomsi.backend.additional.review.service;
+
+import com.khomsi.backend.additional.review.model.dto.GameRatingSummary;
+
+public interface GameRatingService {
+    GameRatingSummary getSummary(Long gameId);
+
+    //Called inside the review write transaction, the aggregate commits or rolls back together with the review
+    void reviewAdded(Long gameId, int rating);
+
+    void reviewChanged(Long gameId, int oldRating, int newRating);
+
+    void reviewRemoved(Long gameId, int rating);
+}
@@ -1,19 +1,21 @@
 package com.khomsi.backend.additional.review.service;
 
 import com.khomsi.backend.additional.review.model.dto.ReviewDTO;
+import com.khomsi.backend.additional.review.model.dto.ReviewPage;
 import com.khomsi.backend.additional.review.model.dto.ReviewRequest;
 import com.khomsi.backend.additional.review.model.dto.ReviewResponse;
 import com.khomsi.backend.additional.review.model.entity.Review;
 import org.springframework.http.ResponseEntity;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public interface ReviewService {
     ResponseEntity<ReviewResponse> addReview(Long gameId, ReviewRequest reviewRequest);
 
     ResponseEntity<ReviewResponse> editReview(Long reviewId, ReviewRequest reviewRequest);
 
-    List<ReviewDTO> viewReview(Long gameId);
+    ResponseEntity<StreamingResponseBody> viewReview(Long gameId);
+
+    ReviewPage getReviewPage(Long gameId, int page, int size);
 
     ResponseEntity<ReviewResponse> deleteReview(Long reviewId);
 
@@ -0,0 +1,73 @@
+package com.khomsi.backend.additional.review.service.impl;
+
+import com.khomsi.backend.additional.review.GameRatingStatsRepository;
+import com.khomsi.backend.additional.review.model.dto.GameRatingSummary;
+import com.khomsi.backend.additional.review.model.event.GameRatingChangedEvent;
+import com.khomsi.backend.additional.review.service.GameRatingService;
+import com.khomsi.backend.main.game.service.CatalogVersionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import static com.khomsi.backend.config.CacheConfig.GAME_RATINGS;
+
+@Service
+@RequiredArgsConstructor
+public class GameRatingServiceImpl implements GameRatingService {
+    private static final int NONE = 0;
+
+    private final GameRatingStatsRepository gameRatingStatsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final CatalogVersionService catalogVersionService;
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = GAME_RATINGS, sync = true)
+    public GameRatingSummary getSummary(Long gameId) {
+        return gameRatingStatsRepository.findById(gameId)
+                .map(GameRatingSummary::of)
+                .orElseGet(() -> GameRatingSummary.empty(gameId));
+    }
+
+    @Override
+    @Transactional
+    public void reviewAdded(Long gameId, int rating) {
+        applyDelta(gameId, NONE, rating);
+    }
+
+    @Override
+    @Transactional
+    public void reviewChanged(Long gameId, int oldRating, int newRating) {
+        if (oldRating != newRating) {
+            applyDelta(gameId, oldRating, newRating);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void reviewRemoved(Long gameId, int rating) {
+        applyDelta(gameId, rating, NONE);
+    }
+
+    private void applyDelta(Long gameId, int removedRating, int addedRating) {
+        gameRatingStatsRepository.applyDelta(gameId, removedRating, addedRating);
+        eventPublisher.publishEvent(new GameRatingChangedEvent(gameId));
+    }
+
+    // After commit, so a concurrent reader can't cache the aggregate from before the change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(GameRatingChangedEvent event) {
+        Cache cache = cacheManager.getCache(GAME_RATINGS);
+        if (cache != null) {
+            cache.evict(event.gameId());
+        }
+        // The catalog can be sorted by rating
+        catalogVersionService.bump();
+    }
+}
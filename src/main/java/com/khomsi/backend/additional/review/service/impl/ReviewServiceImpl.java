@@ -2,23 +2,34 @@ package com.khomsi.backend.additional.review.service.impl;
 
 import com.khomsi.backend.additional.review.ReviewRepository;
 import com.khomsi.backend.additional.review.mapper.ReviewMapper;
+import com.khomsi.backend.additional.review.model.dto.GameRatingSummary;
 import com.khomsi.backend.additional.review.model.dto.ReviewDTO;
+import com.khomsi.backend.additional.review.model.dto.ReviewPage;
 import com.khomsi.backend.additional.review.model.dto.ReviewRequest;
 import com.khomsi.backend.additional.review.model.dto.ReviewResponse;
 import com.khomsi.backend.additional.review.model.entity.Review;
+import com.khomsi.backend.additional.review.service.GameRatingService;
 import com.khomsi.backend.additional.review.service.ReviewService;
 import com.khomsi.backend.main.game.model.entity.Game;
 import com.khomsi.backend.main.game.service.GameService;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.service.MembershipService;
 import com.khomsi.backend.main.user.service.UserInfoService;
+import com.khomsi.backend.main.utils.JsonArrayStreamer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -27,8 +38,12 @@ public class ReviewServiceImpl implements ReviewService {
     private final UserInfoService userInfoService;
     private final GameService gameService;
     private final ReviewMapper reviewMapper;
+    private final MembershipService membershipService;
+    private final JsonArrayStreamer jsonArrayStreamer;
+    private final GameRatingService gameRatingService;
 
     @Override
+    @Transactional
     public ResponseEntity<ReviewResponse> addReview(Long gameId, ReviewRequest reviewRequest) {
         UserInfo existingUser = userInfoService.getUserInfo();
         Game game = gameService.getActiveGameById(gameId);
@@ -36,32 +51,38 @@ public class ReviewServiceImpl implements ReviewService {
 
         Review review = new Review(existingUser, game, reviewRequest.rating(), reviewRequest.comment());
         reviewRepository.save(review);
+        gameRatingService.reviewAdded(game.getId(), review.getRating());
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new ReviewResponse("Review with id " + review.getId() + " has been created!"));
     }
 
     @Override
+    @Transactional
     public ResponseEntity<ReviewResponse> editReview(Long reviewId, ReviewRequest reviewRequest) {
         UserInfo existingUser = userInfoService.getUserInfo();
         Review review = getReview(reviewId);
         checkUserCanEditReview(existingUser, review);
 
+        int oldRating = review.getRating();
         review.setComment(reviewRequest.comment());
         review.setRating(reviewRequest.rating());
         review.setReviewDate(LocalDateTime.now());
         reviewRepository.save(review);
+        gameRatingService.reviewChanged(review.getGames().getId(), oldRating, review.getRating());
 
         return ResponseEntity.status(HttpStatus.OK)
                 .body(new ReviewResponse("Review with id " + review.getId() + " has been changed!"));
     }
 
     @Override
+    @Transactional
     public ResponseEntity<ReviewResponse> deleteReview(Long reviewId) {
         Review review = getReview(reviewId);
         UserInfo existingUser = userInfoService.getUserInfo();
         checkIfCurrentUser(existingUser, review);
         reviewRepository.delete(review);
+        gameRatingService.reviewRemoved(review.getGames().getId(), review.getRating());
         return ResponseEntity.status(HttpStatus.OK)
                 .body(new ReviewResponse("Review with id " + reviewId + " was successfully deleted."));
     }
@@ -80,11 +101,20 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    public List<ReviewDTO> viewReview(Long gameId) {
-        List<Review> reviews = reviewRepository.findAllByGameIdOrderByReviewDate(gameId);
-        return reviews.stream()
-                .map(reviewMapper::toReviewToDTO)
-                .toList();
+    public ResponseEntity<StreamingResponseBody> viewReview(Long gameId) {
+        return jsonArrayStreamer.stream((ReviewDTO last, Pageable page) ->
+                reviewRepository.findReviewsPageAfter(gameId, last, page), Function.identity());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReviewPage getReviewPage(Long gameId, int page, int size) {
+        GameRatingSummary rating = gameRatingService.getSummary(gameId);
+        List<ReviewDTO> reviews = rating.reviewCount() == 0 ? List.of()
+                : reviewRepository.findReviewPageByGameId(gameId,
+                PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "reviewDate", "id")));
+        int totalPages = (int) ((rating.reviewCount() + size - 1) / size);
+        return new ReviewPage(reviews, rating, rating.reviewCount(), totalPages, page);
     }
 
     private void checkUserCanReview(UserInfo user, Game game) {
@@ -114,14 +144,12 @@ public class ReviewServiceImpl implements ReviewService {
 
     private boolean isReviewedGame(Game game, UserInfo existingUser) {
         // Check if the user has already written a review for the game
-        return existingUser.getReviews()
-                .stream().anyMatch(review -> review.getGames().equals(game));
+        return membershipService.hasReviewed(existingUser.getExternalId(), game.getId());
     }
 
     private boolean isGameNotInLibrary(Game game, UserInfo existingUser) {
         // Check if the user has the game in their library
-        return existingUser.getUserGames()
-                .stream().noneMatch(userGames -> userGames.getGame().equals(game));
+        return !membershipService.ownsGame(existingUser.getExternalId(), game.getId());
     }
 
     @Override
@@ -5,17 +5,21 @@ import com.khomsi.backend.additional.tag.model.entity.Tag;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+import static com.khomsi.backend.config.CacheConfig.TAGS;
+
 @Service
 @RequiredArgsConstructor
 public class TagServiceImpl implements TagService {
     private final TagRepository tagRepository;
 
     @Override
+    @Cacheable(TAGS)
     public List<Tag> getAllTags() {
         return tagRepository.findAll();
     }
@@ -4,8 +4,11 @@ import com.khomsi.backend.additional.wishlist.model.entity.Wishlist;
 import com.khomsi.backend.main.game.model.entity.Game;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
@@ -16,4 +19,10 @@ public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
     Wishlist findByUsersAndGames(UserInfo userInfo, Game game);
 
     Boolean existsByUsersAndGames(UserInfo userInfo, Game game);
+
+    boolean existsByUsersExternalIdAndGamesId(String userId, Long gameId);
+
+    @Modifying
+    @Query("DELETE FROM Wishlist w WHERE w.users.externalId = :userId AND w.games.id IN :gameIds")
+    int deleteAllByUserAndGameIds(@Param("userId") String userId, @Param("gameIds") Collection<Long> gameIds);
 }
@@ -4,6 +4,7 @@ import com.khomsi.backend.additional.wishlist.model.response.WishListResponse;
 import com.khomsi.backend.main.game.model.dto.ShortGameModel;
 import org.springframework.http.ResponseEntity;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface WishlistService {
@@ -13,5 +14,7 @@ public interface WishlistService {
 
     ResponseEntity<WishListResponse> deleteGameFromWishlist(Long gameId);
 
+    void deleteGamesFromWishlist(String userId, Collection<Long> gameIds);
+
     boolean checkIfGamesIsInWishlist(Long gameId);
 }
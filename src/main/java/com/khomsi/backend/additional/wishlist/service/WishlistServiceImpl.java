@@ -9,13 +9,16 @@ import com.khomsi.backend.main.game.model.dto.ShortGameModel;
 import com.khomsi.backend.main.game.model.entity.Game;
 import com.khomsi.backend.main.game.service.GameService;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.service.MembershipService;
 import com.khomsi.backend.main.user.service.UserInfoService;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -28,6 +31,7 @@ public class WishlistServiceImpl implements WishlistService {
     private final GameService gameService;
     private final GameMapper gameMapper;
     private final EmailService emailService;
+    private final MembershipService membershipService;
     //1 time in a week send the email
     public static final long FIXED_RATE_MILLISECONDS = 7 * 24 * 60 * 60 * 1000;
 
@@ -77,12 +81,20 @@ public class WishlistServiceImpl implements WishlistService {
         return new ResponseEntity<>(new WishListResponse("Game successfully removed from wishlist!"), HttpStatus.OK);
     }
 
+    @Override
+    @Transactional
+    public void deleteGamesFromWishlist(String userId, Collection<Long> gameIds) {
+        if (!gameIds.isEmpty()) {
+            wishlistRepository.deleteAllByUserAndGameIds(userId, gameIds);
+        }
+    }
+
     @Override
     public boolean checkIfGamesIsInWishlist(Long gameId) {
         UserInfo user = userInfoService.getUserInfo();
         Game game = gameService.getActiveGameById(gameId);
         // Check if the game exists in the user's wishlist
-        boolean isInWishlist = wishlistRepository.existsByUsersAndGames(user, game);
+        boolean isInWishlist = membershipService.hasInWishlist(user.getExternalId(), game.getId());
         // Check if the game exists in the user's library
         boolean isInLibrary = userInfoService.checkIfGameIsOwnedByCurrentUser(game);
         // Return false if the game is either in the wishlist or library, otherwise return true
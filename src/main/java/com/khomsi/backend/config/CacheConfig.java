@@ -0,0 +1,18 @@
+package com.khomsi.backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caffeine caches for reference data, size/ttl are set by spring.cache.caffeine.spec
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String MAX_PRICE = "maxPrice";
+    public static final String GENRES = "genres";
+    public static final String TAGS = "tags";
+    public static final String PLATFORMS = "platforms";
+    public static final String DEVELOPERS = "developers";
+    public static final String PUBLISHERS = "publishers";
+    public static final String GAME_DETAILS = "gameDetails";
+    public static final String GAME_RATINGS = "gameRatings";
+}
@@ -17,4 +17,12 @@ public class EntityModelRequest {
     @Max(Integer.MAX_VALUE)
     int size = 5;
     String[] sort;
+    // Keyset mode: empty for the first page, then nextCursor of the previous one; page is ignored
+    String cursor;
+    // Total count is skipped in keyset mode unless asked for
+    boolean withTotal;
+
+    public boolean isKeysetMode() {
+        return cursor != null;
+    }
 }
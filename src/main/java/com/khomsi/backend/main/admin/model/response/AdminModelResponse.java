@@ -5,5 +5,15 @@ import lombok.Builder;
 import java.util.List;
 
 @Builder
-public record AdminModelResponse(List<?> entities, long totalItems, int totalPages, int currentPage) {
+// In keyset mode the totals are null unless requested and nextCursor points to the next page
+public record AdminModelResponse(List<?> entities, Long totalItems, Integer totalPages, int currentPage,
+                                 String nextCursor) {
+    public static AdminModelResponse ofKeysetPage(List<?> entities, String nextCursor, Long totalItems, int size) {
+        return AdminModelResponse.builder()
+                .entities(entities)
+                .totalItems(totalItems)
+                .totalPages(totalItems == null ? null : (int) ((totalItems + size - 1) / size))
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
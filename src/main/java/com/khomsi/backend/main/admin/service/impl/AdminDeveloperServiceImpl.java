@@ -6,27 +6,37 @@ import com.khomsi.backend.additional.developer.service.DeveloperService;
 import com.khomsi.backend.main.admin.model.request.EntityEditRequest;
 import com.khomsi.backend.main.admin.model.response.AdminResponse;
 import com.khomsi.backend.main.admin.service.AdminDeveloperService;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import static com.khomsi.backend.config.CacheConfig.DEVELOPERS;
+
 @Service
 @RequiredArgsConstructor
 public class AdminDeveloperServiceImpl implements AdminDeveloperService {
     private final DeveloperService developerService;
     private final DeveloperRepository developerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @CacheEvict(cacheNames = DEVELOPERS, allEntries = true)
     public AdminResponse editDeveloper(EntityEditRequest entityEditRequest) {
         Developer developer = developerService.findDeveloperById(entityEditRequest.id());
         developer.setName(entityEditRequest.name());
         developerRepository.save(developer);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.wholeCatalog());
         return AdminResponse.builder().response("Developer with id " + developer.getId() + " is edited!").build();
     }
 
     @Override
+    @CacheEvict(cacheNames = DEVELOPERS, allEntries = true)
     public AdminResponse deleteDeveloper(Long developerId) {
         Developer developer = developerService.findDeveloperById(developerId);
         developerRepository.delete(developer);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.wholeCatalog());
         return AdminResponse.builder().response("Developer with id " + developer.getId() + " is deleted!").build();
     }
 }
@@ -21,17 +21,22 @@ import com.khomsi.backend.main.game.model.dto.GameCriteria;
 import com.khomsi.backend.main.game.model.dto.GameModelWithGenreLimit;
 import com.khomsi.backend.main.game.model.dto.GeneralGame;
 import com.khomsi.backend.main.game.model.entity.Game;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import com.khomsi.backend.main.game.service.GameSearchIndex;
 import com.khomsi.backend.main.game.service.GameService;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -46,6 +51,8 @@ public class AdminGameServiceImpl implements AdminGameService {
     private final GameRepository gameRepository;
     private final GameMediaRepository gameMediaRepository;
     private final GameMapper gameMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GameSearchIndex gameSearchIndex;
 
     @Override
     @Transactional
@@ -55,6 +62,7 @@ public class AdminGameServiceImpl implements AdminGameService {
         Game game = buildGameEntityFromDTO(new Game(), new GameMedia(), gameRequest);
         // Save game in repository
         game = gameRepository.save(game);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.forGame(game.getId()));
         return AdminResponse.builder()
                 .response("Game with id " + game.getId() + " was added!")
                 .build();
@@ -71,6 +79,7 @@ public class AdminGameServiceImpl implements AdminGameService {
         buildGameEntityFromDTO(game, game.getGameMedia(), gameRequest);
         // Save the updated game entities
         game = gameRepository.save(game);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.forGame(game.getId()));
         return AdminResponse.builder()
                 .response("Game with id " + game.getId() + " was edited!")
                 .build();
@@ -147,9 +156,13 @@ public class AdminGameServiceImpl implements AdminGameService {
 
     @Override
     public List<GameModelWithGenreLimit> searchGamesByTitleWithoutActiveCheck(String text, int qty) {
-        return gameRepository.findSimilarTitlesWithoutActiveCheck(gameService.transformWord(text)).stream()
+        List<Long> rankedIds = gameSearchIndex.search(text, qty, false);
+        Map<Long, Game> gamesById = gameRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Game::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(gamesById::get)
+                .filter(Objects::nonNull)
                 .map(game -> gameMapper.toLimitGenreGame(game, false))
-                .limit(qty)
                 .toList();
     }
 
@@ -157,6 +170,7 @@ public class AdminGameServiceImpl implements AdminGameService {
     public AdminResponse deleteGame(Long gameId) {
         Game game = gameService.getGameById(gameId);
         gameRepository.delete(game);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.forGame(gameId));
         return AdminResponse.builder()
                 .response("Game with id " + game.getId() + " was deleted!")
                 .build();
@@ -175,6 +189,7 @@ public class AdminGameServiceImpl implements AdminGameService {
             game.setActive(active);
             String status = active ? "activated" : "deactivated";
             gameRepository.save(game);
+            eventPublisher.publishEvent(GameCatalogChangedEvent.forGame(gameId));
             return AdminResponse.builder().response("Game with id " + gameId + " is " + status + "!").build();
         } else {
             String status = active ? "already activated" : "already deactivated";
@@ -7,39 +7,53 @@ import com.khomsi.backend.main.admin.model.request.EntityInsertRequest;
 import com.khomsi.backend.main.admin.model.response.AdminResponse;
 import com.khomsi.backend.main.admin.service.AdminGenreService;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import com.khomsi.backend.main.game.service.CatalogVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import static com.khomsi.backend.config.CacheConfig.GENRES;
+
 @Service
 @RequiredArgsConstructor
 public class AdminGenreServiceImpl implements AdminGenreService {
     private final GenreService genreService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogVersionService catalogVersionService;
 
     @Override
+    @CacheEvict(cacheNames = GENRES, allEntries = true)
     public AdminResponse addGenre(EntityInsertRequest entityInsertRequest) {
         String name = entityInsertRequest.name();
         checkIfGenreNameAlreadyExists(name);
         Genre genre = new Genre();
         genre.setName(name);
         genreService.saveGenreToDb(genre);
+        catalogVersionService.bump();
         return AdminResponse.builder().response("Genre with id " + genre.getId() + " is created!").build();
     }
 
     @Override
+    @CacheEvict(cacheNames = GENRES, allEntries = true)
     public AdminResponse editGenre(EntityEditRequest entityEditRequest) {
         Genre genre = genreService.getGenreById(entityEditRequest.id());
         String newName = entityEditRequest.name();
         checkIfGenreNameAlreadyExists(newName);
         genre.setName(newName);
         genreService.saveGenreToDb(genre);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.wholeCatalog());
         return AdminResponse.builder().response("Genre with id " + genre.getId() + " is edited!").build();
     }
 
     @Override
+    @CacheEvict(cacheNames = GENRES, allEntries = true)
     public AdminResponse deleteGenre(Long id) {
         Genre genre = genreService.getGenreById(id);
         genreService.deleteGenre(genre);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.wholeCatalog());
         return AdminResponse.builder().response("Genre with id " + genre.getId() + " is deleted!").build();
     }
 
@@ -7,39 +7,53 @@ import com.khomsi.backend.main.admin.model.request.EntityInsertRequest;
 import com.khomsi.backend.main.admin.model.response.AdminResponse;
 import com.khomsi.backend.main.admin.service.AdminPlatformService;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import com.khomsi.backend.main.game.service.CatalogVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import static com.khomsi.backend.config.CacheConfig.PLATFORMS;
+
 @Service
 @RequiredArgsConstructor
 public class AdminPlatformServiceImpl implements AdminPlatformService {
     private final PlatformService platformService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogVersionService catalogVersionService;
 
     @Override
+    @CacheEvict(cacheNames = PLATFORMS, allEntries = true)
     public AdminResponse addPlatform(EntityInsertRequest entityInsertRequest) {
         String name = entityInsertRequest.name();
         checkIfPlatformNameAlreadyExists(name);
         Platform platform = new Platform();
         platform.setName(name);
         platformService.savePlatformToDb(platform);
+        catalogVersionService.bump();
         return AdminResponse.builder().response("Platform with id " + platform.getId() + " is created!").build();
     }
 
     @Override
+    @CacheEvict(cacheNames = PLATFORMS, allEntries = true)
     public AdminResponse editPlatform(EntityEditRequest entityEditRequest) {
         Platform platform = platformService.getPlatformById(entityEditRequest.id());
         String newName = entityEditRequest.name();
         checkIfPlatformNameAlreadyExists(newName);
         platform.setName(newName);
         platformService.savePlatformToDb(platform);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.wholeCatalog());
         return AdminResponse.builder().response("Platform with id " + platform.getId() + " is edited!").build();
     }
 
     @Override
+    @CacheEvict(cacheNames = PLATFORMS, allEntries = true)
     public AdminResponse deletePlatform(Long platformId) {
         Platform platform = platformService.getPlatformById(platformId);
         platformService.deletePlatform(platform);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.wholeCatalog());
         return AdminResponse.builder().response("Platform with id " + platform.getId() + " is deleted!").build();
     }
     private void checkIfPlatformNameAlreadyExists(String newPlatformName) {
@@ -6,27 +6,37 @@ import com.khomsi.backend.additional.publisher.service.PublisherService;
 import com.khomsi.backend.main.admin.model.request.EntityEditRequest;
 import com.khomsi.backend.main.admin.model.response.AdminResponse;
 import com.khomsi.backend.main.admin.service.AdminPublisherService;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import static com.khomsi.backend.config.CacheConfig.PUBLISHERS;
+
 @Service
 @RequiredArgsConstructor
 public class AdminPublisherServiceImpl implements AdminPublisherService {
     private final PublisherService publisherService;
     private final PublisherRepository publisherRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @CacheEvict(cacheNames = PUBLISHERS, allEntries = true)
     public AdminResponse editPublisher(EntityEditRequest entityEditRequest) {
         Publisher publisher = publisherService.findPublisherById(entityEditRequest.id());
         publisher.setName(entityEditRequest.name());
         publisherRepository.save(publisher);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.wholeCatalog());
         return AdminResponse.builder().response("Publisher with id " + publisher.getId() + " is edited!").build();
     }
 
     @Override
+    @CacheEvict(cacheNames = PUBLISHERS, allEntries = true)
     public AdminResponse deletePublisher(Long publisherId) {
         Publisher publisher = publisherService.findPublisherById(publisherId);
         publisherRepository.delete(publisher);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.wholeCatalog());
         return AdminResponse.builder().response("Publisher with id " + publisher.getId() + " is deleted!").build();
     }
 }
@@ -4,6 +4,7 @@ import com.khomsi.backend.additional.review.ReviewRepository;
 import com.khomsi.backend.additional.review.mapper.ReviewMapper;
 import com.khomsi.backend.additional.review.model.dto.ReviewDTO;
 import com.khomsi.backend.additional.review.model.entity.Review;
+import com.khomsi.backend.additional.review.service.GameRatingService;
 import com.khomsi.backend.additional.review.service.ReviewService;
 import com.khomsi.backend.main.admin.model.request.EntityModelRequest;
 import com.khomsi.backend.main.admin.model.request.ReviewRequest;
@@ -11,11 +12,16 @@ import com.khomsi.backend.main.admin.model.response.AdminModelResponse;
 import com.khomsi.backend.main.admin.model.response.AdminResponse;
 import com.khomsi.backend.main.admin.service.AdminReviewService;
 import com.khomsi.backend.main.utils.email.service.EmailService;
+import com.khomsi.backend.main.utils.KeysetPage;
+import com.khomsi.backend.main.utils.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -29,12 +35,24 @@ public class AdminReviewServiceImpl implements AdminReviewService {
     private final ReviewMapper reviewMapper;
     private final ReviewService reviewService;
     private final EmailService emailService;
+    private final GameRatingService gameRatingService;
 
     @Override
     public AdminModelResponse getAllReviewsByGame(Long gameId, EntityModelRequest entityModelRequest) {
         int page = entityModelRequest.getPage();
-        Pageable pageable = PageRequest.of(page, entityModelRequest.getSize(),
-                createSorting(entityModelRequest.getSort(), "reviewDate"));
+        Sort sorting = createSorting(entityModelRequest.getSort(), "reviewDate");
+        if (entityModelRequest.isKeysetMode()) {
+            Specification<Review> ofGame = (root, query, criteriaBuilder) ->
+                    criteriaBuilder.equal(root.get("games").get("id"), gameId);
+            KeysetPage<Review> reviewPage = KeysetPagination.findPage(reviewRepository, ofGame, sorting, "id",
+                    entityModelRequest.getCursor(), entityModelRequest.getSize());
+            return AdminModelResponse.ofKeysetPage(reviewPage.content().stream()
+                            .map(reviewMapper::toReviewToDTO)
+                            .toList(), reviewPage.nextCursor(),
+                    entityModelRequest.isWithTotal() ? reviewRepository.count(ofGame) : null,
+                    entityModelRequest.getSize());
+        }
+        Pageable pageable = PageRequest.of(page, entityModelRequest.getSize(), sorting);
         Page<Review> transactionPage = reviewRepository.findAllByGamesId(gameId, pageable);
 
         List<ReviewDTO> reviews = transactionPage.getContent().stream()
@@ -61,9 +79,11 @@ public class AdminReviewServiceImpl implements AdminReviewService {
     }
 
     @Override
+    @Transactional
     public AdminResponse deleteReview(Long reviewId) {
         Review review = reviewService.getReview(reviewId);
         reviewRepository.delete(review);
+        gameRatingService.reviewRemoved(review.getGames().getId(), review.getRating());
         String truncatedTitle = truncateTitle(review.getGames().getTitle());
         emailService.sendWarningEmail("Your review on game `" + truncatedTitle +
                 "` was deleted by Admin on GRID!", review.getUsers());
@@ -7,41 +7,54 @@ import com.khomsi.backend.main.admin.model.request.EntityInsertRequest;
 import com.khomsi.backend.main.admin.model.response.AdminResponse;
 import com.khomsi.backend.main.admin.service.AdminTagService;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import com.khomsi.backend.main.game.service.CatalogVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import static com.khomsi.backend.config.CacheConfig.TAGS;
+
 @Service
 @RequiredArgsConstructor
 public class AdminTagServiceImpl implements AdminTagService {
     private final TagService tagService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogVersionService catalogVersionService;
 
     @Override
+    @CacheEvict(cacheNames = TAGS, allEntries = true)
     public AdminResponse addTag(EntityInsertRequest entityInsertRequest) {
         String tagName = entityInsertRequest.name();
         checkIfTagNameAlreadyExists(tagName);
         Tag tag = new Tag();
         tag.setName(tagName);
         tagService.saveTagToDb(tag);
-
+        catalogVersionService.bump();
         return AdminResponse.builder().response("Tag with id " + tag.getId() + " is created!").build();
     }
 
 
     @Override
+    @CacheEvict(cacheNames = TAGS, allEntries = true)
     public AdminResponse editTag(EntityEditRequest entityEditRequest) {
         Tag tag = tagService.getTagById(entityEditRequest.id());
         String newTagName = entityEditRequest.name();
         checkIfTagNameAlreadyExists(newTagName);
         tag.setName(newTagName);
         tagService.saveTagToDb(tag);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.wholeCatalog());
         return AdminResponse.builder().response("Tag with id " + tag.getId() + " is edited!").build();
     }
 
     @Override
+    @CacheEvict(cacheNames = TAGS, allEntries = true)
     public AdminResponse deleteTag(Long tagId) {
         Tag tag = tagService.getTagById(tagId);
         tagService.deleteTag(tag);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.wholeCatalog());
         return AdminResponse.builder().response("Tag with id " + tag.getId() + " is deleted!").build();
     }
 
@@ -7,10 +7,14 @@ import com.khomsi.backend.main.checkout.mapper.TransactionMapper;
 import com.khomsi.backend.main.checkout.model.dto.TransactionDTO;
 import com.khomsi.backend.main.checkout.model.entity.Transaction;
 import com.khomsi.backend.main.checkout.repository.TransactionRepository;
+import com.khomsi.backend.main.utils.KeysetPage;
+import com.khomsi.backend.main.utils.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -25,8 +29,18 @@ public class AdminTransactionServiceImpl implements AdminTransactionService {
     @Override
     public AdminModelResponse getAllTransactions(EntityModelRequest entityModelRequest) {
         int page = entityModelRequest.getPage();
-        Pageable pageable = PageRequest.of(page, entityModelRequest.getSize(),
-                createSorting(entityModelRequest.getSort(), "createdAt"));
+        Sort sorting = createSorting(entityModelRequest.getSort(), "createdAt");
+        if (entityModelRequest.isKeysetMode()) {
+            KeysetPage<Transaction> transactionPage = KeysetPagination.findPage(transactionRepository,
+                    Specification.where(null), sorting, "transactionId", entityModelRequest.getCursor(),
+                    entityModelRequest.getSize());
+            return AdminModelResponse.ofKeysetPage(transactionPage.content().stream()
+                            .map(transactionMapper::transactionToTransactionDTO)
+                            .toList(), transactionPage.nextCursor(),
+                    entityModelRequest.isWithTotal() ? transactionRepository.count() : null,
+                    entityModelRequest.getSize());
+        }
+        Pageable pageable = PageRequest.of(page, entityModelRequest.getSize(), sorting);
         Page<Transaction> transactionPage = transactionRepository.findAll(pageable);
 
         List<TransactionDTO> transactions = transactionPage.getContent().stream()
@@ -8,12 +8,18 @@ import com.khomsi.backend.main.utils.email.service.EmailService;
 import com.khomsi.backend.main.user.mapper.UserInfoMapper;
 import com.khomsi.backend.main.user.model.dto.ShortUserInfoDTO;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.model.enums.BalanceOperation;
 import com.khomsi.backend.main.user.repository.UserInfoRepository;
+import com.khomsi.backend.main.user.service.BalanceService;
 import com.khomsi.backend.main.user.service.UserInfoService;
+import com.khomsi.backend.main.utils.KeysetPage;
+import com.khomsi.backend.main.utils.KeysetPagination;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -28,12 +34,23 @@ public class AdminUserServiceImpl implements AdminUserService {
     private final UserInfoRepository userInfoRepository;
     private final UserInfoMapper userInfoMapper;
     private final EmailService emailService;
+    private final BalanceService balanceService;
 
     @Override
     public AdminModelResponse getAllUsers(EntityModelRequest entityModelRequest) {
         int page = entityModelRequest.getPage();
-        Pageable pageable = PageRequest.of(page, entityModelRequest.getSize(),
-                createSorting(entityModelRequest.getSort(), "externalId"));
+        Sort sorting = createSorting(entityModelRequest.getSort(), "externalId");
+        if (entityModelRequest.isKeysetMode()) {
+            KeysetPage<UserInfo> userInfoPage = KeysetPagination.findPage(userInfoRepository,
+                    Specification.where(null), sorting, "externalId", entityModelRequest.getCursor(),
+                    entityModelRequest.getSize());
+            return AdminModelResponse.ofKeysetPage(userInfoPage.content().stream()
+                            .map(userInfoMapper::toShortUserInfoDTO)
+                            .toList(), userInfoPage.nextCursor(),
+                    entityModelRequest.isWithTotal() ? userInfoRepository.count() : null,
+                    entityModelRequest.getSize());
+        }
+        Pageable pageable = PageRequest.of(page, entityModelRequest.getSize(), sorting);
         Page<UserInfo> userInfoPage = userInfoRepository.findAll(pageable);
 
         List<ShortUserInfoDTO> users = userInfoPage.getContent().stream()
@@ -52,8 +69,7 @@ public class AdminUserServiceImpl implements AdminUserService {
     public AdminResponse updateUserBalance(String userId, BigDecimal newBalance) {
         UserInfo user = userInfoService.getExistingUser(userId);
         BigDecimal oldBalance = user.getBalance();
-        user.setBalance(newBalance);
-        userInfoRepository.save(user);
+        balanceService.replace(user, newBalance, BalanceOperation.ADMIN_ADJUSTMENT, null);
         emailService.sendBalanceUpdateNotification(user.getEmail(), oldBalance, newBalance);
         return new AdminResponse("User balance updated successfully");
     }
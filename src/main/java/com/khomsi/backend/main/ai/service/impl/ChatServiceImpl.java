@@ -7,7 +7,6 @@ import com.khomsi.backend.main.ai.model.dto.AiChatGameModel;
 import com.khomsi.backend.main.ai.model.dto.ChatResponse;
 import com.khomsi.backend.main.ai.service.ChatService;
 import com.khomsi.backend.main.game.GameRepository;
-import com.khomsi.backend.main.game.mapper.GameMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -24,7 +23,6 @@ public class ChatServiceImpl implements ChatService {
     private String templateText;
     private final ChatSession chatSession;
     private final GameRepository gameRepository;
-    private final GameMapper gameMapper;
 
     @Override
     public ChatResponse sendRequestToAiChat(String text) throws IOException {
@@ -34,8 +32,7 @@ public class ChatServiceImpl implements ChatService {
     }
 
     private String getRequestText(String text) {
-        List<AiChatGameModel> games = gameRepository.findAllActiveGames()
-                .stream().map(gameMapper::toAiChatGameModel).toList();
+        List<AiChatGameModel> games = gameRepository.findAllActiveGamesForAiChat();
         return templateText.replace("{games}", games.toString())
                 .replace("{text}", text);
     }
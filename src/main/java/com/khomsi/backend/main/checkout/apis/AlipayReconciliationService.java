@@ -0,0 +1,6 @@
+package com.khomsi.backend.main.checkout.apis;
+
+public interface AlipayReconciliationService {
+    //Checks unpaid Alipay transactions with the provider, completes or expires them, returns how many were resolved
+    int sweep();
+}
@@ -6,13 +6,14 @@ import jakarta.servlet.http.HttpServletRequest;
 
 import java.math.BigDecimal;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface AlipayService {
-    PaymentResponse createBalanceRecharge(BigDecimal amount, HttpServletRequest request);
+    CompletableFuture<PaymentResponse> createBalanceRecharge(BigDecimal amount, HttpServletRequest request);
 
-    PaymentResponse createPayment(BalanceAction balanceAction, HttpServletRequest request);
+    CompletableFuture<PaymentResponse> createPayment(BalanceAction balanceAction, HttpServletRequest request);
 
-    PaymentResponse capturePayment(String outTradeNo);
+    CompletableFuture<PaymentResponse> capturePayment(String outTradeNo);
 
     boolean handleAsyncNotify(Map<String, String> notifyParams);
 }
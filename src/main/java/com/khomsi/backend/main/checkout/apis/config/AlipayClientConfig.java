@@ -1,25 +1,32 @@
 package com.khomsi.backend.main.checkout.apis.config;
 
+import com.alipay.api.AlipayApiException;
 import com.alipay.api.AlipayClient;
+import com.alipay.api.AlipayConfig;
 import com.alipay.api.DefaultAlipayClient;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@EnableConfigurationProperties(AlipayProperties.class)
+@EnableConfigurationProperties({AlipayProperties.class, PaymentHttpProperties.class,
+        AlipayReconciliationProperties.class})
 public class AlipayClientConfig {
 
     @Bean
-    public AlipayClient alipayClient(AlipayProperties alipayProperties) {
-        return new DefaultAlipayClient(
-                alipayProperties.getGatewayUrl(),
-                alipayProperties.getAppId(),
-                alipayProperties.getPrivateKey(),
-                alipayProperties.getFormat(),
-                alipayProperties.getCharset(),
-                alipayProperties.getAlipayPublicKey(),
-                alipayProperties.getSignType()
-        );
+    public AlipayClient alipayClient(AlipayProperties alipayProperties,
+                                     PaymentHttpProperties paymentHttpProperties) throws AlipayApiException {
+        AlipayConfig alipayConfig = new AlipayConfig();
+        alipayConfig.setServerUrl(alipayProperties.getGatewayUrl());
+        alipayConfig.setAppId(alipayProperties.getAppId());
+        alipayConfig.setPrivateKey(alipayProperties.getPrivateKey());
+        alipayConfig.setFormat(alipayProperties.getFormat());
+        alipayConfig.setCharset(alipayProperties.getCharset());
+        alipayConfig.setAlipayPublicKey(alipayProperties.getAlipayPublicKey());
+        alipayConfig.setSignType(alipayProperties.getSignType());
+        // The SDK has its own http stack, it gets the same timeouts as the other provider calls
+        alipayConfig.setConnectTimeout((int) paymentHttpProperties.getConnectTimeout().toMillis());
+        alipayConfig.setReadTimeout((int) paymentHttpProperties.getReadTimeout().toMillis());
+        return new DefaultAlipayClient(alipayConfig);
     }
 }
@@ -80,7 +80,8 @@ public class AlipayProperties {
      */
     private String subMerchantId;
     /**
-     * 订单过期时间，默认 15m。
+     * 交易和二维码的过期时间，默认 15m，格式为 Nm、Nh 或 Nd。
+     * 必须短于对账的 expire-after，订单过期前支付宝已不再接受付款。
      */
     private String timeoutExpress = "15m";
     /**
@@ -0,0 +1,24 @@
+package com.khomsi.backend.main.checkout.apis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.payment.reconciliation")
+public class AlipayReconciliationProperties {
+    // Unpaid transactions read per batch
+    private int batchSize = 100;
+    // Upper bound of transactions checked by one sweep, the rest waits for the next one
+    private int maxTransactionsPerSweep = 1000;
+    // Younger transactions are left to the user's own capture and the provider's notification
+    private Duration gracePeriod = Duration.ofMinutes(2);
+    // Unpaid this long, the trade is closed at Alipay and the games go back to the cart
+    private Duration expireAfter = Duration.ofMinutes(30);
+    // Alipay queries in flight at once, kept well below the shared provider bulkhead
+    private int parallelism = 4;
+    private int maxQueriesPerSecond = 20;
+}
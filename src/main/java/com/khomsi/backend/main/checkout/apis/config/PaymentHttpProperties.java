@@ -0,0 +1,57 @@
+package com.khomsi.backend.main.checkout.apis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 支付服务商出站 HTTP 客户端配置
+ * 用于绑定配置文件中以"app.payment.http"为前缀的配置项
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.payment.http")
+public class PaymentHttpProperties {
+    /**
+     * 建立 TCP 连接的超时时间。
+     */
+    private Duration connectTimeout = Duration.ofSeconds(3);
+    /**
+     * 等待服务商响应的超时时间。
+     */
+    private Duration readTimeout = Duration.ofSeconds(10);
+    /**
+     * 从连接池获取连接的超时时间。
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    /**
+     * 连接池最大连接数。
+     */
+    private int maxConnections = 50;
+    /**
+     * 每个服务商地址的最大连接数。
+     */
+    private int maxConnectionsPerRoute = 20;
+    /**
+     * 空闲连接在池中保留的时间。
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    /**
+     * 同时进行中的服务商调用上限（舱壁隔离），超出的调用立即失败。
+     */
+    private int maxConcurrentCalls = 32;
+    /**
+     * 连续失败多少次后熔断。
+     */
+    private int failureThreshold = 5;
+    /**
+     * 熔断持续时间，到期后放行一次试探调用。
+     */
+    private Duration openDuration = Duration.ofSeconds(30);
+    /**
+     * 是否在虚拟线程上执行调用（需要 JDK 21）。
+     */
+    private boolean virtualThreads;
+}
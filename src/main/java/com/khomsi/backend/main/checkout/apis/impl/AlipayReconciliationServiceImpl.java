@@ -0,0 +1,276 @@
+package com.khomsi.backend.main.checkout.apis.impl;
+
+import com.alipay.api.AlipayClient;
+import com.alipay.api.request.AlipayTradeCloseRequest;
+import com.alipay.api.request.AlipayTradeQueryRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.khomsi.backend.main.checkout.apis.AlipayReconciliationService;
+import com.khomsi.backend.main.checkout.apis.config.AlipayProperties;
+import com.khomsi.backend.main.checkout.apis.config.AlipayReconciliationProperties;
+import com.khomsi.backend.main.checkout.model.dto.PendingTransaction;
+import com.khomsi.backend.main.checkout.model.enums.PaymentMethod;
+import com.khomsi.backend.main.checkout.repository.TransactionRepository;
+import com.khomsi.backend.main.checkout.service.TransactionService;
+import com.khomsi.backend.main.utils.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.khomsi.backend.main.checkout.apis.impl.AlipayServiceImpl.ALIPAY_GATEWAY;
+import static com.khomsi.backend.main.checkout.apis.impl.AlipayServiceImpl.SUCCESS_STATUSES;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * Resolves unpaid Alipay transactions whose capture poll and notification were both lost. A sweep reads them in
+ * keyset batches by creation time and queries Alipay in parallel at a bounded rate. Paid ones are completed; overdue
+ * ones have their trade closed and their games returned to the cart, and are kept as expired.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "app.payment.reconciliation", name = "enabled", havingValue = "true")
+public class AlipayReconciliationServiceImpl implements AlipayReconciliationService {
+    private static final String PAYMENT_METHOD = String.valueOf(PaymentMethod.ALIPAY);
+    private static final String TRADE_CLOSED = "TRADE_CLOSED";
+    private static final String TRADE_NOT_EXIST = "ACQ.TRADE_NOT_EXIST";
+    private static final LocalDateTime FIRST_CURSOR = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final Pattern TIMEOUT_EXPRESS = Pattern.compile("(\\d+)([mhd])");
+
+    private enum Outcome {
+        COMPLETED, EXPIRED,
+        // Left as it is, the buyer may still pay or somebody else resolved it meanwhile
+        PENDING,
+        // Alipay could not be asked, the next sweep tries again
+        DEFERRED
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final AlipayClient alipayClient;
+    private final PaymentProviderClient paymentProviderClient;
+    private final AlipayReconciliationProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong backlog = new AtomicLong();
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+    private final Timer sweepDuration;
+    private long nextQueryAt = System.nanoTime();
+
+    public AlipayReconciliationServiceImpl(TransactionRepository transactionRepository,
+                                           TransactionService transactionService, AlipayClient alipayClient,
+                                           PaymentProviderClient paymentProviderClient,
+                                           AlipayReconciliationProperties properties, AlipayProperties alipayProperties,
+                                           ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        // An order is expired only once Alipay no longer takes payments for it
+        Duration tradeTimeout = parseTimeoutExpress(alipayProperties.getTimeoutExpress());
+        if (tradeTimeout.compareTo(properties.getExpireAfter()) >= 0) {
+            throw new IllegalStateException("app.payment.alipay.timeout-express " + tradeTimeout
+                    + " must be shorter than app.payment.reconciliation.expire-after " + properties.getExpireAfter());
+        }
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.alipayClient = alipayClient;
+        this.paymentProviderClient = paymentProviderClient;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        Gauge.builder("payment.reconciliation.backlog", backlog, AtomicLong::get)
+                .description("Unpaid Alipay transactions past the grace period, refreshed on every sweep")
+                .register(meterRegistry);
+        this.sweepDuration = Timer.builder("payment.reconciliation.sweep")
+                .description("Time to check one round of unpaid Alipay transactions")
+                .register(meterRegistry);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("payment.reconciliation.transactions")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${app.payment.reconciliation.poll-interval:PT1M}",
+            fixedDelayString = "${app.payment.reconciliation.poll-interval:PT1M}")
+    public int sweep() {
+        // A scheduled and a manual sweep never work on the same rows
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        Timer.Sample sample = Timer.start();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settledBefore = now.minus(properties.getGracePeriod());
+        LocalDateTime expireBefore = now.minus(properties.getExpireAfter());
+        int batchSize = Math.max(properties.getBatchSize(), 1);
+        int maxTransactions = Math.max(properties.getMaxTransactionsPerSweep(), 1);
+        int checked = 0;
+        int resolved = 0;
+        try {
+            LocalDateTime afterCreatedAt = FIRST_CURSOR;
+            String afterId = "";
+            int limit;
+            List<PendingTransaction> batch;
+            do {
+                if (paymentProviderClient.getCircuitState(ALIPAY_GATEWAY) == CircuitBreaker.State.OPEN) {
+                    log.warn("Alipay calls are suspended, reconciliation stops after {} transactions", checked);
+                    break;
+                }
+                limit = Math.min(batchSize, maxTransactions - checked);
+                batch = transactionRepository.findPendingAfter(PAYMENT_METHOD, settledBefore, afterCreatedAt,
+                        afterId, PageRequest.of(0, limit));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                resolved += resolve(batch, expireBefore);
+                checked += batch.size();
+                PendingTransaction last = batch.get(batch.size() - 1);
+                afterCreatedAt = last.getCreatedAt();
+                afterId = last.getTransactionId();
+            } while (batch.size() == limit && checked < maxTransactions);
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile unpaid Alipay transactions", e);
+        } finally {
+            backlog.set(transactionRepository.countByPaidFalseAndExpiredAtIsNullAndPaymentMethodsAndCreatedAtBefore(
+                    PAYMENT_METHOD, settledBefore));
+            sample.stop(sweepDuration);
+            running.set(false);
+        }
+        log.debug("Reconciled {} of {} unpaid Alipay transactions", resolved, checked);
+        return resolved;
+    }
+
+    private int resolve(List<PendingTransaction> batch, LocalDateTime expireBefore) {
+        Semaphore inFlight = new Semaphore(Math.max(properties.getParallelism(), 1));
+        Map<String, CompletableFuture<Outcome>> queried = new LinkedHashMap<>();
+        for (PendingTransaction pending : batch) {
+            inFlight.acquireUninterruptibly();
+            pace();
+            CompletableFuture<Outcome> outcome = reconcile(pending, expireBefore);
+            outcome.whenComplete((result, e) -> inFlight.release());
+            queried.put(pending.getTransactionId(), outcome);
+        }
+        // The database work stays on the sweep thread, provider threads only talk to Alipay
+        int resolved = 0;
+        for (Map.Entry<String, CompletableFuture<Outcome>> entry : queried.entrySet()) {
+            Outcome outcome = apply(entry.getKey(), entry.getValue().join());
+            outcomes.get(outcome).increment();
+            if (outcome == Outcome.COMPLETED || outcome == Outcome.EXPIRED) {
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    private CompletableFuture<Outcome> reconcile(PendingTransaction pending, LocalDateTime expireBefore) {
+        String transactionId = pending.getTransactionId();
+        boolean overdue = pending.getCreatedAt().isBefore(expireBefore);
+        return paymentProviderClient.call(ALIPAY_GATEWAY, () -> {
+                    AlipayTradeQueryRequest queryRequest = new AlipayTradeQueryRequest();
+                    queryRequest.setBizContent(bizContent(transactionId));
+                    return alipayClient.execute(queryRequest);
+                })
+                .thenCompose(response -> {
+                    if (response.isSuccess()) {
+                        String tradeStatus = response.getTradeStatus();
+                        if (SUCCESS_STATUSES.contains(tradeStatus)) {
+                            return completedFuture(Outcome.COMPLETED);
+                        }
+                        if (TRADE_CLOSED.equals(tradeStatus)) {
+                            return completedFuture(Outcome.EXPIRED);
+                        }
+                        // Still waiting for the buyer, closed first so it can no longer be paid
+                        return overdue ? close(transactionId) : completedFuture(Outcome.PENDING);
+                    }
+                    // The trade exists at Alipay only once the QR code is scanned. The code has timed out by now,
+                    // closed anyway so a scan that is still in flight can't create a payable trade
+                    if (TRADE_NOT_EXIST.equals(response.getSubCode())) {
+                        return overdue ? close(transactionId) : completedFuture(Outcome.PENDING);
+                    }
+                    log.warn("支付宝对账查单失败，outTradeNo={}, subCode={}, subMsg={}", transactionId,
+                            response.getSubCode(), response.getSubMsg());
+                    return completedFuture(Outcome.PENDING);
+                })
+                .exceptionally(e -> {
+                    log.warn("支付宝对账查单异常，outTradeNo={}", transactionId, e);
+                    return Outcome.DEFERRED;
+                });
+    }
+
+    private CompletableFuture<Outcome> close(String transactionId) {
+        return paymentProviderClient.call(ALIPAY_GATEWAY, () -> {
+                    AlipayTradeCloseRequest closeRequest = new AlipayTradeCloseRequest();
+                    closeRequest.setBizContent(bizContent(transactionId));
+                    return alipayClient.execute(closeRequest);
+                })
+                .thenApply(response -> {
+                    if (response.isSuccess() || TRADE_NOT_EXIST.equals(response.getSubCode())) {
+                        return Outcome.EXPIRED;
+                    }
+                    // Paid right before the close, the next sweep finds it paid
+                    log.info("支付宝关单失败，outTradeNo={}, subCode={}", transactionId, response.getSubCode());
+                    return Outcome.PENDING;
+                });
+    }
+
+    private Outcome apply(String transactionId, Outcome outcome) {
+        try {
+            if (outcome == Outcome.COMPLETED) {
+                transactionService.completeTransaction(transactionId);
+            } else if (outcome == Outcome.EXPIRED && !transactionService.expireTransaction(transactionId)) {
+                return Outcome.PENDING;
+            }
+            return outcome;
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile transaction {}", transactionId, e);
+            return Outcome.DEFERRED;
+        }
+    }
+
+    // Alipay's relative expiry, a number of minutes, hours or days
+    private static Duration parseTimeoutExpress(String timeoutExpress) {
+        Matcher matcher = TIMEOUT_EXPRESS.matcher(timeoutExpress == null ? "" : timeoutExpress.trim());
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Unsupported app.payment.alipay.timeout-express " + timeoutExpress);
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        return switch (matcher.group(2)) {
+            case "m" -> Duration.ofMinutes(amount);
+            case "h" -> Duration.ofHours(amount);
+            default -> Duration.ofDays(amount);
+        };
+    }
+
+    // Spaces the queries evenly, no more than maxQueriesPerSecond
+    private void pace() {
+        long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(properties.getMaxQueriesPerSecond(), 1);
+        long now = System.nanoTime();
+        long wait = nextQueryAt - now;
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        nextQueryAt = Math.max(now, nextQueryAt) + interval;
+    }
+
+    private String bizContent(String transactionId) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(Map.of("out_trade_no", transactionId));
+    }
+}
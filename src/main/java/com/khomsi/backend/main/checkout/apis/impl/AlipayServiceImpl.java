@@ -3,8 +3,8 @@ package com.khomsi.backend.main.checkout.apis.impl;
 import com.alipay.api.AlipayApiException;
 import com.alipay.api.AlipayClient;
 import com.alipay.api.request.AlipayTradeQueryRequest;
-import com.alipay.api.response.AlipayTradeQueryResponse;
 import com.alipay.api.internal.util.AlipaySignature;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.khomsi.backend.additional.cart.model.dto.CartDTO;
@@ -19,19 +19,16 @@ import com.khomsi.backend.main.checkout.model.enums.BalanceAction;
 import com.khomsi.backend.main.checkout.model.enums.PaymentEndpoints;
 import com.khomsi.backend.main.checkout.model.enums.PaymentMethod;
 import com.khomsi.backend.main.checkout.service.TransactionService;
+import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -41,6 +38,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import static com.khomsi.backend.main.checkout.apis.impl.ApiResponseBuilder.buildFailureResponse;
@@ -51,87 +50,118 @@ import static com.khomsi.backend.main.checkout.model.enums.PaymentEndpoints.crea
 @RequiredArgsConstructor
 @Slf4j
 public class AlipayServiceImpl implements AlipayService {
-    private static final Set<String> SUCCESS_STATUSES = Set.of("TRADE_SUCCESS", "TRADE_FINISHED");
+    static final Set<String> SUCCESS_STATUSES = Set.of("TRADE_SUCCESS", "TRADE_FINISHED");
+    // Circuit breaker targets of PaymentProviderClient
+    private static final String SERVICE_PROVIDER = "alipay-service-provider";
+    static final String ALIPAY_GATEWAY = "alipay-gateway";
     private final TransactionService transactionService;
     private final CartService cartService;
     private final AlipayClient alipayClient;
     private final AlipayProperties alipayProperties;
     private final ObjectMapper objectMapper;
-    private final RestTemplate restTemplate;
+    private final PaymentProviderClient paymentProviderClient;
 
     @Override
-    public PaymentResponse createBalanceRecharge(BigDecimal amount, HttpServletRequest request) {
+    public CompletableFuture<PaymentResponse> createBalanceRecharge(BigDecimal amount, HttpServletRequest request) {
         return createPreOrder(amount, BalanceAction.BALANCE_RECHARGE, request, null);
     }
 
     @Override
-    public PaymentResponse createPayment(BalanceAction balanceAction, HttpServletRequest request) {
+    public CompletableFuture<PaymentResponse> createPayment(BalanceAction balanceAction, HttpServletRequest request) {
         CartDTO cartDto = cartService.cartItems();
         List<CartItemDto> cartItemDtoList = cartDto.cartItems();
         if (cartItemDtoList.isEmpty() || balanceAction == BalanceAction.BALANCE_RECHARGE) {
-            return buildFailureResponse("购物车为空或支付方式不正确", HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(
+                    buildFailureResponse("购物车为空或支付方式不正确", HttpStatus.BAD_REQUEST));
         }
         return createPreOrder(null, balanceAction, request, cartItemDtoList);
     }
 
-    private PaymentResponse createPreOrder(BigDecimal amount, BalanceAction balanceAction,
-                                           HttpServletRequest request, List<CartItemDto> cartItemDtoList) {
+    // Everything that reads the servlet request happens here, the provider call and the rest run asynchronously
+    private CompletableFuture<PaymentResponse> createPreOrder(BigDecimal amount, BalanceAction balanceAction,
+                                                              HttpServletRequest request,
+                                                              List<CartItemDto> cartItemDtoList) {
         if (balanceAction == BalanceAction.BALANCE_RECHARGE &&
                 (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)) {
-            return buildFailureResponse("充值金额不能为空或小于等于0", HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(
+                    buildFailureResponse("充值金额不能为空或小于等于0", HttpStatus.BAD_REQUEST));
         }
+        String validationError = validateProviderConfig();
+        if (validationError != null) {
+            log.error("服务商支付配置缺失：{}", validationError);
+            return CompletableFuture.completedFuture(
+                    buildFailureResponse("服务商预下单失败，请重试", HttpStatus.BAD_REQUEST));
+        }
+        BigDecimal totalAmount;
+        String outTradeNo;
+        String subject;
+        MultiValueMap<String, String> formBody = new LinkedMultiValueMap<>();
         try {
-            BigDecimal totalAmount = transactionService.calculateTotalAmount(amount, balanceAction, cartItemDtoList)
+            totalAmount = transactionService.calculateTotalAmount(amount, balanceAction, cartItemDtoList)
                     .setScale(2, RoundingMode.HALF_UP);
-            String outTradeNo = UUID.randomUUID().toString().replace("-", "");
-            String subject = buildSubject(balanceAction, cartItemDtoList);
-
-            String qrCode = placeProviderPreOrder(outTradeNo, subject, totalAmount, request);
-            if (!StringUtils.hasText(qrCode)) {
-                return buildFailureResponse("服务商预下单失败，请重试", HttpStatus.BAD_REQUEST);
-            }
-
-            AlipayCreatePaymentResponse responseData = AlipayCreatePaymentResponse.builder()
-                    .outTradeNo(outTradeNo)
-                    .qrCode(qrCode)
-                    .subject(subject)
-                    .build();
-            transactionService.placeTemporaryTransaction(totalAmount, outTradeNo, qrCode,
-                    balanceAction, PaymentMethod.ALIPAY);
-            return buildResponse(responseData, "支付宝预下单成功");
+            outTradeNo = UUID.randomUUID().toString().replace("-", "");
+            subject = buildSubject(balanceAction, cartItemDtoList);
+            formBody.setAll(buildProviderForm(outTradeNo, subject, totalAmount, request));
         } catch (Exception e) {
             log.error("支付宝预下单异常", e);
-            return buildFailureResponse("支付宝预下单失败，服务器异常", HttpStatus.INTERNAL_SERVER_ERROR);
+            return CompletableFuture.completedFuture(
+                    buildFailureResponse("支付宝预下单失败，服务器异常", HttpStatus.INTERNAL_SERVER_ERROR));
         }
+
+        return paymentProviderClient.postForm(SERVICE_PROVIDER, alipayProperties.getServiceProviderUrl(), formBody)
+                .thenApply(response -> {
+                    String qrCode = extractQrCode(response);
+                    if (!StringUtils.hasText(qrCode)) {
+                        return buildFailureResponse("服务商预下单失败，请重试", HttpStatus.BAD_REQUEST);
+                    }
+                    AlipayCreatePaymentResponse responseData = AlipayCreatePaymentResponse.builder()
+                            .outTradeNo(outTradeNo)
+                            .qrCode(qrCode)
+                            .subject(subject)
+                            .build();
+                    transactionService.placeTemporaryTransaction(totalAmount, outTradeNo, qrCode,
+                            balanceAction, PaymentMethod.ALIPAY);
+                    return buildResponse(responseData, "支付宝预下单成功");
+                })
+                .exceptionally(e -> {
+                    log.error("支付宝预下单异常", e);
+                    return providerFailure(e, "支付宝预下单失败，服务器异常");
+                });
     }
 
     @Override
-    public PaymentResponse capturePayment(String outTradeNo) {
+    public CompletableFuture<PaymentResponse> capturePayment(String outTradeNo) {
+        AlipayTradeQueryRequest queryRequest = new AlipayTradeQueryRequest();
         try {
-            AlipayTradeQueryRequest queryRequest = new AlipayTradeQueryRequest();
             queryRequest.setBizContent(objectMapper.writeValueAsString(Map.of("out_trade_no", outTradeNo)));
-
-            AlipayTradeQueryResponse response = alipayClient.execute(queryRequest);
-            if (response == null || !response.isSuccess()) {
-                log.error("支付宝查单失败，outTradeNo={}, response={}", outTradeNo, response);
-                return buildFailureResponse("支付宝查询支付状态失败", HttpStatus.BAD_REQUEST);
-            }
-            String tradeStatus = response.getTradeStatus();
-            AlipayCapturePaymentResponse responseData = AlipayCapturePaymentResponse.builder()
-                    .outTradeNo(outTradeNo)
-                    .tradeNo(response.getTradeNo())
-                    .tradeStatus(tradeStatus)
-                    .build();
-            if (SUCCESS_STATUSES.contains(tradeStatus)) {
-                transactionService.completeTransaction(outTradeNo);
-                return buildResponse(responseData, "支付宝支付成功");
-            }
-            return buildFailureResponse("支付宝未完成支付，当前状态：" + tradeStatus,
-                    HttpStatus.BAD_REQUEST, responseData);
-        } catch (Exception e) {
+        } catch (JsonProcessingException e) {
             log.error("支付宝查单异常", e);
-            return buildFailureResponse("支付宝查询失败，服务器异常", HttpStatus.INTERNAL_SERVER_ERROR);
+            return CompletableFuture.completedFuture(
+                    buildFailureResponse("支付宝查询失败，服务器异常", HttpStatus.INTERNAL_SERVER_ERROR));
         }
+        return paymentProviderClient.call(ALIPAY_GATEWAY, () -> alipayClient.execute(queryRequest))
+                .thenApply(response -> {
+                    if (response == null || !response.isSuccess()) {
+                        log.error("支付宝查单失败，outTradeNo={}, response={}", outTradeNo, response);
+                        return buildFailureResponse("支付宝查询支付状态失败", HttpStatus.BAD_REQUEST);
+                    }
+                    String tradeStatus = response.getTradeStatus();
+                    AlipayCapturePaymentResponse responseData = AlipayCapturePaymentResponse.builder()
+                            .outTradeNo(outTradeNo)
+                            .tradeNo(response.getTradeNo())
+                            .tradeStatus(tradeStatus)
+                            .build();
+                    if (SUCCESS_STATUSES.contains(tradeStatus)) {
+                        transactionService.completeTransaction(outTradeNo);
+                        return buildResponse(responseData, "支付宝支付成功");
+                    }
+                    return buildFailureResponse("支付宝未完成支付，当前状态：" + tradeStatus,
+                            HttpStatus.BAD_REQUEST, responseData);
+                })
+                .exceptionally(e -> {
+                    log.error("支付宝查单异常", e);
+                    return providerFailure(e, "支付宝查询失败，服务器异常");
+                });
     }
 
     @Override
@@ -160,6 +190,21 @@ public class AlipayServiceImpl implements AlipayService {
         }
     }
 
+    // Bulkhead and circuit breaker rejections are reported as 503, the caller may retry later
+    private PaymentResponse providerFailure(Throwable e, String message) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof GlobalServiceException serviceException
+                && HttpStatus.SERVICE_UNAVAILABLE.equals(serviceException.getStatusCode())) {
+            return buildFailureResponse("支付服务繁忙，请稍后重试", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        // The balance or the cart changed after the bill was computed, the order is not placed
+        if (cause instanceof GlobalServiceException serviceException
+                && HttpStatus.CONFLICT.equals(serviceException.getStatusCode())) {
+            return buildFailureResponse("余额或购物车已变化，请重新下单", HttpStatus.CONFLICT);
+        }
+        return buildFailureResponse(message, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
     private String buildSubject(BalanceAction balanceAction, List<CartItemDto> cartItemDtoList) {
         if (balanceAction == BalanceAction.BALANCE_RECHARGE) {
             return "GRID余额充值";
@@ -172,24 +217,7 @@ public class AlipayServiceImpl implements AlipayService {
                 .collect(Collectors.joining(", "));
     }
 
-    private String placeProviderPreOrder(String outTradeNo, String subject,
-                                         BigDecimal totalAmount, HttpServletRequest request) {
-        String validationError = validateProviderConfig();
-        if (validationError != null) {
-            log.error("服务商支付配置缺失：{}", validationError);
-            return null;
-        }
-        Map<String, String> formPayload = buildProviderForm(outTradeNo, subject, totalAmount, request);
-        MultiValueMap<String, String> formBody = new LinkedMultiValueMap<>();
-        formBody.setAll(formPayload);
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-        HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(formBody, headers);
-        ResponseEntity<String> response = restTemplate.postForEntity(
-                alipayProperties.getServiceProviderUrl(),
-                entity,
-                String.class
-        );
+    private String extractQrCode(ResponseEntity<String> response) {
         if (!response.getStatusCode().is2xxSuccessful() || !StringUtils.hasText(response.getBody())) {
             log.error("服务商预下单失败，status={}, body={}", response.getStatusCode(), response.getBody());
             return null;
@@ -231,6 +259,9 @@ public class AlipayServiceImpl implements AlipayService {
         form.put("returnUrl", resolveReturnUrl(request));
         form.put("clientIp", resolveClientIp(request));
         form.put("riskControlNotifyUrl", resolveRiskControlNotifyUrl(request));
+        // 交易与二维码在对账过期之前失效，过期后的订单不会再被支付
+        form.put("timeoutExpress", alipayProperties.getTimeoutExpress());
+        form.put("qrCodeTimeoutExpress", alipayProperties.getTimeoutExpress());
         return form;
     }
 
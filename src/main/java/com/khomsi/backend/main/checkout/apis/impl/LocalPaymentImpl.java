@@ -10,7 +10,8 @@ import com.khomsi.backend.main.checkout.model.enums.BalanceAction;
 import com.khomsi.backend.main.checkout.model.enums.PaymentMethod;
 import com.khomsi.backend.main.checkout.service.TransactionService;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
-import com.khomsi.backend.main.user.repository.UserInfoRepository;
+import com.khomsi.backend.main.user.model.enums.BalanceOperation;
+import com.khomsi.backend.main.user.service.BalanceService;
 import com.khomsi.backend.main.user.service.UserInfoService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -18,7 +19,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,7 +33,7 @@ import static com.khomsi.backend.main.checkout.apis.impl.ApiResponseBuilder.buil
 public class LocalPaymentImpl implements LocalPaymentService {
     private final CartService cartService;
     private final UserInfoService userInfoService;
-    private final UserInfoRepository userInfoRepository;
+    private final BalanceService balanceService;
     private final TransactionService transactionService;
 
     @Override
@@ -45,10 +45,9 @@ public class LocalPaymentImpl implements LocalPaymentService {
                 || cartDto.totalCost().compareTo(existingUser.getBalance()) > 0) {
             return buildFailureResponse("Insufficient funds or empty cart", HttpStatus.BAD_REQUEST);
         }
-        BigDecimal newBalance = existingUser.getBalance().subtract(cartDto.totalCost());
-        existingUser.setBalance(newBalance);
-        userInfoRepository.save(existingUser);
         String transactionId = UUID.randomUUID().toString();
+        // The check above is only a fast path, the conditional debit is what stops concurrent overspending
+        balanceService.debit(existingUser, cartDto.totalCost(), BalanceOperation.PURCHASE, transactionId);
         transactionService.placeTemporaryTransaction(null, transactionId, null,
                 BalanceAction.NO_ACTION, PaymentMethod.LOCAL);
         return buildResponse(CreatePaymentResponse.builder()
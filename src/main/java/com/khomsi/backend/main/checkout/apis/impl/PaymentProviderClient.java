@@ -0,0 +1,158 @@
+package com.khomsi.backend.main.checkout.apis.impl;
+
+import com.khomsi.backend.main.checkout.apis.config.PaymentHttpProperties;
+import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import com.khomsi.backend.main.utils.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outbound calls to payment providers. They run off the servlet thread on their own executor and share one pooled
+ * HttpClient with connect/read timeouts. No more than maxConcurrentCalls are in flight (the rest fail at once), and
+ * every target has a circuit breaker, so a slow or failing provider costs neither request threads nor connections.
+ */
+@Component
+@Slf4j
+public class PaymentProviderClient {
+    private final PaymentHttpProperties properties;
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final ExecutorService executor;
+    private final Semaphore bulkhead;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    public PaymentProviderClient(PaymentHttpProperties properties) {
+        this.properties = properties;
+        this.httpClient = createHttpClient(properties);
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        // Responses are handled in callbacks that still need the caller's authentication
+        this.executor = new DelegatingSecurityContextExecutorService(createExecutor(properties));
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+    }
+
+    public CompletableFuture<ResponseEntity<String>> postForm(String target, String url,
+                                                              MultiValueMap<String, String> form) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(form, headers);
+        return call(target, () -> restTemplate.postForEntity(url, entity, String.class));
+    }
+
+    // Runs a blocking provider call (the Alipay SDK has its own http stack) under the same limits
+    public <T> CompletableFuture<T> call(String target, Callable<T> providerCall) {
+        if (!bulkhead.tryAcquire()) {
+            log.warn("Payment provider {} call rejected, {} calls are in flight", target,
+                    properties.getMaxConcurrentCalls());
+            return CompletableFuture.failedFuture(new GlobalServiceException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many calls to " + target + " are in flight."));
+        }
+        CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(target, key ->
+                new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenDuration()));
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            return CompletableFuture.failedFuture(new GlobalServiceException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Calls to " + target + " are suspended after repeated failures."));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                T result = providerCall.call();
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (Exception e) {
+                // A rejected request still means the provider is up
+                if (e instanceof HttpClientErrorException) {
+                    circuitBreaker.onSuccess();
+                } else {
+                    circuitBreaker.onFailure();
+                }
+                throw new CompletionException(e);
+            } finally {
+                bulkhead.release();
+            }
+        }, executor);
+    }
+
+    public CircuitBreaker.State getCircuitState(String target) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(target);
+        return circuitBreaker == null ? CircuitBreaker.State.CLOSED : circuitBreaker.getState();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    private static CloseableHttpClient createHttpClient(PaymentHttpProperties properties) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(timeout(properties.getConnectTimeout()))
+                .setSocketTimeout(timeout(properties.getReadTimeout()))
+                .build();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(timeout(properties.getConnectionRequestTimeout()))
+                .setResponseTimeout(timeout(properties.getReadTimeout()))
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(properties.getMaxConnections())
+                        .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                        .setDefaultConnectionConfig(connectionConfig)
+                        .build())
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(TimeValue.ofMilliseconds(properties.getIdleTimeout().toMillis()))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    // The bulkhead already caps the calls in flight, so a fixed pool of that size never queues
+    private static ExecutorService createExecutor(PaymentHttpProperties properties) {
+        if (properties.isVirtualThreads()) {
+            try {
+                // Looked up at runtime, the project is still built for Java 17
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads need Java 21, payment provider calls use a platform thread pool");
+            }
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(properties.getMaxConcurrentCalls(), 1), runnable -> {
+            Thread thread = new Thread(runnable, "payment-provider-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
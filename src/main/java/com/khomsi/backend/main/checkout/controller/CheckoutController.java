@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static com.khomsi.backend.config.ApplicationConfig.BEARER_KEY_SECURITY_SCHEME;
 
@@ -50,34 +51,26 @@ public class CheckoutController {
     @PostMapping("/recharge/alipay/create-payment")
     @Operation(security = {@SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME)},
             summary = "支付宝余额充值预下单")
-    public ResponseEntity<PaymentResponse> balanceRechargeAlipay(@RequestParam("amount") BigDecimal amount,
-                                                                 HttpServletRequest request) {
-        PaymentResponse paymentResponse = alipayService.createBalanceRecharge(amount, request);
-        return ResponseEntity
-                .status(paymentResponse.httpStatus())
-                .body(paymentResponse);
+    public CompletableFuture<ResponseEntity<PaymentResponse>> balanceRechargeAlipay(
+            @RequestParam("amount") BigDecimal amount, HttpServletRequest request) {
+        return alipayService.createBalanceRecharge(amount, request).thenApply(CheckoutController::toResponse);
     }
 
     @PostMapping("/alipay/create-payment")
     @Operation(security = {@SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME)},
             summary = "支付宝创建订单并返回支付二维码/链接")
-    public ResponseEntity<PaymentResponse> checkoutAlipay(@RequestParam("balanceAction") BalanceAction balanceAction,
-                                                          HttpServletRequest request) {
-        PaymentResponse paymentResponse = alipayService.createPayment(balanceAction, request);
-        return ResponseEntity
-                .status(paymentResponse.httpStatus())
-                .body(paymentResponse);
+    public CompletableFuture<ResponseEntity<PaymentResponse>> checkoutAlipay(
+            @RequestParam("balanceAction") BalanceAction balanceAction, HttpServletRequest request) {
+        return alipayService.createPayment(balanceAction, request).thenApply(CheckoutController::toResponse);
     }
 
     // Check and place the order if success
     @PostMapping("/alipay/capture-payment")
     @Operation(security = {@SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME)},
             summary = "支付宝查单并确认支付状态")
-    public ResponseEntity<PaymentResponse> placeAlipayOrder(@RequestParam("sessionId") String sessionId) {
-        PaymentResponse paymentResponse = alipayService.capturePayment(sessionId);
-        return ResponseEntity
-                .status(paymentResponse.httpStatus())
-                .body(paymentResponse);
+    public CompletableFuture<ResponseEntity<PaymentResponse>> placeAlipayOrder(
+            @RequestParam("sessionId") String sessionId) {
+        return alipayService.capturePayment(sessionId).thenApply(CheckoutController::toResponse);
     }
 
     @PostMapping("/alipay/notify")
@@ -86,4 +79,11 @@ public class CheckoutController {
         boolean handled = alipayService.handleAsyncNotify(params);
         return handled ? "success" : "failure";
     }
+
+    // The Alipay endpoints answer asynchronously, the servlet thread is not held during the provider round trip
+    private static ResponseEntity<PaymentResponse> toResponse(PaymentResponse paymentResponse) {
+        return ResponseEntity
+                .status(paymentResponse.httpStatus())
+                .body(paymentResponse);
+    }
 }
@@ -0,0 +1,12 @@
+package com.khomsi.backend.main.checkout.event;
+
+import com.khomsi.backend.main.checkout.model.enums.BalanceAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Published by the completion that flipped the transaction to paid, listeners see it only once that is committed
+public record TransactionCompletedEvent(String transactionId, String userId, BalanceAction balanceAction,
+                                        BigDecimal totalAmount, List<Long> gameIds, LocalDateTime completedAt) {
+}
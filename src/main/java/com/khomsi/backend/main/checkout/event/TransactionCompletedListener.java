@@ -0,0 +1,126 @@
+package com.khomsi.backend.main.checkout.event;
+
+import com.khomsi.backend.additional.wishlist.service.WishlistService;
+import com.khomsi.backend.main.game.service.GameSalesRankingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Side effects of a paid transaction: wishlist cleanup, the sales ranking and checkout metrics. They start once the
+ * completion has committed and run on a small bounded pool, so the payment callback returns right after the state
+ * change and a slow or failing side effect can neither delay nor roll back the payment.
+ */
+@Component
+@Slf4j
+public class TransactionCompletedListener {
+    private final WishlistService wishlistService;
+    private final GameSalesRankingService gameSalesRankingService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate newTransaction;
+    private final ThreadPoolExecutor workers;
+    private final Duration shutdownTimeout;
+    private final DistributionSummary amounts;
+    private final Counter gamesSold;
+
+    public TransactionCompletedListener(WishlistService wishlistService,
+                                        GameSalesRankingService gameSalesRankingService,
+                                        TransactionEventProperties properties,
+                                        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.wishlistService = wishlistService;
+        this.gameSalesRankingService = gameSalesRankingService;
+        this.meterRegistry = meterRegistry;
+        // Run on the committing thread (queue full), a write would otherwise join the transaction that just committed
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shutdownTimeout = properties.getShutdownTimeout();
+        int workerCount = Math.max(properties.getWorkers(), 1);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // A burst beyond the queue slows the committing thread down instead of dropping side effects, and so does a
+        // completion that commits while the pool is already stopping
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(properties.getQueueCapacity(), 1)), runnable -> {
+                    Thread thread = new Thread(runnable, "transaction-events-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, TransactionCompletedListener::runOnCaller);
+        Gauge.builder("checkout.events.queue", workers, executor -> executor.getQueue().size())
+                .description("Side effects of completed transactions waiting for a worker")
+                .register(meterRegistry);
+        this.amounts = DistributionSummary.builder("checkout.transactions.amount")
+                .description("Total amount of completed transactions")
+                .register(meterRegistry);
+        this.gamesSold = Counter.builder("checkout.games.sold").register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionCompleted(TransactionCompletedEvent event) {
+        if (!event.gameIds().isEmpty()) {
+            run(event, "wishlist cleanup", () -> newTransaction.executeWithoutResult(status ->
+                    wishlistService.deleteGamesFromWishlist(event.userId(), event.gameIds())));
+            run(event, "sales ranking", () ->
+                    gameSalesRankingService.recordSales(event.gameIds(), event.completedAt()));
+        }
+        run(event, "metrics", () -> recordMetrics(event));
+    }
+
+    // Queued side effects still run, the wishlist cleanup needs the datasource that is closed after this bean
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            List<Runnable> dropped = workers.shutdownNow();
+            log.warn("Stopped transaction event workers with {} side effects not run: {}", dropped.size(), dropped);
+        }
+    }
+
+    // Every side effect on its own, one failing does not stop the others
+    private void run(TransactionCompletedEvent event, String sideEffect, Runnable task) {
+        workers.execute(new SideEffect(event.transactionId(), sideEffect, task));
+    }
+
+    private static void runOnCaller(Runnable sideEffect, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            log.warn("Transaction event workers are stopped, running {} on the committing thread", sideEffect);
+        }
+        sideEffect.run();
+    }
+
+    private void recordMetrics(TransactionCompletedEvent event) {
+        meterRegistry.counter("checkout.transactions.completed",
+                "balance_action", event.balanceAction().name()).increment();
+        amounts.record(event.totalAmount().doubleValue());
+        gamesSold.increment(event.gameIds().size());
+    }
+
+    private record SideEffect(String transactionId, String name, Runnable task) implements Runnable {
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Failed {} of transaction {}", name, transactionId, e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name + " of transaction " + transactionId;
+        }
+    }
+}
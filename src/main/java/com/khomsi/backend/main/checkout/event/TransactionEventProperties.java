@@ -0,0 +1,19 @@
+package com.khomsi.backend.main.checkout.event;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.checkout.events")
+public class TransactionEventProperties {
+    // Threads running the side effects of completed transactions
+    private int workers = 2;
+    // Side effects waiting for a worker, beyond that the committing thread runs them itself
+    private int queueCapacity = 1000;
+    // How long a stopping application waits for the queued side effects
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
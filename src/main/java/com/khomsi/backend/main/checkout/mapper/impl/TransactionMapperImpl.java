@@ -23,6 +23,7 @@ public class TransactionMapperImpl implements TransactionMapper {
                 .paymentMethods(transaction.getPaymentMethods())
                 .balanceAction(transaction.getBalanceAction())
                 .updatedAt(transaction.getUpdatedAt())
+                .expiredAt(transaction.getExpiredAt())
                 .redirectUrl(transaction.getRedirectUrl())
                 .paid(transaction.getPaid())
                 .transactionGames(transaction.getTransactionGames().stream()
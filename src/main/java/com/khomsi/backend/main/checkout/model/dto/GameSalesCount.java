@@ -0,0 +1,7 @@
+package com.khomsi.backend.main.checkout.model.dto;
+
+public interface GameSalesCount {
+    Long getGameId();
+
+    Long getSales();
+}
@@ -0,0 +1,6 @@
+package com.khomsi.backend.main.checkout.model.dto;
+
+import java.math.BigDecimal;
+
+public record OrderLine(Long gameId, BigDecimal priceOnPay) {
+}
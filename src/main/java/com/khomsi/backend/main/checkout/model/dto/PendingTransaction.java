@@ -0,0 +1,9 @@
+package com.khomsi.backend.main.checkout.model.dto;
+
+import java.time.LocalDateTime;
+
+public interface PendingTransaction {
+    String getTransactionId();
+
+    LocalDateTime getCreatedAt();
+}
@@ -9,7 +9,7 @@ import java.util.List;
 
 @Builder
 public record TransactionDTO(String transactionId, String userId, LocalDateTime createdAt, LocalDateTime updatedAt,
-                             BigDecimal totalAmount, String paymentMethods,
+                             LocalDateTime expiredAt, BigDecimal totalAmount, String paymentMethods,
                              Boolean paid, List<TransactionGamesDTO> transactionGames,
                              String redirectUrl, BalanceAction balanceAction) {
 }
@@ -56,6 +56,10 @@ public class Transaction {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Set once an unpaid order expired or went back to the cart, it can no longer be paid
+    @Column(name = "expired_at")
+    private LocalDateTime expiredAt;
+
     @Lob
     @Column(name = "redirect_url")
     private String redirectUrl;
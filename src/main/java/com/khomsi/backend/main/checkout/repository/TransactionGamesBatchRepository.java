@@ -0,0 +1,10 @@
+package com.khomsi.backend.main.checkout.repository;
+
+import com.khomsi.backend.main.checkout.model.dto.OrderLine;
+
+import java.util.List;
+
+public interface TransactionGamesBatchRepository {
+    //Inserts the order lines of the transaction as one JDBC batch, the transaction row has to be flushed first
+    void insertOrderLines(String transactionId, List<OrderLine> orderLines);
+}
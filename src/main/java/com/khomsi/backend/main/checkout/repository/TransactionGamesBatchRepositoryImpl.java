@@ -0,0 +1,28 @@
+package com.khomsi.backend.main.checkout.repository;
+
+import com.khomsi.backend.main.checkout.model.dto.OrderLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TransactionGamesBatchRepositoryImpl implements TransactionGamesBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertOrderLines(String transactionId, List<OrderLine> orderLines) {
+        if (orderLines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO transaction_games (transactions_id, games_id, price_on_pay)
+                        VALUES (?, ?, ?)
+                        """, orderLines, orderLines.size(),
+                (ps, orderLine) -> {
+                    ps.setString(1, transactionId);
+                    ps.setLong(2, orderLine.gameId());
+                    ps.setBigDecimal(3, orderLine.priceOnPay());
+                });
+    }
+}
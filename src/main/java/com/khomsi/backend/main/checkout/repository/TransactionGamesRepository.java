@@ -1,15 +1,25 @@
 package com.khomsi.backend.main.checkout.repository;
 
+import com.khomsi.backend.main.checkout.model.dto.GameSalesCount;
 import com.khomsi.backend.main.checkout.model.entity.TransactionGames;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
-public interface TransactionGamesRepository extends JpaRepository<TransactionGames, Long> {
+public interface TransactionGamesRepository extends JpaRepository<TransactionGames, Long>,
+        TransactionGamesBatchRepository {
     @Query("SELECT COUNT(tg) FROM TransactionGames tg WHERE tg.games.id = :gameId")
     Long countTransactionsByGameId(@Param("gameId") Long gameId);
     @Query("SELECT COALESCE(SUM(tg.priceOnPay), 0) FROM TransactionGames tg WHERE tg.games.id = :gameId")
     BigDecimal sumTotalRevenueByGameId(@Param("gameId") Long gameId);
+
+    @Query("""
+            SELECT tg.games.id AS gameId, COUNT(tg) AS sales FROM TransactionGames tg
+            WHERE tg.transactions.paid = true AND tg.transactions.updatedAt < :paidBefore GROUP BY tg.games.id
+            """)
+    List<GameSalesCount> countPaidSalesPerGame(@Param("paidBefore") LocalDateTime paidBefore);
 }
@@ -1,14 +1,67 @@
 package com.khomsi.backend.main.checkout.repository;
 
+import com.khomsi.backend.main.checkout.model.dto.PendingTransaction;
 import com.khomsi.backend.main.checkout.model.entity.Transaction;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface TransactionRepository extends JpaRepository<Transaction, String> {
+public interface TransactionRepository extends JpaRepository<Transaction, String>,
+        JpaSpecificationExecutor<Transaction> {
     List<Transaction> findAllByUsersOrderByCreatedAtDesc(UserInfo userInfo);
+
+    Optional<Transaction> findByTransactionIdAndUsersExternalIdAndPaidFalseAndExpiredAtIsNull(String transactionId,
+                                                                                             String userId);
     @Query("SELECT t FROM Transaction t WHERE YEAR(t.createdAt) = :year")
     List<Transaction> findAllByYear(int year);
+
+    // 1 for the one caller that completes the transaction, 0 for every duplicate
+    @Modifying
+    @Query("""
+            UPDATE Transaction t SET t.paid = true, t.updatedAt = :now, t.redirectUrl = null
+            WHERE t.transactionId = :transactionId AND t.paid = false AND t.expiredAt IS NULL
+            """)
+    int markPaid(@Param("transactionId") String transactionId, @Param("now") LocalDateTime now);
+
+    // 1 for the one caller that records a payment arriving after the transaction expired, 0 once it is recorded
+    @Modifying
+    @Query("""
+            UPDATE Transaction t SET t.paid = true, t.updatedAt = :now
+            WHERE t.transactionId = :transactionId AND t.paid = false AND t.expiredAt IS NOT NULL
+            """)
+    int markLatePaid(@Param("transactionId") String transactionId, @Param("now") LocalDateTime now);
+
+    // Unpaid transactions created before settledBefore, the next page after the cursor in creation order
+    @Query("""
+            SELECT t.transactionId AS transactionId, t.createdAt AS createdAt FROM Transaction t
+            WHERE t.paid = false AND t.expiredAt IS NULL AND t.paymentMethods = :paymentMethod
+              AND t.createdAt < :settledBefore
+              AND (t.createdAt > :afterCreatedAt OR (t.createdAt = :afterCreatedAt AND t.transactionId > :afterId))
+            ORDER BY t.createdAt, t.transactionId
+            """)
+    List<PendingTransaction> findPendingAfter(@Param("paymentMethod") String paymentMethod,
+                                              @Param("settledBefore") LocalDateTime settledBefore,
+                                              @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                              @Param("afterId") String afterId, Pageable pageable);
+
+    long countByPaidFalseAndExpiredAtIsNullAndPaymentMethodsAndCreatedAtBefore(String paymentMethod,
+                                                                               LocalDateTime createdBefore);
+
+    // Holds the row until expiry commits, a concurrent markPaid waits for it and then finds nothing to update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT t FROM Transaction t
+            WHERE t.transactionId = :transactionId AND t.paid = false AND t.expiredAt IS NULL
+            """)
+    Optional<Transaction> findUnpaidForUpdate(@Param("transactionId") String transactionId);
 }
@@ -16,6 +16,11 @@ import java.util.Optional;
 public interface TransactionService {
     void completeTransaction(String sessionId);
 
+    // Marks a transaction that was never paid as expired and returns its games to the cart, false if it is paid or
+    // already expired
+    boolean expireTransaction(String sessionId);
+
+    // amount is the recharge of BALANCE_RECHARGE and what the provider charges for PAYMENT_WITH_BALANCE
     void placeTemporaryTransaction(BigDecimal amount, String sessionId, String url, BalanceAction withBalance,
                                    PaymentMethod paymentMethod);
 
@@ -1,10 +1,13 @@
 package com.khomsi.backend.main.checkout.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.khomsi.backend.additional.cart.model.dto.CartDTO;
 import com.khomsi.backend.additional.cart.model.dto.CartItemDto;
 import com.khomsi.backend.additional.cart.service.CartService;
-import com.khomsi.backend.additional.wishlist.service.WishlistService;
+import com.khomsi.backend.main.checkout.event.TransactionCompletedEvent;
 import com.khomsi.backend.main.checkout.mapper.TransactionMapper;
+import com.khomsi.backend.main.checkout.model.dto.OrderLine;
 import com.khomsi.backend.main.checkout.model.dto.TransactionDTO;
 import com.khomsi.backend.main.checkout.model.entity.Transaction;
 import com.khomsi.backend.main.checkout.model.entity.TransactionGames;
@@ -15,18 +18,26 @@ import com.khomsi.backend.main.checkout.repository.TransactionGamesRepository;
 import com.khomsi.backend.main.checkout.repository.TransactionRepository;
 import com.khomsi.backend.main.utils.email.service.EmailService;
 import com.khomsi.backend.main.game.model.entity.Game;
-import com.khomsi.backend.main.game.service.GameService;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
-import com.khomsi.backend.main.user.repository.UserInfoRepository;
+import com.khomsi.backend.main.user.model.enums.BalanceOperation;
+import com.khomsi.backend.main.user.service.BalanceService;
 import com.khomsi.backend.main.user.service.UserGamesService;
 import com.khomsi.backend.main.user.service.UserInfoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
@@ -34,58 +45,169 @@ import java.util.Optional;
 import java.util.Set;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
-    private final GameService gameService;
+    private static final int MAX_REMEMBERED_COMPLETIONS = 10_000;
+    private static final Duration COMPLETION_TTL = Duration.ofHours(1);
+
     private final CartService cartService;
     private final UserInfoService userInfoService;
     private final TransactionRepository transactionRepository;
     private final TransactionGamesRepository transactionGamesRepository;
     private final TransactionMapper transactionMapper;
-    private final UserInfoRepository userInfoRepository;
+    private final BalanceService balanceService;
     private final UserGamesService userGamesService;
     private final EmailService emailService;
-    private final WishlistService wishlistService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    // Recently completed transactions, repeated provider notifications and captures stop here without the db
+    private final Cache<String, Boolean> completedTransactions = Caffeine.newBuilder()
+            .maximumSize(MAX_REMEMBERED_COMPLETIONS)
+            .expireAfterWrite(COMPLETION_TTL)
+            .build();
 
     @Override
-    @Transactional
     public void completeTransaction(String sessionId) {
+        if (completedTransactions.getIfPresent(sessionId) != null) {
+            log.debug("Transaction {} is already completed", sessionId);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> completeOnce(sessionId));
+    }
+
+    // Only the caller whose conditional update flips paid gets to grant games and move the balance
+    private void completeOnce(String sessionId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (transactionRepository.markPaid(sessionId, now) == 0) {
+            Optional<Transaction> existing = transactionRepository.findById(sessionId);
+            if (existing.isEmpty()) {
+                latePayments("unknown").increment();
+                log.error("Payment reported for unknown transaction {}, nothing to complete or refund", sessionId);
+                throw new GlobalServiceException(HttpStatus.BAD_REQUEST, "Transaction " + sessionId + " is not found.");
+            }
+            if (existing.get().getExpiredAt() != null) {
+                refundLatePayment(existing.get(), now);
+                return;
+            }
+            // The winner has committed already, otherwise the update above would have waited on its row lock
+            log.info("Transaction {} is already completed", sessionId);
+            completedTransactions.put(sessionId, Boolean.TRUE);
+            return;
+        }
         Transaction transaction = transactionRepository.findById(sessionId)
                 .orElseThrow(() -> new GlobalServiceException(HttpStatus.BAD_REQUEST,
                         "Transaction " + sessionId + " is not found."));
+        // Keep an instance loaded earlier in this persistence context in line with the row
+        transaction.setUpdatedAt(now);
+        transaction.setPaid(true);
+        transaction.setRedirectUrl(null);
+
         UserInfo user = transaction.getUsers();
         BalanceAction balanceAction = transaction.getBalanceAction();
         switch (balanceAction) {
-            case NO_ACTION -> {
-                userGamesService.getGamesFromTransactionToLibrary(user, transaction);
-                deleteGamesFromWishlist(transaction);
-            }
-            case PAYMENT_WITH_BALANCE -> {
-                BigDecimal newBalance = user.getBalance().subtract(transaction.getUsedBalance());
-                user.setBalance(newBalance);
-                userGamesService.getGamesFromTransactionToLibrary(user, transaction);
-                deleteGamesFromWishlist(transaction);
-            }
-            case BALANCE_RECHARGE -> {
-                BigDecimal newBalance = user.getBalance().add(transaction.getTotalAmount());
-                user.setBalance(newBalance);
-            }
+            // The used balance was reserved when the order was placed
+            case NO_ACTION, PAYMENT_WITH_BALANCE ->
+                    userGamesService.getGamesFromTransactionToLibrary(user, transaction);
+            case BALANCE_RECHARGE ->
+                    balanceService.credit(user, transaction.getTotalAmount(), BalanceOperation.RECHARGE, sessionId);
         }
-        userInfoRepository.save(user);
+        // Only an outbox row, it has to commit or roll back with the payment
+        emailService.sendPurchaseConfirmationEmail(transaction);
+        transactionRepository.save(transaction);
+        // Wishlist cleanup, sales ranking and metrics run after commit in TransactionCompletedListener
+        List<Long> gameIds = balanceAction == BalanceAction.BALANCE_RECHARGE
+                ? List.of()
+                : purchasedGameIds(transaction);
+        eventPublisher.publishEvent(new TransactionCompletedEvent(sessionId, user.getExternalId(), balanceAction,
+                transaction.getTotalAmount(), gameIds, now));
+        rememberCompletedAfterCommit(sessionId);
+    }
 
-        transaction.setUpdatedAt(LocalDateTime.now());
+    /**
+     * Paid after the order expired or went back to the cart: its games were returned and what it reserved was given
+     * back, so nothing is granted. The charge is kept as balance instead, once per order however often the provider
+     * reports it, and the order is marked paid so it shows what happened.
+     */
+    private void refundLatePayment(Transaction transaction, LocalDateTime now) {
+        String sessionId = transaction.getTransactionId();
+        if (transactionRepository.markLatePaid(sessionId, now) == 0) {
+            log.info("Late payment of transaction {} is already refunded", sessionId);
+            completedTransactions.put(sessionId, Boolean.TRUE);
+            return;
+        }
+        transaction.setUpdatedAt(now);
         transaction.setPaid(true);
+        BigDecimal usedBalance = Optional.ofNullable(transaction.getUsedBalance()).orElse(BigDecimal.ZERO);
+        // A local payment only ever took balance, and that was given back when the order expired
+        BigDecimal charged = String.valueOf(PaymentMethod.LOCAL).equals(transaction.getPaymentMethods())
+                ? BigDecimal.ZERO
+                : transaction.getTotalAmount().subtract(usedBalance);
+        UserInfo user = transaction.getUsers();
+        balanceService.credit(user, charged, BalanceOperation.REFUND, sessionId);
+        latePayments("refunded").increment();
+        log.error("Transaction {} was paid after it expired at {}, {} credited to the balance of user {}", sessionId,
+                transaction.getExpiredAt(), charged, user.getExternalId());
+        rememberCompletedAfterCommit(sessionId);
+    }
+
+    // Remembered only once it is committed, a rolled back completion has to be retried
+    private void rememberCompletedAfterCommit(String sessionId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                completedTransactions.put(sessionId, Boolean.TRUE);
+            }
+        });
+    }
+
+    // Payments the provider reports for orders that can no longer be completed, each one needs a look
+    private Counter latePayments(String outcome) {
+        return Counter.builder("payment.late")
+                .description("Payments reported for expired or unknown transactions")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean expireTransaction(String sessionId) {
+        Boolean expired = transactionTemplate.execute(status -> {
+            Optional<Transaction> unpaid = transactionRepository.findUnpaidForUpdate(sessionId);
+            unpaid.ifPresent(transaction -> {
+                List<Game> games = transaction.getTransactionGames().stream()
+                        .map(TransactionGames::getGames)
+                        .toList();
+                int returned = cartService.returnGamesToCart(transaction.getUsers(), games);
+                releaseReservedBalance(transaction);
+                markExpired(transaction);
+                log.info("Transaction {} expired unpaid, {} of {} games returned to the cart", sessionId,
+                        returned, games.size());
+            });
+            return unpaid.isPresent();
+        });
+        return Boolean.TRUE.equals(expired);
+    }
+
+    // Gives back what the order took when it was placed, the used balance or a whole local payment
+    private void releaseReservedBalance(Transaction transaction) {
+        UserInfo user = transaction.getUsers();
+        String sessionId = transaction.getTransactionId();
+        balanceService.credit(user, balanceService.getReserved(user, sessionId), BalanceOperation.REFUND, sessionId);
+    }
+
+    // Kept rather than deleted, a payment that still arrives for it has to find what it was for
+    private void markExpired(Transaction transaction) {
+        transaction.setExpiredAt(LocalDateTime.now());
         transaction.setRedirectUrl(null);
-        emailService.sendPurchaseConfirmationEmail(transaction);
         transactionRepository.save(transaction);
     }
 
-    private void deleteGamesFromWishlist(Transaction transaction) {
-        // Delete games from wishlist using stream
-        transaction.getTransactionGames().stream()
+    private List<Long> purchasedGameIds(Transaction transaction) {
+        return transaction.getTransactionGames().stream()
                 .map(TransactionGames::getGames)
                 .map(Game::getId)
-                .forEach(wishlistService::deleteGameFromWishlist);
+                .toList();
     }
 
     @Override
@@ -107,7 +229,7 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setTotalAmount(amount);
             transactionRepository.save(transaction);
         } else {
-            processCartTransaction(transaction);
+            processCartTransaction(transaction, amount);
         }
     }
 
@@ -115,7 +237,9 @@ public class TransactionServiceImpl implements TransactionService {
     @Transactional
     public TransactionResponse returnTransactionToCart(String sessionId) {
         UserInfo userInfo = userInfoService.getUserInfo();
-        Optional<Transaction> optionalTransaction = getTransaction(sessionId, userInfo);
+        // Locked like an expiry, a payment completing meanwhile either waits for the return or is returned nothing
+        Optional<Transaction> optionalTransaction = transactionRepository.findUnpaidForUpdate(sessionId)
+                .filter(transaction -> transaction.getUsers().getExternalId().equals(userInfo.getExternalId()));
 
         if (optionalTransaction.isPresent()) {
             Transaction transaction = optionalTransaction.get();
@@ -126,7 +250,8 @@ public class TransactionServiceImpl implements TransactionService {
                     .map(Game::getId)
                     .forEach(cartService::addToCart);
 
-            transactionRepository.delete(transaction);
+            releaseReservedBalance(transaction);
+            markExpired(transaction);
             return new TransactionResponse("Transaction successfully returned to cart.");
         } else {
             throw new GlobalServiceException(HttpStatus.NOT_FOUND, "Transaction with ID " +
@@ -136,38 +261,59 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public Optional<Transaction> getTransaction(String sessionId, UserInfo userInfo) {
-        return userInfo.getTransactions()
-                .stream()
-                .filter(transaction -> transaction.getTransactionId().equals(sessionId) && !transaction.getPaid())
-                .findFirst();
+        return transactionRepository.findByTransactionIdAndUsersExternalIdAndPaidFalseAndExpiredAtIsNull(sessionId,
+                userInfo.getExternalId());
     }
 
-    private void processCartTransaction(Transaction transaction) {
+    // chargedAmount is what the payment provider charges, for a balance payment the balance covers the rest
+    private void processCartTransaction(Transaction transaction, BigDecimal chargedAmount) {
         CartDTO cartDto = cartService.cartItems();
         List<CartItemDto> cartItemDtoList = cartDto.cartItems();
         BigDecimal totalAmount = cartDto.totalCost();
 
         if (transaction.getBalanceAction() == BalanceAction.PAYMENT_WITH_BALANCE) {
-            BigDecimal balance = transaction.getUsers().getBalance();
-            BigDecimal balanceUsed = balance.min(totalAmount);
-            transaction.setUsedBalance(balanceUsed);
+            transaction.setUsedBalance(balanceToReserve(totalAmount, chargedAmount));
         }
         transaction.setTotalAmount(totalAmount);
-        transactionRepository.save(transaction);
+        // The order lines reference the transaction row, so it is written before the batch
+        transactionRepository.saveAndFlush(transaction);
+        // Reserved right away, two orders placed together can no longer both count on the same balance.
+        // A balance that no longer covers it fails with CONFLICT and rolls the whole order back
+        if (transaction.getBalanceAction() == BalanceAction.PAYMENT_WITH_BALANCE) {
+            balanceService.debit(transaction.getUsers(), transaction.getUsedBalance(), BalanceOperation.PURCHASE,
+                    transaction.getTransactionId());
+        }
 
-        // Set games to user's transaction
-        cartItemDtoList.forEach(cartItemDto -> {
-            Game game = gameService.getActiveGameById(cartItemDto.game().id());
-            TransactionGames orderItem = new TransactionGames();
-            orderItem.setPriceOnPay(cartItemDto.game().price());
-            orderItem.setGames(game);
-            orderItem.setTransactions(transaction);
-            transactionGamesRepository.save(orderItem);
-        });
+        // The cart query already loaded every game, no need to fetch them again one by one
+        List<OrderLine> orderLines = cartItemDtoList.stream()
+                .map(CartItemDto::game)
+                .map(game -> {
+                    if (!game.active()) {
+                        throw new GlobalServiceException(HttpStatus.NOT_FOUND,
+                                "Game with id " + game.id() + " is not found.");
+                    }
+                    return new OrderLine(game.id(), game.price());
+                })
+                .toList();
+        transactionGamesRepository.insertOrderLines(transaction.getTransactionId(), orderLines);
         // cleanup user's cart
         cartService.cleanCartItems();
     }
 
+    // The provider bill was computed from the cart and the balance of that moment, either may have changed since
+    private static BigDecimal balanceToReserve(BigDecimal totalAmount, BigDecimal chargedAmount) {
+        if (chargedAmount == null) {
+            throw new GlobalServiceException(HttpStatus.BAD_REQUEST,
+                    "Charged amount is required for a payment with balance.");
+        }
+        BigDecimal balanceUsed = totalAmount.subtract(chargedAmount);
+        if (balanceUsed.signum() < 0 || chargedAmount.signum() < 0) {
+            throw new GlobalServiceException(HttpStatus.CONFLICT,
+                    "Cart total changed after the payment was created, please retry.");
+        }
+        return balanceUsed;
+    }
+
     @Override
     public BigDecimal getTotalAmountForBill(BalanceAction balanceAction, List<CartItemDto> cartItemDtoList) {
         BigDecimal totalAmount = cartItemDtoList.stream()
@@ -1,38 +1,111 @@
 package com.khomsi.backend.main.game;
 
+import com.khomsi.backend.main.ai.model.dto.AiChatGameModel;
+import com.khomsi.backend.main.game.model.dto.FacetGameRow;
+import com.khomsi.backend.main.game.model.dto.FacetLinkRow;
 import com.khomsi.backend.main.game.model.entity.Game;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface GameRepository extends JpaRepository<Game, Long>, JpaSpecificationExecutor<Game> {
-    @Query("SELECT g FROM Game g JOIN g.genres genre WHERE genre.name = :genre AND g.active = true")
-    List<Game> findGamesByGenre(@Param("genre") String genre);
+import static com.khomsi.backend.config.CacheConfig.MAX_PRICE;
 
-    @Query("SELECT game FROM Game game WHERE game.active = true ORDER BY game.releaseDate DESC")
-    List<Game> findGamesByEarliestReleaseDate();
+/**
+ * Every read is shaped for the model it feeds: to-one associations and media are joined by an entity graph,
+ * genres/tags/platforms come in one batch per page (see @BatchSize on Game) and chat needs only a projection.
+ */
+public interface GameRepository extends JpaRepository<Game, Long>, JpaSpecificationExecutor<Game> {
+    // ShortGameModel pages
+    @Override
+    @EntityGraph(attributePaths = {"publisher", "developer", "gameMedia"})
+    Page<Game> findAll(Specification<Game> specification, Pageable pageable);
 
-    @Query("SELECT game FROM Game game WHERE game.discount > 0 AND game.active = true")
-    List<Game> findGamesWithDiscount();
+    // GameModelWithGenreLimit: games of the genre with no more than maxGenres genres in total, the page size is the only rows fetched
+    @Query("""
+            SELECT g FROM Game g JOIN g.genres genre
+            WHERE genre.name = :genre AND g.active = true AND SIZE(g.genres) <= :maxGenres
+            ORDER BY g.id
+            """)
+    @EntityGraph(attributePaths = {"publisher", "developer", "gameMedia"})
+    List<Game> findGamesByGenre(@Param("genre") String genre, @Param("maxGenres") int maxGenres, Pageable pageable);
 
-    @Query(value = "SELECT g FROM Game g WHERE UPPER(g.title) LIKE CONCAT('%', UPPER(:text), '%') AND g.active = true")
-    List<Game> findSimilarTitles(@Param("text") String text);
+    // PopularGameModel offers
+    @Query("SELECT game FROM Game game WHERE game.active = true ORDER BY game.releaseDate DESC, game.id DESC")
+    @EntityGraph(attributePaths = {"publisher", "developer", "gameMedia"})
+    List<Game> findGamesByEarliestReleaseDate(Pageable pageable);
 
-    @Query(value = "SELECT g FROM Game g WHERE UPPER(g.title) LIKE CONCAT('%', UPPER(:text), '%')")
-    List<Game> findSimilarTitlesWithoutActiveCheck(@Param("text") String text);
+    @Query("SELECT game FROM Game game WHERE game.discount > 0 AND game.active = true ORDER BY game.discount DESC, game.id")
+    @EntityGraph(attributePaths = {"publisher", "developer", "gameMedia"})
+    List<Game> findGamesWithDiscount(Pageable pageable);
 
 
     boolean existsGameByTitleIgnoreCase(String title);
 
+    @EntityGraph(attributePaths = {"publisher", "developer", "gameMedia"})
     Optional<Game> findByIdAndActiveTrue(Long id);
 
     @Query("select g from Game g WHERE g.active = true")
     List<Game> findAllActiveGames();
-    @Query("SELECT MAX(g.price) FROM Game g")
+
+    // AiChatGameModel needs three columns only, price is the discounted one like Game.getPrice()
+    @Query("""
+            SELECT new com.khomsi.backend.main.ai.model.dto.AiChatGameModel(g.id, g.title, g.effectivePrice)
+            FROM Game g WHERE g.active = true
+            """)
+    List<AiChatGameModel> findAllActiveGamesForAiChat();
+
+    @Query("""
+            SELECT DISTINCT g FROM Game g JOIN FETCH g.developer JOIN FETCH g.publisher
+            LEFT JOIN FETCH g.genres LEFT JOIN FETCH g.gameMedia WHERE g.active = true
+            """)
+    List<Game> findAllActiveGamesForCatalog();
+
+    @Query("SELECT DISTINCT g FROM Game g JOIN FETCH g.developer JOIN FETCH g.publisher LEFT JOIN FETCH g.tags")
+    List<Game> findAllGamesForSearch();
+
+    // Facet index rows, a null gameId loads the whole active catalog
+    @Query("""
+            SELECT g.id AS id, g.title AS title, g.effectivePrice AS price, g.discount AS discount,
+                g.releaseDate AS releaseDate, d.id AS developerId, d.name AS developerName,
+                p.id AS publisherId, p.name AS publisherName
+            FROM Game g JOIN g.developer d JOIN g.publisher p
+            WHERE g.active = true AND (:gameId IS NULL OR g.id = :gameId)
+            """)
+    List<FacetGameRow> findFacetGames(@Param("gameId") Long gameId);
+
+    @Query("""
+            SELECT g.id AS gameId, t.id AS valueId, t.name AS valueName FROM Game g JOIN g.tags t
+            WHERE g.active = true AND (:gameId IS NULL OR g.id = :gameId)
+            """)
+    List<FacetLinkRow> findFacetTags(@Param("gameId") Long gameId);
+
+    @Query("""
+            SELECT g.id AS gameId, gr.id AS valueId, gr.name AS valueName FROM Game g JOIN g.genres gr
+            WHERE g.active = true AND (:gameId IS NULL OR g.id = :gameId)
+            """)
+    List<FacetLinkRow> findFacetGenres(@Param("gameId") Long gameId);
+
+    @Query("""
+            SELECT g.id AS gameId, pl.id AS valueId, pl.name AS valueName FROM Game g JOIN g.platforms pl
+            WHERE g.active = true AND (:gameId IS NULL OR g.id = :gameId)
+            """)
+    List<FacetLinkRow> findFacetPlatforms(@Param("gameId") Long gameId);
+
+    @EntityGraph(attributePaths = {"publisher", "developer", "gameMedia"})
+    List<Game> findAllByIdIn(Collection<Long> ids);
+
+    @Cacheable(MAX_PRICE)
+    @Query("SELECT MAX(g.effectivePrice) FROM Game g")
     BigDecimal findMaxPrice();
 }
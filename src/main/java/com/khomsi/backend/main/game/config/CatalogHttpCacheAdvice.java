@@ -0,0 +1,36 @@
+package com.khomsi.backend.main.game.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Adds the validators prepared by CatalogHttpCacheInterceptor to successful catalog responses
+@ControllerAdvice
+public class CatalogHttpCacheAdvice implements ResponseBodyAdvice<Object> {
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse
+                && servletRequest.getServletRequest().getAttribute(CatalogHttpCacheInterceptor.VALIDATORS_ATTRIBUTE)
+                instanceof CatalogHttpCacheInterceptor.Validators validators) {
+            int status = servletResponse.getServletResponse().getStatus();
+            if (status >= 200 && status < 300) {
+                validators.applyTo(response.getHeaders());
+            }
+        }
+        return body;
+    }
+}
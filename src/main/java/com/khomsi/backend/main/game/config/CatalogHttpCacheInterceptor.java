@@ -0,0 +1,105 @@
+package com.khomsi.backend.main.game.config;
+
+import com.khomsi.backend.main.game.model.dto.CatalogVersion;
+import com.khomsi.backend.main.game.service.CatalogVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conditional GET for the public catalog. Every response of these endpoints is derived from the catalog version,
+ * so a matching If-None-Match or If-Modified-Since is answered with 304 before the controller runs.
+ * Requests with a token get ownedByCurrentUser filled in, which changes with purchases and not with the catalog,
+ * so they are marked private and always rendered.
+ * The ETag is weak: the same version is served gzip-compressed or as is, which are different bytes of one content.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogHttpCacheInterceptor implements HandlerInterceptor {
+    static final String VALIDATORS_ATTRIBUTE = CatalogHttpCacheInterceptor.class.getName() + ".validators";
+
+    private final CatalogVersionService catalogVersionService;
+    private final CatalogProperties catalogProperties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+        if (request.getHeader(HttpHeaders.AUTHORIZATION) != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+            return true;
+        }
+        CatalogVersion version = catalogVersionService.current();
+        Validators validators = new Validators("W/\"catalog-" + version.version() + "\"", lastModified(version),
+                CacheControl.maxAge(catalogProperties.getHttpMaxAge()).cachePublic());
+        if (isNotModified(request, validators)) {
+            HttpHeaders headers = new HttpHeaders();
+            validators.applyTo(headers);
+            headers.forEach((name, values) -> values.forEach(value -> response.setHeader(name, value)));
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        // Written by CatalogHttpCacheAdvice only when the body is a success, errors must not carry the validators
+        request.setAttribute(VALIDATORS_ATTRIBUTE, validators);
+        return true;
+    }
+
+    // If-None-Match wins when both are sent, as in RFC 9110
+    private static boolean isNotModified(HttpServletRequest request, Validators validators) {
+        Enumeration<String> ifNoneMatch = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.hasMoreElements()) {
+            while (ifNoneMatch.hasMoreElements()) {
+                for (String tag : ifNoneMatch.nextElement().split(",")) {
+                    String candidate = tag.trim();
+                    // Weak comparison, a GET may be answered with 304 for a weak ETag
+                    if (candidate.equals("*") || opaqueTag(candidate).equals(opaqueTag(validators.etag()))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince >= 0 && validators.lastModified() >= 0
+                    && validators.lastModified() <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * Last-Modified has a precision of one second. A change made in the current second may be followed by another one
+     * in the same second, which Last-Modified could not tell apart, so it is only sent once that second is over;
+     * until then clients revalidate with the ETag alone. -1 when not sent.
+     */
+    private static long lastModified(CatalogVersion version) {
+        long modifiedSecond = TimeUnit.MILLISECONDS.toSeconds(version.modifiedAt());
+        long currentSecond = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        return modifiedSecond < currentSecond ? TimeUnit.SECONDS.toMillis(modifiedSecond) : -1;
+    }
+
+    record Validators(String etag, long lastModified, CacheControl cacheControl) {
+        void applyTo(HttpHeaders headers) {
+            headers.setETag(etag);
+            if (lastModified >= 0) {
+                headers.setLastModified(lastModified);
+            }
+            headers.setCacheControl(cacheControl);
+        }
+    }
+}
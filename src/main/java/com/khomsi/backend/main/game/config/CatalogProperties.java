@@ -0,0 +1,19 @@
+package com.khomsi.backend.main.game.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.catalog")
+public class CatalogProperties {
+    // How many best-sellers are kept in the ranking snapshot
+    private int topSellersSize = 100;
+    // How often the in-memory sales counters are reconciled with transaction_games
+    private Duration salesReconcileInterval = Duration.ofMinutes(10);
+    // max-age of anonymous catalog responses, after that clients revalidate with the ETag
+    private Duration httpMaxAge = Duration.ofSeconds(60);
+}
@@ -0,0 +1,23 @@
+package com.khomsi.backend.main.game.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class CatalogWebConfig implements WebMvcConfigurer {
+    private final CatalogHttpCacheInterceptor catalogHttpCacheInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogHttpCacheInterceptor)
+                .addPathPatterns("/api/v1/games", "/api/v1/games/**",
+                        "/api/v1/genres", "/api/v1/genres/**",
+                        "/api/v1/tags", "/api/v1/platforms",
+                        "/api/v1/developers", "/api/v1/publishers")
+                // A new sample on every call, nothing to revalidate
+                .excludePathPatterns("/api/v1/games/random");
+    }
+}
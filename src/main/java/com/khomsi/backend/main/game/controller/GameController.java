@@ -23,6 +23,9 @@ import static com.khomsi.backend.config.ApplicationConfig.BEARER_KEY_SECURITY_SC
 @Validated
 @RequiredArgsConstructor
 public class GameController {
+    // Upper bound for the qty of the list endpoints, so one request can't ask for the whole catalog at once
+    private static final int MAX_QUANTITY = 100;
+
     private final GameService gameService;
 
     @GetMapping
@@ -38,7 +41,7 @@ public class GameController {
     public List<GameModelWithGenreLimit> showGamesByGenre(
             @RequestParam(value = "genre") String genre,
             @RequestParam(value = "qty", defaultValue = "5")
-            @Min(1) @Max(Integer.MAX_VALUE) int gameQuantity) {
+            @Min(1) @Max(MAX_QUANTITY) int gameQuantity) {
         return gameService.getGamesByGenre(gameQuantity, genre);
     }
 
@@ -48,7 +51,7 @@ public class GameController {
     public List<PopularGameModel> showGamesBySpecialOffer(
             @RequestParam(value = "query") String query,
             @RequestParam(value = "qty", defaultValue = "5")
-            @Min(1) @Max(Integer.MAX_VALUE) int gameQuantity) {
+            @Min(1) @Max(MAX_QUANTITY) int gameQuantity) {
         return gameService.getSpecialOffers(query.toLowerCase(), gameQuantity);
     }
 
@@ -57,7 +60,7 @@ public class GameController {
     @ResponseStatus(HttpStatus.OK)
     public List<PopularGameModel> showPopularQtyOfGames(
             @RequestParam(value = "qty", defaultValue = "5")
-            @Min(1) @Max(Integer.MAX_VALUE) int gameQuantity) {
+            @Min(1) @Max(MAX_QUANTITY) int gameQuantity) {
         return gameService.getPopularQtyOfGames(gameQuantity);
     }
 
@@ -66,7 +69,7 @@ public class GameController {
     @ResponseStatus(HttpStatus.OK)
     public List<GameModelWithGenreLimit> showRandomQtyOfGames(
             @RequestParam(value = "qty", defaultValue = "20")
-            @Min(1) @Max(Integer.MAX_VALUE) int gameQuantity) {
+            @Min(1) @Max(MAX_QUANTITY) int gameQuantity) {
         return gameService.getRandomQtyOfGames(gameQuantity);
     }
 
@@ -76,7 +79,7 @@ public class GameController {
     public List<GameModelWithGenreLimit> showSearchedGame(
             @RequestParam(value = "title") String title,
             @RequestParam(value = "qty", defaultValue = "20")
-            @Min(1) @Max(Integer.MAX_VALUE) int gameQuantity) {
+            @Min(1) @Max(MAX_QUANTITY) int gameQuantity) {
         return gameService.searchGamesByTitle(title, gameQuantity);
     }
 
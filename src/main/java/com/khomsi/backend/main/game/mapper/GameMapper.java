@@ -1,19 +1,39 @@
 package com.khomsi.backend.main.game.mapper;
 
+import com.khomsi.backend.additional.genre.model.entity.Genre;
 import com.khomsi.backend.main.ai.model.dto.AiChatGameModel;
+import com.khomsi.backend.main.game.model.dto.CatalogGame;
+import com.khomsi.backend.main.game.model.dto.GameDetail;
 import com.khomsi.backend.main.game.model.dto.GameModelWithGenreLimit;
 import com.khomsi.backend.main.game.model.dto.PopularGameModel;
 import com.khomsi.backend.main.game.model.dto.ShortGameModel;
 import com.khomsi.backend.main.game.model.entity.Game;
+import com.khomsi.backend.main.user.model.dto.OwnedGameIds;
+
+import java.util.Set;
 
 public interface GameMapper {
     ShortGameModel toShortGame(Game game, boolean ownedByCurrentUser);
 
+    ShortGameModel toShortGame(Game game, OwnedGameIds ownedGameIds);
+
     ShortGameModel toShortGame(Game game);
 
     AiChatGameModel toAiChatGameModel(Game game);
 
     PopularGameModel toPopularGame(Game game, boolean ownedByCurrentUser);
 
+    PopularGameModel toPopularGame(Game game, OwnedGameIds ownedGameIds);
+
+    PopularGameModel toPopularGame(CatalogGame game, OwnedGameIds ownedGameIds);
+
     GameModelWithGenreLimit toLimitGenreGame(Game game, boolean ownedByCurrentUser);
+
+    GameModelWithGenreLimit toLimitGenreGame(Game game, OwnedGameIds ownedGameIds);
+
+    GameModelWithGenreLimit toLimitGenreGame(Game game, Set<Genre> genres, OwnedGameIds ownedGameIds);
+
+    GameModelWithGenreLimit toLimitGenreGame(CatalogGame game, OwnedGameIds ownedGameIds);
+
+    GameDetail toGameDetail(Game game);
 }
@@ -1,14 +1,28 @@
 package com.khomsi.backend.main.game.mapper.impl;
 
+import com.khomsi.backend.additional.developer.model.entity.Developer;
+import com.khomsi.backend.additional.genre.model.entity.Genre;
+import com.khomsi.backend.additional.media.model.entity.GameMedia;
+import com.khomsi.backend.additional.platform.model.entity.Platform;
+import com.khomsi.backend.additional.publisher.model.entity.Publisher;
+import com.khomsi.backend.additional.tag.model.entity.Tag;
 import com.khomsi.backend.main.game.mapper.GameMapper;
 import com.khomsi.backend.main.ai.model.dto.AiChatGameModel;
+import com.khomsi.backend.main.game.model.dto.CatalogGame;
+import com.khomsi.backend.main.game.model.dto.GameDetail;
 import com.khomsi.backend.main.game.model.dto.GameModelWithGenreLimit;
 import com.khomsi.backend.main.game.model.dto.PopularGameModel;
 import com.khomsi.backend.main.game.model.dto.ShortGameModel;
 import com.khomsi.backend.main.game.model.entity.Game;
+import com.khomsi.backend.main.user.model.dto.OwnedGameIds;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -28,6 +42,11 @@ public class GameMapperImpl implements GameMapper {
                 .build();
     }
 
+    @Override
+    public ShortGameModel toShortGame(Game game, OwnedGameIds ownedGameIds) {
+        return toShortGame(game, ownedGameIds.contains(game.getId()));
+    }
+
     @Override
     public ShortGameModel toShortGame(Game game) {
         return toShortGame(game, false);
@@ -56,8 +75,17 @@ public class GameMapperImpl implements GameMapper {
                 .build();
     }
 
+    @Override
+    public PopularGameModel toPopularGame(Game game, OwnedGameIds ownedGameIds) {
+        return toPopularGame(game, ownedGameIds.contains(game.getId()));
+    }
+
     @Override
     public GameModelWithGenreLimit toLimitGenreGame(Game game, boolean ownedByCurrentUser) {
+        return toLimitGenreGame(game, game.getGenres(), ownedByCurrentUser);
+    }
+
+    private GameModelWithGenreLimit toLimitGenreGame(Game game, Set<Genre> genres, boolean ownedByCurrentUser) {
         return GameModelWithGenreLimit.builder()
                 .id(game.getId())
                 .title(game.getTitle())
@@ -65,8 +93,94 @@ public class GameMapperImpl implements GameMapper {
                 .coverImageUrl(game.getCoverImageUrl())
                 .price(game.getPrice())
                 .discount(game.getDiscount())
-                .genres(game.getGenres().stream().limit(2).collect(Collectors.toSet()))
+                .genres(genres.stream().limit(2).collect(Collectors.toSet()))
                 .ownedByCurrentUser(ownedByCurrentUser)
                 .build();
     }
+
+    @Override
+    public GameModelWithGenreLimit toLimitGenreGame(Game game, OwnedGameIds ownedGameIds) {
+        return toLimitGenreGame(game, ownedGameIds.contains(game.getId()));
+    }
+
+    @Override
+    public GameModelWithGenreLimit toLimitGenreGame(Game game, Set<Genre> genres, OwnedGameIds ownedGameIds) {
+        return toLimitGenreGame(game, genres, ownedGameIds.contains(game.getId()));
+    }
+
+    @Override
+    public PopularGameModel toPopularGame(CatalogGame game, OwnedGameIds ownedGameIds) {
+        return PopularGameModel.builder()
+                .id(game.id())
+                .title(game.title())
+                .description(game.description())
+                .coverImageUrl(game.bannerUrl())
+                .price(game.price())
+                .discount(game.discount())
+                .genres(game.genres())
+                .ownedByCurrentUser(ownedGameIds.contains(game.id()))
+                .build();
+    }
+
+    @Override
+    public GameModelWithGenreLimit toLimitGenreGame(CatalogGame game, OwnedGameIds ownedGameIds) {
+        return GameModelWithGenreLimit.builder()
+                .id(game.id())
+                .title(game.title())
+                .description(game.description())
+                .coverImageUrl(game.coverImageUrl())
+                .price(game.price())
+                .discount(game.discount())
+                .genres(game.limitedGenres())
+                .ownedByCurrentUser(ownedGameIds.contains(game.id()))
+                .build();
+    }
+
+    @Override
+    public GameDetail toGameDetail(Game game) {
+        // Detached copies, the cached detail must not keep hibernate proxies or the session alive
+        GameMedia media = game.getGameMedia();
+        return GameDetail.builder()
+                .id(game.getId())
+                .title(game.getTitle())
+                .description(game.getDescription())
+                .releaseDate(game.getReleaseDate())
+                .active(game.getActive())
+                .systemRequirements(game.getSystemRequirements())
+                .aboutGame(game.getAboutGame())
+                .price(game.getPrice())
+                .coverImageUrl(game.getCoverImageUrl())
+                .discount(game.getDiscount())
+                .permitAge(game.getPermitAge())
+                .publisher(Publisher.builder()
+                        .id(game.getPublisher().getId())
+                        .name(game.getPublisher().getName())
+                        .build())
+                .developer(Developer.builder()
+                        .id(game.getDeveloper().getId())
+                        .name(game.getDeveloper().getName())
+                        .build())
+                .tags(copyOf(game.getTags(), tag -> Tag.builder().id(tag.getId()).name(tag.getName()).build()))
+                .genres(copyOf(game.getGenres(),
+                        genre -> Genre.builder().id(genre.getId()).name(genre.getName()).build()))
+                .platforms(copyOf(game.getPlatforms(),
+                        platform -> Platform.builder().id(platform.getId()).name(platform.getName()).build()))
+                .gameMedia(media == null ? null : GameMedia.builder()
+                        .bannerUrl(media.getBannerUrl())
+                        .screenshotUrl(media.getScreenshotUrl())
+                        .trailer(media.getTrailer())
+                        .trailerScreenshot(media.getTrailerScreenshot())
+                        .build())
+                .build();
+    }
+
+    private static <T> Set<T> copyOf(Collection<T> entities, Function<T, T> copy) {
+        if (entities == null) {
+            return Set.of();
+        }
+        return entities.stream()
+                .map(copy)
+                .collect(Collectors.collectingAndThen(Collectors.toCollection(LinkedHashSet::new),
+                        Collections::unmodifiableSet));
+    }
 }
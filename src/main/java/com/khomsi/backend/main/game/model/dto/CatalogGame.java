@@ -0,0 +1,22 @@
+package com.khomsi.backend.main.game.model.dto;
+
+import com.khomsi.backend.additional.genre.model.entity.Genre;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+// Display fields of an active game kept in the in-memory catalog snapshot
+@Builder
+public record CatalogGame(
+        Long id,
+        String title,
+        String description,
+        BigDecimal price,
+        BigDecimal discount,
+        String coverImageUrl,
+        String bannerUrl,
+        Set<Genre> genres,
+        Set<Genre> limitedGenres
+) {
+}
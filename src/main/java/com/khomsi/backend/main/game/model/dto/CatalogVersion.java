@@ -0,0 +1,5 @@
+package com.khomsi.backend.main.game.model.dto;
+
+// modifiedAt is the epoch millisecond of the change the version stands for
+public record CatalogVersion(long version, long modifiedAt) {
+}
@@ -0,0 +1,4 @@
+package com.khomsi.backend.main.game.model.dto;
+
+public record FacetCount(Long id, String name, int count) {
+}
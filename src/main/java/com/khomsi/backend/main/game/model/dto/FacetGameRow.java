@@ -0,0 +1,25 @@
+package com.khomsi.backend.main.game.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Scalar columns of a game for the facet index, price is the effective one like in the sql filters
+public interface FacetGameRow {
+    Long getId();
+
+    String getTitle();
+
+    BigDecimal getPrice();
+
+    BigDecimal getDiscount();
+
+    LocalDate getReleaseDate();
+
+    Integer getDeveloperId();
+
+    String getDeveloperName();
+
+    Integer getPublisherId();
+
+    String getPublisherName();
+}
@@ -0,0 +1,10 @@
+package com.khomsi.backend.main.game.model.dto;
+
+// One game to tag/genre/platform link for the facet index
+public interface FacetLinkRow {
+    Long getGameId();
+
+    Long getValueId();
+
+    String getValueName();
+}
@@ -0,0 +1,7 @@
+package com.khomsi.backend.main.game.model.dto;
+
+import java.util.List;
+
+// Ids of the requested page in display order, the total and the facet counts of the whole match
+public record FacetSearchResult(List<Long> gameIds, long totalItems, GameFacets facets) {
+}
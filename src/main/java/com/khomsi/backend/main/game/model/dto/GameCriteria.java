@@ -28,4 +28,12 @@ public class GameCriteria {
     String developers;
     String publishers;
     String[] sort = {"id,desc"};
+    // Keyset mode: empty for the first page, then nextCursor of the previous one; page is ignored
+    String cursor;
+    // Total count is skipped in keyset mode unless asked for
+    boolean withTotal;
+
+    public boolean isKeysetMode() {
+        return cursor != null;
+    }
 }
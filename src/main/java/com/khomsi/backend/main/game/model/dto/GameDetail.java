@@ -0,0 +1,38 @@
+package com.khomsi.backend.main.game.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.khomsi.backend.additional.developer.model.entity.Developer;
+import com.khomsi.backend.additional.genre.model.entity.Genre;
+import com.khomsi.backend.additional.media.model.entity.GameMedia;
+import com.khomsi.backend.additional.platform.model.entity.Platform;
+import com.khomsi.backend.additional.publisher.model.entity.Publisher;
+import com.khomsi.backend.additional.tag.model.entity.Tag;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+// Fully assembled game page, serialized with the same fields as Game and cached per game id
+@Builder
+public record GameDetail(
+        Long id,
+        String title,
+        String description,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+        LocalDate releaseDate,
+        Boolean active,
+        String systemRequirements,
+        String aboutGame,
+        BigDecimal price,
+        String coverImageUrl,
+        BigDecimal discount,
+        String permitAge,
+        Publisher publisher,
+        Developer developer,
+        Set<Tag> tags,
+        Set<Genre> genres,
+        Set<Platform> platforms,
+        GameMedia gameMedia
+) {
+}
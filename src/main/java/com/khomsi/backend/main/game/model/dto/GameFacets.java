@@ -0,0 +1,16 @@
+package com.khomsi.backend.main.game.model.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+// Matching games per filter value; a dimension is counted without its own filter, tags are counted as narrowing
+@Builder
+public record GameFacets(
+        List<FacetCount> tags,
+        List<FacetCount> genres,
+        List<FacetCount> platforms,
+        List<FacetCount> developers,
+        List<FacetCount> publishers
+) {
+}
@@ -7,7 +7,7 @@ import java.util.List;
 
 
 @Builder
-public record GeneralGame(List<ShortGameModel> games, long totalItems, int totalPages, int currentPage,
-                          BigDecimal maxPrice) {
+public record GeneralGame(List<ShortGameModel> games, Long totalItems, Integer totalPages, int currentPage,
+                          BigDecimal maxPrice, String nextCursor, GameFacets facets) {
 }
 
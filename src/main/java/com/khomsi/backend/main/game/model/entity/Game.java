@@ -8,6 +8,7 @@ import com.khomsi.backend.additional.genre.model.entity.Genre;
 import com.khomsi.backend.additional.media.model.entity.GameMedia;
 import com.khomsi.backend.additional.platform.model.entity.Platform;
 import com.khomsi.backend.additional.publisher.model.entity.Publisher;
+import com.khomsi.backend.additional.review.model.entity.GameRatingStats;
 import com.khomsi.backend.additional.review.model.entity.Review;
 import com.khomsi.backend.additional.tag.model.entity.Tag;
 import com.khomsi.backend.additional.wishlist.model.entity.Wishlist;
@@ -17,6 +18,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -70,6 +74,13 @@ public class Game {
     @Column(name = "discount", nullable = false, precision = 10, scale = 2)
     private BigDecimal discount;
 
+    // Price after discount, a stored column generated by the db from price and discount
+    @JsonIgnore
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "effective_price", precision = 10, scale = 2, insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private BigDecimal effectivePrice;
+
     @NotNull
     @Column(name = "permit_age", nullable = false)
     private String permitAge;
@@ -89,6 +100,7 @@ public class Game {
             joinColumns = @JoinColumn(name = "games_id")
             , inverseJoinColumns = @JoinColumn(name = "tags_id"))
     @ToString.Exclude
+    @BatchSize(size = 50)
     private Set<Tag> tags;
 
     @ManyToMany(cascade = {CascadeType.DETACH, CascadeType.MERGE,  CascadeType.REFRESH})
@@ -96,6 +108,7 @@ public class Game {
             joinColumns = @JoinColumn(name = "games_id")
             , inverseJoinColumns = @JoinColumn(name = "genres_id"))
     @ToString.Exclude
+    @BatchSize(size = 50)
     private Set<Genre> genres;
 
     @ManyToMany(cascade = {CascadeType.DETACH, CascadeType.MERGE,  CascadeType.REFRESH})
@@ -103,6 +116,7 @@ public class Game {
             joinColumns = @JoinColumn(name = "games_id")
             , inverseJoinColumns = @JoinColumn(name = "platforms_id"))
     @ToString.Exclude
+    @BatchSize(size = 50)
     private Set<Platform> platforms;
     @JsonIgnore
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "games", cascade = CascadeType.ALL)
@@ -121,6 +135,14 @@ public class Game {
     @ToString.Exclude
     private Set<UserGames> userHasGames;
 
+    // Review aggregate keyed by the game id, mapped only to sort the catalog by rating; missing until the first review
+    @JsonIgnore
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "game_id", referencedColumnName = "game_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private GameRatingStats ratingStats;
+
     @JsonIgnore
     @OneToMany(mappedBy = "games", cascade = CascadeType.ALL)
     @ToString.Exclude
@@ -131,6 +153,10 @@ public class Game {
     private Set<TransactionGames> transactionGames;
 
     public BigDecimal getPrice() {
+        if (effectivePrice != null) {
+            return effectivePrice;
+        }
+        // Not written yet or price/discount changed in this session
         if (discount == null || price == null) {
             return price;
         }
@@ -138,4 +164,14 @@ public class Game {
                 RoundingMode.HALF_UP));
         return price.multiply(discountMultiplier).setScale(2, RoundingMode.HALF_UP);
     }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+        this.effectivePrice = null;
+    }
+
+    public void setDiscount(BigDecimal discount) {
+        this.discount = discount;
+        this.effectivePrice = null;
+    }
 }
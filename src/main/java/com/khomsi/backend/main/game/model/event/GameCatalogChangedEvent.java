@@ -0,0 +1,12 @@
+package com.khomsi.backend.main.game.model.event;
+
+// Published by admin writes, gameId is null when the change is not bound to a single game
+public record GameCatalogChangedEvent(Long gameId) {
+    public static GameCatalogChangedEvent forGame(Long gameId) {
+        return new GameCatalogChangedEvent(gameId);
+    }
+
+    public static GameCatalogChangedEvent wholeCatalog() {
+        return new GameCatalogChangedEvent(null);
+    }
+}
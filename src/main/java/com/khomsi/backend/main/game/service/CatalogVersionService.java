@@ -0,0 +1,11 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.main.game.model.dto.CatalogVersion;
+
+public interface CatalogVersionService {
+    // Last visible catalog change, shared by all nodes, used as ETag and Last-Modified of the public endpoints
+    CatalogVersion current();
+
+    // Called directly when only the public lists change, e.g. a new tag, the games and their indexes stay as they are
+    void bump();
+}
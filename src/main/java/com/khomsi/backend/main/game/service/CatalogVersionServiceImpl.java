@@ -0,0 +1,90 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.main.game.model.dto.CatalogVersion;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * The catalog version lives in the single row of catalog_version, so every node hands out the same validators and a
+ * change made through one node invalidates the responses of all of them. Each node re-reads the row at most once per
+ * REFRESH_INTERVAL and picks up its own bumps immediately.
+ */
+@Service
+@Slf4j
+public class CatalogVersionServiceImpl implements CatalogVersionService {
+    // How long a node answers with the version it read last, bumps of other nodes are seen after at most this long
+    private static final long REFRESH_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private volatile Cached cached;
+
+    public CatalogVersionServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Bumps also run after the commit of a caller, a joined transaction would never be committed again
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public CatalogVersion current() {
+        Cached current = cached;
+        if (current != null && System.nanoTime() - current.readAt() < REFRESH_INTERVAL_NANOS) {
+            return current.version();
+        }
+        return refresh(current);
+    }
+
+    // The change time never moves backwards, even when the clocks of the nodes disagree
+    @Override
+    public void bump() {
+        try {
+            CatalogVersion next = newTransaction.execute(status -> {
+                jdbcTemplate.update("""
+                        UPDATE catalog_version SET version = version + 1, modified_at = GREATEST(modified_at, ?)
+                        WHERE id = 1
+                        """, System.currentTimeMillis());
+                return read();
+            });
+            cached = new Cached(next, System.nanoTime());
+            log.debug("Catalog version bumped to {}", next.version());
+        } catch (DataAccessException e) {
+            // Read again on the next request rather than keep validators that may already be stale
+            cached = null;
+            log.error("Failed to bump the catalog version", e);
+        }
+    }
+
+    // The in-memory indexes refresh in the background and bump again once they are done
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(GameCatalogChangedEvent event) {
+        bump();
+    }
+
+    private synchronized CatalogVersion refresh(Cached seen) {
+        Cached current = cached;
+        if (current != seen && current != null) {
+            return current.version();
+        }
+        CatalogVersion version = read();
+        cached = new Cached(version, System.nanoTime());
+        return version;
+    }
+
+    private CatalogVersion read() {
+        return jdbcTemplate.queryForObject("SELECT version, modified_at FROM catalog_version WHERE id = 1",
+                (rs, rowNum) -> new CatalogVersion(rs.getLong(1), rs.getLong(2)));
+    }
+
+    private record Cached(CatalogVersion version, long readAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.main.game.model.dto.CatalogGame;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface GameCatalogService {
+    //Random sample of active games taken from the in-memory snapshot
+    List<CatalogGame> getRandomGames(int qty);
+
+    // Random games other than the excluded ones, qty of them as long as the catalog has that many
+    List<CatalogGame> getRandomGames(int qty, Set<Long> excludedIds);
+
+    Optional<CatalogGame> findActiveGame(Long gameId);
+
+    int size();
+
+    //Schedule a background rebuild, multiple requests are coalesced into one
+    void requestRebuild();
+}
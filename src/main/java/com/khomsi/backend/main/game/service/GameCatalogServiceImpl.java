@@ -0,0 +1,144 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.additional.genre.model.entity.Genre;
+import com.khomsi.backend.main.game.GameRepository;
+import com.khomsi.backend.main.game.model.dto.CatalogGame;
+import com.khomsi.backend.main.game.model.entity.Game;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import com.khomsi.backend.main.utils.CoalescingTaskRunner;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class GameCatalogServiceImpl implements GameCatalogService {
+    private final GameRepository gameRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CatalogVersionService catalogVersionService;
+    private final CoalescingTaskRunner rebuildRunner = new CoalescingTaskRunner("game-catalog-rebuild", this::rebuild);
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public GameCatalogServiceImpl(GameRepository gameRepository, PlatformTransactionManager transactionManager,
+                                  CatalogVersionService catalogVersionService) {
+        this.gameRepository = gameRepository;
+        this.catalogVersionService = catalogVersionService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public List<CatalogGame> getRandomGames(int qty) {
+        CatalogGame[] games = snapshot.games();
+        int size = games.length;
+        if (qty >= size) {
+            List<CatalogGame> all = new ArrayList<>(Arrays.asList(games));
+            Collections.shuffle(all);
+            return all;
+        }
+        // Floyd's sampling: qty distinct indexes without touching the rest of the catalog
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Integer> picked = new LinkedHashSet<>(qty * 2);
+        for (int i = size - qty; i < size; i++) {
+            int candidate = random.nextInt(i + 1);
+            picked.add(picked.contains(candidate) ? i : candidate);
+        }
+        List<CatalogGame> result = new ArrayList<>(qty);
+        picked.forEach(index -> result.add(games[index]));
+        Collections.shuffle(result, random);
+        return result;
+    }
+
+    @Override
+    public List<CatalogGame> getRandomGames(int qty, Set<Long> excludedIds) {
+        if (excludedIds.isEmpty()) {
+            return getRandomGames(qty);
+        }
+        // The sample is distinct, drawing excludedIds.size() more leaves at least qty after the filter
+        return getRandomGames(qty + excludedIds.size()).stream()
+                .filter(game -> !excludedIds.contains(game.id()))
+                .limit(qty)
+                .toList();
+    }
+
+    @Override
+    public Optional<CatalogGame> findActiveGame(Long gameId) {
+        return Optional.ofNullable(snapshot.byId().get(gameId));
+    }
+
+    @Override
+    public int size() {
+        return snapshot.games().length;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(GameCatalogChangedEvent event) {
+        requestRebuild();
+    }
+
+    @Override
+    public void requestRebuild() {
+        rebuildRunner.request();
+    }
+
+    private void rebuild() {
+        try {
+            List<CatalogGame> games = readOnlyTransaction.execute(status ->
+                    gameRepository.findAllActiveGamesForCatalog().stream()
+                            .map(this::toCatalogGame)
+                            .toList());
+            snapshot = Snapshot.of(games == null ? List.of() : games);
+            catalogVersionService.bump();
+            log.info("Game catalog snapshot rebuilt with {} active games", snapshot.games().length);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild game catalog snapshot, keeping the previous one", e);
+        }
+    }
+
+    private CatalogGame toCatalogGame(Game game) {
+        // Detached copies so the snapshot never holds onto hibernate proxies or collections
+        Set<Genre> genres = game.getGenres() == null ? Set.of() : game.getGenres().stream()
+                .map(genre -> Genre.builder().id(genre.getId()).name(genre.getName()).build())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return CatalogGame.builder()
+                .id(game.getId())
+                .title(game.getTitle())
+                .description(game.getDescription())
+                .price(game.getPrice())
+                .discount(game.getDiscount())
+                .coverImageUrl(game.getCoverImageUrl())
+                .bannerUrl(game.getGameMedia() != null ? game.getGameMedia().getBannerUrl() : null)
+                .genres(Collections.unmodifiableSet(genres))
+                .limitedGenres(genres.stream().limit(2).collect(Collectors.toUnmodifiableSet()))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildRunner.close();
+    }
+
+    private record Snapshot(CatalogGame[] games, Map<Long, CatalogGame> byId) {
+        private static final Snapshot EMPTY = new Snapshot(new CatalogGame[0], Map.of());
+
+        private static Snapshot of(List<CatalogGame> games) {
+            Map<Long, CatalogGame> byId = new HashMap<>(games.size() * 2);
+            games.forEach(game -> byId.put(game.id(), game));
+            return new Snapshot(games.toArray(CatalogGame[]::new), Collections.unmodifiableMap(byId));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.main.game.model.dto.GameDetail;
+
+public interface GameDetailService {
+    GameDetail getActiveGameDetail(Long gameId);
+}
@@ -0,0 +1,52 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.main.game.GameRepository;
+import com.khomsi.backend.main.game.mapper.GameMapper;
+import com.khomsi.backend.main.game.model.dto.GameDetail;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import static com.khomsi.backend.config.CacheConfig.GAME_DETAILS;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GameDetailServiceImpl implements GameDetailService {
+    private final GameRepository gameRepository;
+    private final GameMapper gameMapper;
+    private final CacheManager cacheManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = GAME_DETAILS, sync = true)
+    public GameDetail getActiveGameDetail(Long gameId) {
+        return gameRepository.findByIdAndActiveTrue(gameId)
+                .map(gameMapper::toGameDetail)
+                .orElseThrow(() -> new GlobalServiceException(HttpStatus.NOT_FOUND,
+                        "Game with id " + gameId + " is not found."));
+    }
+
+    // Runs after the admin transaction commits, so a reader can't put the old state back in between
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(GameCatalogChangedEvent event) {
+        Cache cache = cacheManager.getCache(GAME_DETAILS);
+        if (cache == null) {
+            return;
+        }
+        if (event.gameId() == null) {
+            cache.clear();
+        } else {
+            cache.evict(event.gameId());
+        }
+        log.debug("Game details evicted for {}", event.gameId() == null ? "all games" : event.gameId());
+    }
+}
@@ -0,0 +1,12 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.main.game.model.dto.FacetSearchResult;
+import com.khomsi.backend.main.game.model.dto.GameCriteria;
+import org.springframework.data.domain.Sort;
+
+import java.util.Optional;
+
+public interface GameFacetIndex {
+    //Filters, sorts and pages the active catalog in memory; empty when the query has to go to the db
+    Optional<FacetSearchResult> search(GameCriteria gameCriteria, Sort sort);
+}
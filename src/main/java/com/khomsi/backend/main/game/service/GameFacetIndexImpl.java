@@ -0,0 +1,473 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.main.game.GameRepository;
+import com.khomsi.backend.main.game.model.dto.*;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import com.khomsi.backend.main.utils.CoalescingTaskRunner;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Faceted filtering of the active catalog. Every tag, genre, platform, developer and publisher has a bitset of
+ * the games it belongs to, so a combination of filters is an intersection of bitsets and the facet counts come
+ * from the same pass. Admin writes of a single game update its bits in place; taxonomy changes rebuild everything.
+ */
+@Service
+@Slf4j
+public class GameFacetIndexImpl implements GameFacetIndex {
+    private static final Set<String> SORTABLE = Set.of("id", "title", "effectivePrice", "discount", "releaseDate");
+    private static final Sort.Order BY_PRICE = Sort.Order.asc("effectivePrice");
+    // Removed games leave holes in the positions, past this share the index is rebuilt compact
+    private static final double MAX_REMOVED_SHARE = 0.25;
+
+    private final GameRepository gameRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CatalogVersionService catalogVersionService;
+    private final Set<Long> pendingGameIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingFullRebuild = new AtomicBoolean();
+    private final CoalescingTaskRunner updateRunner = new CoalescingTaskRunner("game-facet-index", this::applyChanges);
+    private volatile Index index;
+
+    public GameFacetIndexImpl(GameRepository gameRepository, PlatformTransactionManager transactionManager,
+                              CatalogVersionService catalogVersionService) {
+        this.gameRepository = gameRepository;
+        this.catalogVersionService = catalogVersionService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public Optional<FacetSearchResult> search(GameCriteria gameCriteria, Sort sort) {
+        Index current = index;
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.desc("id"));
+        if (current == null || !SORTABLE.contains(order.getProperty())) {
+            return Optional.empty();
+        }
+        return Optional.of(current.search(gameCriteria, order));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(GameCatalogChangedEvent event) {
+        if (event.gameId() == null) {
+            pendingFullRebuild.set(true);
+        } else {
+            pendingGameIds.add(event.gameId());
+        }
+        updateRunner.request();
+    }
+
+    private void applyChanges() {
+        Index current = index;
+        if (pendingFullRebuild.getAndSet(false) || current == null) {
+            pendingGameIds.clear();
+            rebuild();
+            return;
+        }
+        List<Long> gameIds = new ArrayList<>(pendingGameIds);
+        pendingGameIds.removeAll(gameIds);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> gameIds.forEach(gameId ->
+                    current.update(gameId, GameRows.load(gameRepository, gameId))));
+            log.debug("Facet index updated for games {}", gameIds);
+            catalogVersionService.bump();
+        } catch (RuntimeException e) {
+            log.error("Failed to update facet index for games {}, rebuilding it", gameIds, e);
+            rebuild();
+            return;
+        }
+        if (current.removedShare() > MAX_REMOVED_SHARE) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        try {
+            GameRows rows = readOnlyTransaction.execute(status -> GameRows.load(gameRepository, null));
+            Index rebuilt = new Index();
+            if (rows != null) {
+                rebuilt.addAll(rows);
+            }
+            index = rebuilt;
+            catalogVersionService.bump();
+            log.info("Facet index rebuilt with {} active games", rebuilt.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild facet index, keeping the previous one", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updateRunner.close();
+    }
+
+    private enum Dimension {
+        TAGS, GENRES, PLATFORMS, DEVELOPERS, PUBLISHERS
+    }
+
+    // Price in cents, so range filters and sorting compare longs
+    private record Entry(Long id, String title, long priceCents, BigDecimal discount,
+                         LocalDate releaseDate, Map<Dimension, long[]> valueIds) {
+    }
+
+    private static final class FacetValue {
+        private String name;
+        private String lowerName;
+        private final BitSet games = new BitSet();
+
+        private FacetValue(String name) {
+            rename(name);
+        }
+
+        private void rename(String name) {
+            this.name = name;
+            this.lowerName = name == null ? "" : name.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Rows of the active games plus their links, either the whole catalog or one game
+    private record GameRows(List<FacetGameRow> games, Map<Dimension, List<FacetLinkRow>> links) {
+        private static GameRows load(GameRepository gameRepository, Long gameId) {
+            Map<Dimension, List<FacetLinkRow>> links = new EnumMap<>(Dimension.class);
+            links.put(Dimension.TAGS, gameRepository.findFacetTags(gameId));
+            links.put(Dimension.GENRES, gameRepository.findFacetGenres(gameId));
+            links.put(Dimension.PLATFORMS, gameRepository.findFacetPlatforms(gameId));
+            return new GameRows(gameRepository.findFacetGames(gameId), links);
+        }
+    }
+
+    private static final class Index {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final List<Entry> entries = new ArrayList<>();
+        private final Map<Long, Integer> positions = new HashMap<>();
+        private final BitSet present = new BitSet();
+        private final Map<Dimension, Map<Long, FacetValue>> values = new EnumMap<>(Dimension.class);
+        // Positions in sort order, built on first use and dropped on every update
+        private final Map<Sort.Order, int[]> sortedPositions = new ConcurrentHashMap<>();
+        private int removed;
+
+        private Index() {
+            for (Dimension dimension : Dimension.values()) {
+                values.put(dimension, new HashMap<>());
+            }
+        }
+
+        private int size() {
+            return present.cardinality();
+        }
+
+        private double removedShare() {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                return entries.isEmpty() ? 0 : (double) removed / entries.size();
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        private void addAll(GameRows rows) {
+            Map<Long, Map<Dimension, List<FacetLinkRow>>> linksByGame = groupLinks(rows);
+            for (FacetGameRow game : rows.games()) {
+                put(game, linksByGame.getOrDefault(game.getId(), Map.of()));
+            }
+        }
+
+        private void update(Long gameId, GameRows rows) {
+            Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                sortedPositions.clear();
+                Integer position = positions.get(gameId);
+                if (position != null) {
+                    clear(position);
+                }
+                if (rows.games().isEmpty()) {
+                    // Deleted or hidden game
+                    if (position != null) {
+                        positions.remove(gameId);
+                        entries.set(position, null);
+                        removed++;
+                    }
+                    return;
+                }
+                put(rows.games().get(0), groupLinks(rows).getOrDefault(gameId, Map.of()));
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private void put(FacetGameRow game, Map<Dimension, List<FacetLinkRow>> links) {
+            Integer position = positions.get(game.getId());
+            if (position == null) {
+                position = entries.size();
+                entries.add(null);
+                positions.put(game.getId(), position);
+            }
+            Map<Dimension, long[]> valueIds = new EnumMap<>(Dimension.class);
+            for (Dimension dimension : List.of(Dimension.TAGS, Dimension.GENRES, Dimension.PLATFORMS)) {
+                List<FacetLinkRow> dimensionLinks = links.getOrDefault(dimension, List.of());
+                long[] ids = new long[dimensionLinks.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    FacetLinkRow link = dimensionLinks.get(i);
+                    ids[i] = link.getValueId();
+                    value(dimension, link.getValueId(), link.getValueName()).games.set(position);
+                }
+                valueIds.put(dimension, ids);
+            }
+            long developerId = game.getDeveloperId();
+            long publisherId = game.getPublisherId();
+            value(Dimension.DEVELOPERS, developerId, game.getDeveloperName()).games.set(position);
+            value(Dimension.PUBLISHERS, publisherId, game.getPublisherName()).games.set(position);
+            valueIds.put(Dimension.DEVELOPERS, new long[]{developerId});
+            valueIds.put(Dimension.PUBLISHERS, new long[]{publisherId});
+
+            String title = game.getTitle() == null ? "" : game.getTitle().toLowerCase(Locale.ROOT);
+            entries.set(position, new Entry(game.getId(), title, toCents(game.getPrice()), game.getDiscount(),
+                    game.getReleaseDate(), valueIds));
+            present.set(position);
+        }
+
+        private void clear(int position) {
+            Entry entry = entries.get(position);
+            present.clear(position);
+            if (entry == null) {
+                return;
+            }
+            entry.valueIds().forEach((dimension, ids) -> {
+                for (long id : ids) {
+                    FacetValue value = values.get(dimension).get(id);
+                    if (value != null) {
+                        value.games.clear(position);
+                    }
+                }
+            });
+        }
+
+        private FacetValue value(Dimension dimension, Long id, String name) {
+            FacetValue value = values.get(dimension).computeIfAbsent(id, key -> new FacetValue(name));
+            if (!Objects.equals(value.name, name)) {
+                value.rename(name);
+            }
+            return value;
+        }
+
+        private FacetSearchResult search(GameCriteria criteria, Sort.Order order) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                // Filters that are not facets narrow every count
+                BitSet common = (BitSet) present.clone();
+                if (criteria.getId() != null && !criteria.getId().isEmpty()) {
+                    BitSet byId = new BitSet();
+                    criteria.getId().forEach(id -> {
+                        Integer position = positions.get(id.longValue());
+                        if (position != null) {
+                            byId.set(position);
+                        }
+                    });
+                    common.and(byId);
+                }
+                String title = criteria.getTitle() == null ? null : criteria.getTitle().toLowerCase(Locale.ROOT);
+                if (criteria.getMaxPrice() != null) {
+                    common.and(priceAtMost(criteria.getMaxPrice()));
+                }
+                if (title != null) {
+                    for (int position = common.nextSetBit(0); position >= 0; position = common.nextSetBit(position + 1)) {
+                        if (!isSubsequence(title, entries.get(position).title())) {
+                            common.clear(position);
+                        }
+                    }
+                }
+
+                Map<Dimension, BitSet> filters = new EnumMap<>(Dimension.class);
+                if (criteria.getTags() != null && !criteria.getTags().isEmpty()) {
+                    filters.put(Dimension.TAGS, allOf(criteria.getTags()));
+                }
+                putNameFilter(filters, Dimension.GENRES, criteria.getGenres());
+                putNameFilter(filters, Dimension.PLATFORMS, criteria.getPlatforms());
+                putNameFilter(filters, Dimension.DEVELOPERS, criteria.getDevelopers());
+                putNameFilter(filters, Dimension.PUBLISHERS, criteria.getPublishers());
+
+                BitSet matched = (BitSet) common.clone();
+                filters.values().forEach(matched::and);
+
+                int size = criteria.getSize();
+                long skip = (long) criteria.getPage() * size;
+                List<Long> pageIds = new ArrayList<>(Math.min(size, 256));
+                for (int position : sorted(order)) {
+                    if (!matched.get(position)) {
+                        continue;
+                    }
+                    if (skip > 0) {
+                        skip--;
+                        continue;
+                    }
+                    pageIds.add(entries.get(position).id());
+                    if (pageIds.size() == size) {
+                        break;
+                    }
+                }
+
+                GameFacets facets = GameFacets.builder()
+                        // Tags are combined with AND, so their counts are within the current match
+                        .tags(count(Dimension.TAGS, matched))
+                        .genres(count(Dimension.GENRES, without(common, filters, Dimension.GENRES)))
+                        .platforms(count(Dimension.PLATFORMS, without(common, filters, Dimension.PLATFORMS)))
+                        .developers(count(Dimension.DEVELOPERS, without(common, filters, Dimension.DEVELOPERS)))
+                        .publishers(count(Dimension.PUBLISHERS, without(common, filters, Dimension.PUBLISHERS)))
+                        .build();
+                return new FacetSearchResult(pageIds, matched.cardinality(), facets);
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        private BitSet allOf(List<Integer> tagIds) {
+            BitSet result = null;
+            for (Integer tagId : tagIds) {
+                FacetValue value = values.get(Dimension.TAGS).get(tagId.longValue());
+                if (value == null) {
+                    return new BitSet();
+                }
+                if (result == null) {
+                    result = (BitSet) value.games.clone();
+                } else {
+                    result.and(value.games);
+                }
+            }
+            return result;
+        }
+
+        // Same semantics as the sql filter: case-insensitive substring of the name
+        private void putNameFilter(Map<Dimension, BitSet> filters, Dimension dimension, String name) {
+            if (name == null) {
+                return;
+            }
+            String term = name.toLowerCase(Locale.ROOT);
+            BitSet anyOf = new BitSet();
+            values.get(dimension).values().stream()
+                    .filter(value -> value.lowerName.contains(term))
+                    .forEach(value -> anyOf.or(value.games));
+            filters.put(dimension, anyOf);
+        }
+
+        private static BitSet without(BitSet common, Map<Dimension, BitSet> filters, Dimension excluded) {
+            BitSet base = (BitSet) common.clone();
+            filters.forEach((dimension, filter) -> {
+                if (dimension != excluded) {
+                    base.and(filter);
+                }
+            });
+            return base;
+        }
+
+        private List<FacetCount> count(Dimension dimension, BitSet base) {
+            Map<Long, Integer> counts = new HashMap<>();
+            for (int position = base.nextSetBit(0); position >= 0; position = base.nextSetBit(position + 1)) {
+                for (long id : entries.get(position).valueIds().get(dimension)) {
+                    counts.merge(id, 1, Integer::sum);
+                }
+            }
+            Map<Long, FacetValue> dimensionValues = values.get(dimension);
+            return counts.entrySet().stream()
+                    .map(count -> new FacetCount(count.getKey(), dimensionValues.get(count.getKey()).name,
+                            count.getValue()))
+                    .sorted(Comparator.comparingInt(FacetCount::count).reversed()
+                            .thenComparing(FacetCount::name, Comparator.nullsLast(String::compareTo)))
+                    .toList();
+        }
+
+        // Binary search in the games sorted by price, the matching prefix is the range
+        private BitSet priceAtMost(BigDecimal maxPrice) {
+            long limit = maxPrice.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue();
+            int[] byPrice = sorted(BY_PRICE);
+            int low = 0;
+            int high = byPrice.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (entries.get(byPrice[middle]).priceCents() <= limit) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            BitSet inRange = new BitSet();
+            for (int i = 0; i < low; i++) {
+                inRange.set(byPrice[i]);
+            }
+            return inRange;
+        }
+
+        private static long toCents(BigDecimal price) {
+            return price == null ? 0 : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+        }
+
+        private int[] sorted(Sort.Order order) {
+            return sortedPositions.computeIfAbsent(order, key -> {
+                Comparator<Entry> comparator = switch (key.getProperty()) {
+                    case "title" -> comparing(Entry::title);
+                    case "effectivePrice" -> Comparator.comparingLong(Entry::priceCents);
+                    case "discount" -> comparing(Entry::discount);
+                    case "releaseDate" -> comparing(Entry::releaseDate);
+                    default -> comparing(Entry::id);
+                };
+                if (key.isDescending()) {
+                    comparator = comparator.reversed();
+                }
+                Comparator<Entry> ordering = comparator.thenComparing(Entry::id);
+                return present.stream()
+                        .boxed()
+                        .sorted((left, right) -> ordering.compare(entries.get(left), entries.get(right)))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            });
+        }
+
+        // Nulls first ascending and last descending, as MySQL orders them
+        private static <T extends Comparable<? super T>> Comparator<Entry> comparing(Function<Entry, T> key) {
+            return Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()));
+        }
+
+        // The sql filter is LIKE '%t%i%t%l%e%', so every character in order with anything in between
+        private static boolean isSubsequence(String query, String title) {
+            int matched = 0;
+            for (int i = 0; i < title.length() && matched < query.length(); i++) {
+                if (title.charAt(i) == query.charAt(matched)) {
+                    matched++;
+                }
+            }
+            return matched == query.length();
+        }
+
+        private static Map<Long, Map<Dimension, List<FacetLinkRow>>> groupLinks(GameRows rows) {
+            Map<Long, Map<Dimension, List<FacetLinkRow>>> linksByGame = new HashMap<>();
+            rows.links().forEach((dimension, links) -> links.forEach(link ->
+                    linksByGame.computeIfAbsent(link.getGameId(), key -> new EnumMap<>(Dimension.class))
+                            .computeIfAbsent(dimension, key -> new ArrayList<>())
+                            .add(link)));
+            return linksByGame;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.khomsi.backend.main.game.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface GameSalesRankingService {
+    //Increment counters for games from a purchase completed at paidAt
+    void recordSales(Collection<Long> gameIds, LocalDateTime paidAt);
+
+    //Ids of the best-selling games, most sold first
+    List<Long> getTopSellingGameIds(int qty);
+
+    long getSales(Long gameId);
+
+    //Replace counters with the numbers stored in transaction_games
+    void reconcile();
+}
@@ -0,0 +1,165 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.main.checkout.model.dto.GameSalesCount;
+import com.khomsi.backend.main.checkout.repository.TransactionGamesRepository;
+import com.khomsi.backend.main.game.config.CatalogProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GameSalesRankingServiceImpl implements GameSalesRankingService {
+    private static final Comparator<Map.Entry<Long, Long>> BY_SALES = Map.Entry.<Long, Long>comparingByValue()
+            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+    // Orders paid this close to a reconcile may still be committing, they are kept from the recorded sales instead
+    private static final Duration SETTLE_MARGIN = Duration.ofMinutes(1);
+
+    private final TransactionGamesRepository transactionGamesRepository;
+    private final CatalogProperties catalogProperties;
+    private final CatalogVersionService catalogVersionService;
+    // Writers hold the monitor, readers take whatever map and ranking are current without locking
+    private volatile Map<Long, Long> salesByGame = new ConcurrentHashMap<>();
+    private volatile long[] topSellers = new long[0];
+    // Sales recorded since the cutoff of the last reconcile, carried over into the next snapshot
+    private final List<RecordedSale> recentSales = new ArrayList<>();
+
+    @Override
+    public synchronized void recordSales(Collection<Long> gameIds, LocalDateTime paidAt) {
+        if (gameIds == null || gameIds.isEmpty()) {
+            return;
+        }
+        recentSales.add(new RecordedSale(List.copyOf(gameIds), paidAt));
+        long[] ranking = topSellers;
+        for (Long gameId : gameIds) {
+            ranking = reposition(ranking, gameId, salesByGame.merge(gameId, 1L, Long::sum));
+        }
+        publish(ranking);
+    }
+
+    @Override
+    public List<Long> getTopSellingGameIds(int qty) {
+        long[] snapshot = topSellers;
+        int size = Math.min(qty, snapshot.length);
+        List<Long> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(snapshot[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public long getSales(Long gameId) {
+        return salesByGame.getOrDefault(gameId, 0L);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.catalog.sales-reconcile-interval:PT10M}",
+            initialDelayString = "${app.catalog.sales-reconcile-interval:PT10M}")
+    public void reconcile() {
+        try {
+            // Stored sales before the cutoff plus recorded sales from it on, so none is counted twice
+            LocalDateTime cutoff = LocalDateTime.now().minus(SETTLE_MARGIN);
+            List<GameSalesCount> persisted = transactionGamesRepository.countPaidSalesPerGame(cutoff);
+            swapIn(persisted, cutoff);
+            log.debug("Sales counters reconciled for {} games", persisted.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile sales counters", e);
+        }
+    }
+
+    private synchronized void swapIn(List<GameSalesCount> persisted, LocalDateTime cutoff) {
+        Map<Long, Long> sales = new ConcurrentHashMap<>(persisted.size() * 2);
+        persisted.forEach(count -> sales.put(count.getGameId(), count.getSales()));
+        recentSales.removeIf(sale -> sale.paidAt().isBefore(cutoff));
+        recentSales.forEach(sale -> sale.gameIds().forEach(gameId -> sales.merge(gameId, 1L, Long::sum)));
+        long[] ranking = rank(sales);
+        salesByGame = sales;
+        publish(ranking);
+    }
+
+    // A counter only grows between reconciles, so the game either keeps its place, moves up or enters the ranking
+    private long[] reposition(long[] ranking, long gameId, long sales) {
+        int limit = limit();
+        int current = indexOf(ranking, gameId);
+        if (current < 0 && ranking.length == limit && !ranksAbove(gameId, sales, ranking[limit - 1])) {
+            return ranking;
+        }
+        int target = current < 0 ? Math.min(ranking.length, limit - 1) : current;
+        while (target > 0 && ranksAbove(gameId, sales, ranking[target - 1])) {
+            target--;
+        }
+        if (target == current) {
+            return ranking;
+        }
+        long[] moved = current < 0 ? Arrays.copyOf(ranking, Math.min(ranking.length + 1, limit)) : ranking.clone();
+        int from = current < 0 ? moved.length - 1 : current;
+        System.arraycopy(moved, target, moved, target + 1, from - target);
+        moved[target] = gameId;
+        return moved;
+    }
+
+    // Min-heap of size K, cheapest entry on top gets evicted first
+    private long[] rank(Map<Long, Long> sales) {
+        int limit = limit();
+        PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(limit + 1, BY_SALES);
+        sales.forEach((gameId, count) -> {
+            if (count <= 0) {
+                return;
+            }
+            heap.offer(Map.entry(gameId, count));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        long[] ranking = new long[heap.size()];
+        for (int i = ranking.length - 1; i >= 0; i--) {
+            ranking[i] = heap.poll().getKey();
+        }
+        return ranking;
+    }
+
+    // More sales first, the lower id wins a tie
+    private boolean ranksAbove(long gameId, long sales, long other) {
+        long otherSales = salesByGame.getOrDefault(other, 0L);
+        return sales > otherSales || sales == otherSales && gameId < other;
+    }
+
+    // Only a new order changes what /popular returns, plain sales counts are not exposed
+    private void publish(long[] ranking) {
+        if (!Arrays.equals(ranking, topSellers)) {
+            topSellers = ranking;
+            catalogVersionService.bump();
+        }
+    }
+
+    private int limit() {
+        return Math.max(catalogProperties.getTopSellersSize(), 1);
+    }
+
+    private static int indexOf(long[] ranking, long gameId) {
+        for (int i = 0; i < ranking.length; i++) {
+            if (ranking[i] == gameId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record RecordedSale(List<Long> gameIds, LocalDateTime paidAt) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.khomsi.backend.main.game.service;
+
+import java.util.List;
+
+public interface GameSearchIndex {
+    //Ids of the best matching games, most relevant first
+    List<Long> search(String text, int qty, boolean activeOnly);
+
+    void requestRebuild();
+}
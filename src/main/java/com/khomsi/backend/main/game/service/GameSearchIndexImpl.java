@@ -0,0 +1,264 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.additional.tag.model.entity.Tag;
+import com.khomsi.backend.main.game.GameRepository;
+import com.khomsi.backend.main.game.model.entity.Game;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import com.khomsi.backend.main.utils.CoalescingTaskRunner;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory title index. Every title is normalized to lower-case letters and digits, a bitmap per character
+ * narrows the candidates for the subsequence ("h..a..l..o") match and a trigram bitmap over developer,
+ * publisher and tag names finds matches outside the title. Candidates are then ranked by how close the match is.
+ */
+@Service
+@Slf4j
+public class GameSearchIndexImpl implements GameSearchIndex {
+    private static final int EXACT = 1000;
+    private static final int PREFIX = 800;
+    private static final int WORD_PREFIX = 600;
+    private static final int SUBSTRING = 400;
+    private static final int SUBSEQUENCE = 200;
+    private static final int RELATED_FIELD = 100;
+
+    private final GameRepository gameRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CatalogVersionService catalogVersionService;
+    private final CoalescingTaskRunner rebuildRunner = new CoalescingTaskRunner("game-search-rebuild", this::rebuild);
+    private volatile Index index = Index.EMPTY;
+
+    public GameSearchIndexImpl(GameRepository gameRepository, PlatformTransactionManager transactionManager,
+                               CatalogVersionService catalogVersionService) {
+        this.gameRepository = gameRepository;
+        this.catalogVersionService = catalogVersionService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public List<Long> search(String text, int qty, boolean activeOnly) {
+        String query = compact(text);
+        if (query.isEmpty() || qty <= 0) {
+            return List.of();
+        }
+        Index current = index;
+        BitSet titleCandidates = current.titleCandidates(query);
+        BitSet relatedCandidates = current.relatedCandidates(query);
+        BitSet candidates = (BitSet) titleCandidates.clone();
+        candidates.or(relatedCandidates);
+        if (activeOnly) {
+            candidates.and(current.active());
+        }
+        // Keep only the best qty matches, the weakest one sits on top of the heap
+        PriorityQueue<Match> best = new PriorityQueue<>(Math.min(qty, 64) + 1, Match.ORDER.reversed());
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            int score = titleCandidates.get(doc) ? current.scoreTitle(doc, query) : 0;
+            if (score == 0 && relatedCandidates.get(doc) && current.related()[doc].contains(query)) {
+                score = RELATED_FIELD;
+            }
+            if (score == 0) {
+                continue;
+            }
+            best.offer(new Match(current.ids()[doc], score, current.titles()[doc].length()));
+            if (best.size() > qty) {
+                best.poll();
+            }
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(Match.ORDER);
+        return matches.stream().map(Match::gameId).toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(GameCatalogChangedEvent event) {
+        requestRebuild();
+    }
+
+    @Override
+    public void requestRebuild() {
+        rebuildRunner.request();
+    }
+
+    private void rebuild() {
+        try {
+            Index rebuilt = readOnlyTransaction.execute(status -> Index.of(gameRepository.findAllGamesForSearch()));
+            index = rebuilt == null ? Index.EMPTY : rebuilt;
+            catalogVersionService.bump();
+            log.info("Game search index rebuilt with {} games", index.ids().length);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild game search index, keeping the previous one", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildRunner.close();
+    }
+
+    // Lower-case letters and digits only, so "Half-Life 2" and "halflife2" are the same thing
+    private static String compact(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        text.toLowerCase(Locale.ROOT).codePoints()
+                .filter(Character::isLetterOrDigit)
+                .forEach(builder::appendCodePoint);
+        return builder.toString();
+    }
+
+    // Same as compact, but keeps a single space between words for the word-prefix check
+    private static String words(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.joining(" "));
+    }
+
+    private static Stream<String> trigrams(String text) {
+        if (text.length() < 3) {
+            return Stream.empty();
+        }
+        return Stream.iterate(0, i -> i <= text.length() - 3, i -> i + 1).map(i -> text.substring(i, i + 3));
+    }
+
+    private record Match(Long gameId, int score, int titleLength) {
+        // Best match first: higher score, then shorter title, then older game
+        private static final Comparator<Match> ORDER = Comparator.comparingInt(Match::score).reversed()
+                .thenComparingInt(Match::titleLength)
+                .thenComparing(Match::gameId);
+    }
+
+    private record Index(long[] ids, String[] titles, String[] titleWords, String[] related, BitSet active,
+                         Map<Integer, BitSet> titleChars, Map<String, BitSet> relatedTrigrams) {
+        private static final Index EMPTY = new Index(new long[0], new String[0], new String[0], new String[0],
+                new BitSet(), Map.of(), Map.of());
+
+        private static Index of(List<Game> games) {
+            int size = games.size();
+            long[] ids = new long[size];
+            String[] titles = new String[size];
+            String[] titleWords = new String[size];
+            String[] related = new String[size];
+            BitSet active = new BitSet(size);
+            Map<Integer, BitSet> titleChars = new HashMap<>();
+            Map<String, BitSet> relatedTrigrams = new HashMap<>();
+            for (int doc = 0; doc < size; doc++) {
+                Game game = games.get(doc);
+                ids[doc] = game.getId();
+                titles[doc] = compact(game.getTitle());
+                titleWords[doc] = words(game.getTitle());
+                related[doc] = relatedText(game);
+                active.set(doc, Boolean.TRUE.equals(game.getActive()));
+                int finalDoc = doc;
+                titles[doc].codePoints()
+                        .forEach(c -> titleChars.computeIfAbsent(c, key -> new BitSet(size)).set(finalDoc));
+                trigrams(related[doc])
+                        .forEach(gram -> relatedTrigrams.computeIfAbsent(gram, key -> new BitSet(size)).set(finalDoc));
+            }
+            return new Index(ids, titles, titleWords, related, active, titleChars, relatedTrigrams);
+        }
+
+        // Developer, publisher and tag names separated by a character that never survives compact()
+        private static String relatedText(Game game) {
+            Stream<String> names = Stream.concat(
+                    Stream.of(game.getDeveloper() != null ? game.getDeveloper().getName() : null,
+                            game.getPublisher() != null ? game.getPublisher().getName() : null),
+                    game.getTags() == null ? Stream.empty() : game.getTags().stream().map(Tag::getName));
+            return names.filter(Objects::nonNull)
+                    .map(GameSearchIndexImpl::compact)
+                    .collect(Collectors.joining("|"));
+        }
+
+        // Titles that contain every character of the query
+        private BitSet titleCandidates(String query) {
+            BitSet result = null;
+            for (int c : query.codePoints().distinct().toArray()) {
+                BitSet docs = titleChars.get(c);
+                if (docs == null) {
+                    return new BitSet();
+                }
+                if (result == null) {
+                    result = (BitSet) docs.clone();
+                } else {
+                    result.and(docs);
+                }
+            }
+            return result == null ? new BitSet() : result;
+        }
+
+        // Related names that contain every trigram of the query, short queries are matched on titles only
+        private BitSet relatedCandidates(String query) {
+            BitSet result = null;
+            for (String gram : trigrams(query).distinct().toList()) {
+                BitSet docs = relatedTrigrams.get(gram);
+                if (docs == null) {
+                    return new BitSet();
+                }
+                if (result == null) {
+                    result = (BitSet) docs.clone();
+                } else {
+                    result.and(docs);
+                }
+            }
+            return result == null ? new BitSet() : result;
+        }
+
+        private int scoreTitle(int doc, String query) {
+            String title = titles[doc];
+            if (title.equals(query)) {
+                return EXACT;
+            }
+            if (title.startsWith(query)) {
+                return PREFIX;
+            }
+            if ((" " + titleWords[doc]).contains(" " + query)) {
+                return WORD_PREFIX;
+            }
+            if (title.contains(query)) {
+                return SUBSTRING;
+            }
+            return subsequenceScore(title, query);
+        }
+
+        // Subsequence match, the more characters between the matched ones the lower the score
+        private static int subsequenceScore(String title, String query) {
+            int first = -1;
+            int position = -1;
+            int matched = 0;
+            for (int i = 0; i < title.length() && matched < query.length(); i++) {
+                if (title.charAt(i) == query.charAt(matched)) {
+                    if (first < 0) {
+                        first = i;
+                    }
+                    position = i;
+                    matched++;
+                }
+            }
+            if (matched < query.length()) {
+                return 0;
+            }
+            int gaps = (position - first + 1) - query.length();
+            return Math.max(SUBSEQUENCE - gaps, 1);
+        }
+    }
+}
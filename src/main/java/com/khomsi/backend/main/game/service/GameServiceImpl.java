@@ -6,7 +6,10 @@ import com.khomsi.backend.main.game.mapper.GameMapper;
 import com.khomsi.backend.main.game.model.dto.*;
 import com.khomsi.backend.main.game.model.entity.Game;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import com.khomsi.backend.main.user.model.dto.OwnedGameIds;
 import com.khomsi.backend.main.user.service.UserInfoService;
+import com.khomsi.backend.main.utils.KeysetPage;
+import com.khomsi.backend.main.utils.KeysetPagination;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -18,10 +21,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.khomsi.backend.main.utils.Utils.createSorting;
 
@@ -29,8 +38,14 @@ import static com.khomsi.backend.main.utils.Utils.createSorting;
 @Slf4j
 @AllArgsConstructor
 public class GameServiceImpl implements GameService {
+    private static final int MAX_GENRES_WITH_EXCLUDED = 3;
     private final GameRepository gameRepository;
     private final GameMapper gameMapper;
+    private final GameCatalogService gameCatalogService;
+    private final GameSalesRankingService gameSalesRankingService;
+    private final GameSearchIndex gameSearchIndex;
+    private final GameDetailService gameDetailService;
+    private final GameFacetIndex gameFacetIndex;
     private final UserInfoService userInfoService;
 
     //TODO Write integration tests with cucumber for this endpoint
@@ -38,8 +53,104 @@ public class GameServiceImpl implements GameService {
     public GeneralGame getExtendedGamesByPage(GameCriteria gameCriteria, boolean applyActiveFilter) {
         int page = gameCriteria.getPage();
 
-        Sort sorting = createSorting(gameCriteria.getSort(), "id");
+        Sort sorting = toEntitySort(createSorting(gameCriteria.getSort(), "id"));
+        Specification<Game> specification = buildSpecification(gameCriteria, applyActiveFilter);
+        if (gameCriteria.isKeysetMode()) {
+            return getGamesBySeek(gameCriteria, specification, sorting);
+        }
+        if (applyActiveFilter) {
+            Optional<FacetSearchResult> facetResult = gameFacetIndex.search(gameCriteria, sorting);
+            if (facetResult.isPresent()) {
+                return getGamesFromFacetIndex(gameCriteria, facetResult.get());
+            }
+        }
         Pageable pagingSort = PageRequest.of(page, gameCriteria.getSize(), sorting);
+
+        Page<Game> gamePage = gameRepository.findAll(specification, pagingSort);
+        if (gamePage.isEmpty()) {
+            throw new GlobalServiceException(HttpStatus.NOT_FOUND, "Games are not found in the database.");
+        }
+        BigDecimal maxPrice = gameRepository.findMaxPrice();
+
+        OwnedGameIds ownedGameIds = resolveOwnedGames(gamePage.getContent());
+        List<ShortGameModel> shortGameModels = gamePage
+                .map(game -> gameMapper.toShortGame(game, ownedGameIds))
+                .getContent();
+
+        return GeneralGame.builder()
+                .games(shortGameModels)
+                .totalItems(gamePage.getTotalElements())
+                .totalPages(gamePage.getTotalPages() - 1)
+                .maxPrice(maxPrice)
+                .currentPage(page)
+                .build();
+    }
+
+    // Filtering and counting happened in memory, only the games of the page are loaded
+    private GeneralGame getGamesFromFacetIndex(GameCriteria gameCriteria, FacetSearchResult facetResult) {
+        if (facetResult.gameIds().isEmpty()) {
+            throw new GlobalServiceException(HttpStatus.NOT_FOUND, "Games are not found in the database.");
+        }
+        Map<Long, Game> gamesById = gameRepository.findAllByIdIn(facetResult.gameIds()).stream()
+                .collect(Collectors.toMap(Game::getId, Function.identity()));
+        List<Game> games = facetResult.gameIds().stream()
+                .map(gamesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        OwnedGameIds ownedGameIds = resolveOwnedGames(games);
+        List<ShortGameModel> shortGameModels = games.stream()
+                .map(game -> gameMapper.toShortGame(game, ownedGameIds))
+                .toList();
+        int size = gameCriteria.getSize();
+        return GeneralGame.builder()
+                .games(shortGameModels)
+                .totalItems(facetResult.totalItems())
+                .totalPages((int) ((facetResult.totalItems() + size - 1) / size) - 1)
+                .maxPrice(gameRepository.findMaxPrice())
+                .currentPage(gameCriteria.getPage())
+                .facets(facetResult.facets())
+                .build();
+    }
+
+    // Seeks after the cursor instead of OFFSET, the count runs only when the client asks for it
+    private GeneralGame getGamesBySeek(GameCriteria gameCriteria, Specification<Game> specification, Sort sorting) {
+        KeysetPage<Game> gamePage = KeysetPagination.findPage(gameRepository, specification, sorting, "id",
+                gameCriteria.getCursor(), gameCriteria.getSize(), "publisher", "developer", "gameMedia");
+        if (gamePage.content().isEmpty() && gameCriteria.getCursor().isBlank()) {
+            throw new GlobalServiceException(HttpStatus.NOT_FOUND, "Games are not found in the database.");
+        }
+        Long totalItems = gameCriteria.isWithTotal() ? gameRepository.count(specification) : null;
+
+        OwnedGameIds ownedGameIds = resolveOwnedGames(gamePage.content());
+        List<ShortGameModel> shortGameModels = gamePage.content().stream()
+                .map(game -> gameMapper.toShortGame(game, ownedGameIds))
+                .toList();
+
+        return GeneralGame.builder()
+                .games(shortGameModels)
+                .totalItems(totalItems)
+                .totalPages(totalItems == null ? null
+                        : (int) Math.max(0, (totalItems + gameCriteria.getSize() - 1) / gameCriteria.getSize() - 1))
+                .maxPrice(gameRepository.findMaxPrice())
+                .nextCursor(gamePage.nextCursor())
+                .build();
+    }
+
+    // Sorting by price means the price users see, which is the stored effective price;
+    // "rating" is the top rated ordering, games with more reviews first among equal averages
+    private static Sort toEntitySort(Sort sort) {
+        return Sort.by(sort.stream()
+                .flatMap(order -> switch (order.getProperty()) {
+                    case "price" -> Stream.of(order.withProperty("effectivePrice"));
+                    case "rating" -> Stream.of(order.withProperty("ratingStats.averageRating"),
+                            order.withProperty("ratingStats.reviewCount"));
+                    default -> Stream.of(order);
+                })
+                .toList());
+    }
+
+    private Specification<Game> buildSpecification(GameCriteria gameCriteria, boolean applyActiveFilter) {
         Specification<Game> specification = Specification.where(null);
         String transformedWord = (gameCriteria.getTitle() != null) ? transformWord(gameCriteria.getTitle()) : "";
         specification = specification.and(GameSpecifications.byIdList(gameCriteria.getId()));
@@ -59,63 +170,36 @@ public class GameServiceImpl implements GameService {
             specification = specification.and((root, query, criteriaBuilder)
                     -> criteriaBuilder.isTrue(root.get("active")));
         }
-
-        Page<Game> gamePage = gameRepository.findAll(specification, pagingSort);
-        if (gamePage.isEmpty()) {
-            throw new GlobalServiceException(HttpStatus.NOT_FOUND, "Games are not found in the database.");
-        }
-        BigDecimal maxPrice = gameRepository.findMaxPrice();
-
-        List<ShortGameModel> shortGameModels = gamePage
-                .map(game -> {
-                    boolean ownedByCurrentUser = userInfoService.checkIfGameIsOwnedByCurrentUser(game);
-                    return gameMapper.toShortGame(game, ownedByCurrentUser);
-                }).getContent();
-
-        return GeneralGame.builder()
-                .games(shortGameModels)
-                .totalItems(gamePage.getTotalElements())
-                .totalPages(gamePage.getTotalPages() - 1)
-                .maxPrice(maxPrice)
-                .currentPage(page)
-                .build();
+        return specification;
     }
 
     @Override
     public List<GameModelWithGenreLimit> getGamesByGenre(int qty, String excludedGenre) {
-        return gameRepository.findGamesByGenre(excludedGenre).stream()
-                .filter(game -> {
-                    Set<Genre> genres = game.getGenres();
-                    if (genres.size() > 2) {
-                        genres.removeIf(genre -> genre.getName().equals(excludedGenre));
-                    }
-                    return genres.size() <= 2;
-                })
-                .limit(qty)
-                .map(game -> {
-                    boolean ownedByCurrentUser = userInfoService.checkIfGameIsOwnedByCurrentUser(game);
-                    return gameMapper.toLimitGenreGame(game, ownedByCurrentUser);
-                }).toList();
+        // A game with three genres is still shown, the requested genre is hidden from its list then
+        List<Game> games = gameRepository.findGamesByGenre(excludedGenre, MAX_GENRES_WITH_EXCLUDED,
+                PageRequest.of(0, qty));
+        OwnedGameIds ownedGameIds = resolveOwnedGames(games);
+        return games.stream()
+                .map(game -> gameMapper.toLimitGenreGame(game, visibleGenres(game, excludedGenre), ownedGameIds))
+                .toList();
     }
 
     @Override
     public List<PopularGameModel> getPopularQtyOfGames(int gameQuantity) {
-        List<PopularGameModel> shortGameModels = gameRepository.findAll().stream()
-                .map(game -> {
-                    boolean ownedByCurrentUser = userInfoService.checkIfGameIsOwnedByCurrentUser(game);
-                    return gameMapper.toPopularGame(game, ownedByCurrentUser);
-                }).toList();
-        return getRandomGames(shortGameModels, gameQuantity);
+        List<CatalogGame> games = getBestSellingGames(gameQuantity);
+        OwnedGameIds ownedGameIds = resolveOwnedCatalogGames(games);
+        return games.stream()
+                .map(game -> gameMapper.toPopularGame(game, ownedGameIds))
+                .toList();
     }
 
     @Override
     public List<GameModelWithGenreLimit> getRandomQtyOfGames(int gameQuantity) {
-        List<GameModelWithGenreLimit> shortGameModels = gameRepository.findAll().stream()
-                .map(game -> {
-                    boolean ownedByCurrentUser = userInfoService.checkIfGameIsOwnedByCurrentUser(game);
-                    return gameMapper.toLimitGenreGame(game, ownedByCurrentUser);
-                }).toList();
-        return getRandomGames(shortGameModels, gameQuantity);
+        List<CatalogGame> games = gameCatalogService.getRandomGames(gameQuantity);
+        OwnedGameIds ownedGameIds = resolveOwnedCatalogGames(games);
+        return games.stream()
+                .map(game -> gameMapper.toLimitGenreGame(game, ownedGameIds))
+                .toList();
     }
 
     @Override
@@ -132,37 +216,38 @@ public class GameServiceImpl implements GameService {
 
     @Override
     public ExtendedGame getExtendedGameById(Long gameId) {
-        Game game = getActiveGameById(gameId);
-        return new ExtendedGame(getActiveGameById(gameId), userInfoService.checkIfGameIsOwnedByCurrentUser(game));
+        // The detail is shared by every user, only the ownership flag is resolved per request
+        GameDetail game = gameDetailService.getActiveGameDetail(gameId);
+        return new ExtendedGame(game, userInfoService.getOwnedGameIds(List.of(gameId)).contains(gameId));
     }
 
     @Override
     public List<PopularGameModel> getSpecialOffers(String query, int qty) {
+        if ("sales".equals(query)) {
+            return getPopularQtyOfGames(qty);
+        }
         //TODO refactor the method in future
+        Pageable topGames = PageRequest.of(0, qty);
         List<Game> games = switch (query) {
-            case "release date" -> gameRepository.findGamesByEarliestReleaseDate();
-            case "discount" -> gameRepository.findGamesWithDiscount();
-            //TODO no metrics yet to use it not as a random
-            case "sales" -> getRandomGames(gameRepository.findAll(), qty);
+            case "release date" -> gameRepository.findGamesByEarliestReleaseDate(topGames);
+            case "discount" -> gameRepository.findGamesWithDiscount(topGames);
             default -> throw new GlobalServiceException(HttpStatus.NOT_FOUND, "Games are not found in database.");
         };
+        OwnedGameIds ownedGameIds = resolveOwnedGames(games);
         return games.stream()
-                .map(game -> {
-                    boolean ownedByCurrentUser = userInfoService.checkIfGameIsOwnedByCurrentUser(game);
-                    return gameMapper.toPopularGame(game, ownedByCurrentUser);
-                })
-                .limit(qty)
+                .map(game -> gameMapper.toPopularGame(game, ownedGameIds))
                 .toList();
     }
 
     @Override
     public List<GameModelWithGenreLimit> searchGamesByTitle(String text, int qty) {
-        return gameRepository.findSimilarTitles(transformWord(text)).stream()
-                .map(game -> {
-                    boolean ownedByCurrentUser = userInfoService.checkIfGameIsOwnedByCurrentUser(game);
-                    return gameMapper.toLimitGenreGame(game, ownedByCurrentUser);
-                })
-                .limit(qty)
+        List<CatalogGame> games = gameSearchIndex.search(text, qty, true).stream()
+                .map(gameCatalogService::findActiveGame)
+                .flatMap(Optional::stream)
+                .toList();
+        OwnedGameIds ownedGameIds = resolveOwnedCatalogGames(games);
+        return games.stream()
+                .map(game -> gameMapper.toLimitGenreGame(game, ownedGameIds))
                 .toList();
     }
 
@@ -173,11 +258,37 @@ public class GameServiceImpl implements GameService {
                 .collect(Collectors.joining("%", "", "%"));
     }
 
-    private <T> List<T> getRandomGames(List<T> gameModels, int gameQuantity) {
-        return (gameModels.size() <= gameQuantity) ? gameModels :
-                new Random().ints(0, gameModels.size())
-                        .distinct()
-                        .limit(gameQuantity)
-                        .mapToObj(gameModels::get).toList();
+    private Set<Genre> visibleGenres(Game game, String excludedGenre) {
+        Set<Genre> genres = game.getGenres();
+        if (genres.size() <= 2) {
+            return genres;
+        }
+        return genres.stream()
+                .filter(genre -> !genre.getName().equals(excludedGenre))
+                .collect(Collectors.toSet());
+    }
+
+    // Best-sellers from the sales ranking, topped up with random games while there are not enough sales yet
+    private List<CatalogGame> getBestSellingGames(int qty) {
+        List<CatalogGame> games = new ArrayList<>();
+        Set<Long> pickedIds = new HashSet<>();
+        for (Long gameId : gameSalesRankingService.getTopSellingGameIds(qty)) {
+            gameCatalogService.findActiveGame(gameId).ifPresent(game -> {
+                games.add(game);
+                pickedIds.add(game.id());
+            });
+        }
+        if (games.size() < qty) {
+            games.addAll(gameCatalogService.getRandomGames(qty - games.size(), pickedIds));
+        }
+        return games;
+    }
+
+    private OwnedGameIds resolveOwnedGames(List<Game> games) {
+        return userInfoService.getOwnedGameIds(games.stream().map(Game::getId).toList());
+    }
+
+    private OwnedGameIds resolveOwnedCatalogGames(List<CatalogGame> games) {
+        return userInfoService.getOwnedGameIds(games.stream().map(CatalogGame::id).toList());
     }
 }
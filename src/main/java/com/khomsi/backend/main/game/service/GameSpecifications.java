@@ -28,7 +28,7 @@ public interface GameSpecifications {
     static Specification<Game> byMaxPrice(BigDecimal maxPrice) {
         return (root, query, criteriaBuilder) ->
                 maxPrice != null ?
-                        criteriaBuilder.lessThanOrEqualTo(root.get("price"), maxPrice) :
+                        criteriaBuilder.lessThanOrEqualTo(root.get("effectivePrice"), maxPrice) :
                         criteriaBuilder.conjunction();
     }
 
@@ -0,0 +1,28 @@
+package com.khomsi.backend.main.game.service;
+
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import static com.khomsi.backend.config.CacheConfig.MAX_PRICE;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class MaxPriceCacheEvictor {
+    private final CacheManager cacheManager;
+
+    // After the admin transaction commits, a reader in between would cache the old max price until the ttl
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(GameCatalogChangedEvent event) {
+        Cache cache = cacheManager.getCache(MAX_PRICE);
+        if (cache != null) {
+            cache.clear();
+            log.debug("Max price evicted after a change of {}", event.gameId() == null ? "the catalog" : event.gameId());
+        }
+    }
+}
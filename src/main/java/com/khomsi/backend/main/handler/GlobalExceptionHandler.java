@@ -2,6 +2,8 @@ package com.khomsi.backend.main.handler;
 
 import com.khomsi.backend.main.handler.dto.ErrorMessageResponse;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +11,7 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -16,6 +19,9 @@ import java.util.Map;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23000";
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
     @ExceptionHandler(GlobalServiceException.class)
     public ResponseEntity<?> handleResponseStatusException(
             GlobalServiceException e
@@ -28,6 +34,31 @@ public class GlobalExceptionHandler {
         return createExceptionResponse(e, HttpStatus.BAD_REQUEST);
     }
 
+    // Unique indexes reject the second of two concurrent inserts, the message would leak sql otherwise
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<?> handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        if (!isDuplicateKey(e)) {
+            // Foreign key, not null and truncation errors are not conflicts, rethrown they end up as before
+            throw e;
+        }
+        return createDefaultErrorResponse(new GlobalServiceException(HttpStatus.CONFLICT,
+                "The entry already exists."));
+    }
+
+    // Hibernate reports MySQL duplicate entries as a plain DataIntegrityViolationException, the driver code tells
+    private static boolean isDuplicateKey(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return INTEGRITY_CONSTRAINT_VIOLATION.equals(sqlException.getSQLState())
+                        && sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY;
+            }
+        }
+        return false;
+    }
+
     private ResponseEntity<?> createExceptionResponse(RuntimeException e, HttpStatus httpStatus) {
         String errorMessage = e.getMessage();
         Map<String, Object> responseBody = new LinkedHashMap<>();
@@ -41,6 +41,10 @@ public class WebSecurityConfiguration {
                                 "/chat", "/chat/**"
                         ).permitAll()
 
+                        // 健康检查允许匿名访问，其余监控端点仅限管理员。
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAnyRole(Role.ADMIN.name())
+
                         // 管理员接口需要 ADMIN 角色。
                         .requestMatchers("/api/v1/admin/**", "/api/v1/admin")
                         .hasAnyRole(Role.ADMIN.name())
@@ -2,7 +2,6 @@ package com.khomsi.backend.main.user.controller;
 
 import com.khomsi.backend.main.user.model.dto.BalanceUserInfoDTO;
 import com.khomsi.backend.main.user.model.dto.FullUserInfoDTO;
-import com.khomsi.backend.main.user.model.dto.UserShortGamesDTO;
 import com.khomsi.backend.main.user.service.UserGamesService;
 import com.khomsi.backend.main.user.service.UserInfoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,14 +9,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static com.khomsi.backend.config.ApplicationConfig.BEARER_KEY_SECURITY_SCHEME;
 
@@ -50,7 +49,7 @@ public class UserController {
     @Operation(security = {@SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME)},
             summary = "Get user's games")
     @ResponseStatus(HttpStatus.OK)
-    public List<UserShortGamesDTO> showUserGames() {
+    public ResponseEntity<StreamingResponseBody> showUserGames() {
         return userGamesService.getAllUserGames();
     }
 }
@@ -0,0 +1,48 @@
+package com.khomsi.backend.main.user.model.dto;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Ids of games the current user owns, resolved once per request and kept as a sorted primitive array,
+ * so the mappers can answer "is it owned" with a binary search and no boxing.
+ */
+public final class OwnedGameIds {
+    private static final OwnedGameIds EMPTY = new OwnedGameIds(new long[0]);
+
+    private final long[] ids;
+
+    private OwnedGameIds(long[] ids) {
+        this.ids = ids;
+    }
+
+    public static OwnedGameIds empty() {
+        return EMPTY;
+    }
+
+    public static OwnedGameIds of(Collection<Long> gameIds) {
+        if (gameIds == null || gameIds.isEmpty()) {
+            return EMPTY;
+        }
+        long[] ids = gameIds.stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        return new OwnedGameIds(ids);
+    }
+
+    public boolean contains(Long gameId) {
+        return gameId != null && Arrays.binarySearch(ids, gameId) >= 0;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+}
@@ -0,0 +1,29 @@
+package com.khomsi.backend.main.user.model.dto;
+
+import com.khomsi.backend.main.user.model.entity.UserInfo;
+import lombok.Builder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+// The authenticated user of the current request: db row plus the claims read from the token once
+@Builder
+public record ResolvedUser(
+        String externalId,
+        UserInfo userInfo,
+        String email,
+        String givenName,
+        String familyName,
+        String gender,
+        String birthdate
+) {
+    public static ResolvedUser of(Jwt jwt, UserInfo userInfo) {
+        return ResolvedUser.builder()
+                .externalId(jwt.getSubject())
+                .userInfo(userInfo)
+                .email(jwt.getClaimAsString("email"))
+                .givenName(jwt.getClaimAsString("given_name"))
+                .familyName(jwt.getClaimAsString("family_name"))
+                .gender(jwt.getClaimAsString("gender"))
+                .birthdate(jwt.getClaimAsString("birthdate"))
+                .build();
+    }
+}
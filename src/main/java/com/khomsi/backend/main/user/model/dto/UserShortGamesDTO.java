@@ -3,6 +3,7 @@ package com.khomsi.backend.main.user.model.dto;
 import com.khomsi.backend.main.game.model.dto.ShortGameModel;
 import lombok.Builder;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalTime;
 
@@ -12,4 +13,17 @@ public record UserShortGamesDTO(
         Instant purchaseDate,
         LocalTime playtime
 ) {
+    // Used by the library query, one row per owned game
+    public UserShortGamesDTO(Long gameId, String title, String description, BigDecimal price, BigDecimal discount,
+                             String coverImageUrl, Boolean active, Instant purchaseDate, LocalTime playtime) {
+        this(ShortGameModel.builder()
+                .id(gameId)
+                .title(title)
+                .description(description)
+                .coverImageUrl(coverImageUrl)
+                .price(price)
+                .discount(discount)
+                .active(active)
+                .build(), purchaseDate, playtime);
+    }
 }
@@ -0,0 +1,54 @@
+package com.khomsi.backend.main.user.model.entity;
+
+import com.khomsi.backend.main.user.model.enums.BalanceOperation;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// One change of a user's balance, rows are only ever inserted
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity
+@Table(name = "balance_ledger")
+public class BalanceLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "users_id", nullable = false)
+    private String userId;
+
+    // Positive for credits, negative for debits
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "balance_after", nullable = false, precision = 10, scale = 2)
+    private BigDecimal balanceAfter;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 32)
+    private BalanceOperation operation;
+
+    // Transaction id the change belongs to, if any
+    @Column(name = "reference")
+    private String reference;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public BalanceLedgerEntry(String userId, BigDecimal amount, BigDecimal balanceAfter,
+                              BalanceOperation operation, String reference) {
+        this.userId = userId;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.operation = operation;
+        this.reference = reference;
+        this.createdAt = Instant.now();
+    }
+}
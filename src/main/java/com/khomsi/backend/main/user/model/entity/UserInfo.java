@@ -33,11 +33,13 @@ public class UserInfo {
     @NotNull
     @Column(name = "email", nullable = false)
     private String email;
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "user")
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "user")
     @ToString.Exclude
     private List<Cart> carts;
 
+    // Written only by BalanceService with conditional updates, a save of a stale entity must not overwrite it
     @Min(0)
+    @Column(name = "balance", nullable = false, updatable = false)
     private BigDecimal balance;
 
     @OneToMany(mappedBy = "users")
@@ -49,5 +51,6 @@ public class UserInfo {
     private Set<UserGames> userGames = new LinkedHashSet<>();
 
     @OneToMany(mappedBy = "users")
+    @ToString.Exclude
     private Set<Review> reviews = new LinkedHashSet<>();
 }
@@ -0,0 +1,11 @@
+package com.khomsi.backend.main.user.model.enums;
+
+public enum BalanceOperation {
+    // Balance carried over when the ledger was introduced
+    OPENING_BALANCE,
+    PURCHASE,
+    RECHARGE,
+    ADMIN_ADJUSTMENT,
+    // Balance taken by an order that expired or went back to the cart unpaid, or a payment that arrived after that
+    REFUND
+}
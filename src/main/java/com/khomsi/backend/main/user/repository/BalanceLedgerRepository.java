@@ -0,0 +1,22 @@
+package com.khomsi.backend.main.user.repository;
+
+import com.khomsi.backend.main.user.model.entity.BalanceLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface BalanceLedgerRepository extends JpaRepository<BalanceLedgerEntry, Long> {
+    List<BalanceLedgerEntry> findAllByUserIdOrderByIdAsc(String userId);
+
+    @Query("SELECT COALESCE(SUM(l.amount), 0) FROM BalanceLedgerEntry l WHERE l.userId = :userId")
+    BigDecimal sumByUserId(@Param("userId") String userId);
+
+    @Query("""
+            SELECT COALESCE(SUM(l.amount), 0) FROM BalanceLedgerEntry l
+            WHERE l.userId = :userId AND l.reference = :reference
+            """)
+    BigDecimal sumByUserIdAndReference(@Param("userId") String userId, @Param("reference") String reference);
+}
@@ -0,0 +1,9 @@
+package com.khomsi.backend.main.user.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface UserGamesBatchRepository {
+    //Adds the games to the user's library as one JDBC batch, games the user already owns are kept as they are
+    void grantGames(String userId, Collection<Long> gameIds, Instant purchaseDate);
+}
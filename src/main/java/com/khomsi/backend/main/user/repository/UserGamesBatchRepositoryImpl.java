@@ -0,0 +1,36 @@
+package com.khomsi.backend.main.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.TimeZone;
+
+@RequiredArgsConstructor
+public class UserGamesBatchRepositoryImpl implements UserGamesBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void grantGames(String userId, Collection<Long> gameIds, Instant purchaseDate) {
+        if (gameIds.isEmpty()) {
+            return;
+        }
+        // Bound in UTC like Hibernate binds Instant attributes, so both paths store the same purchase date
+        Timestamp purchasedAt = Timestamp.from(purchaseDate);
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO user_has_games (users_id, games_id, purchase_date, playtime)
+                        VALUES (?, ?, ?, '00:00:00')
+                        ON DUPLICATE KEY UPDATE games_id = games_id
+                        """, gameIds, gameIds.size(),
+                (ps, gameId) -> {
+                    ps.setString(1, userId);
+                    ps.setLong(2, gameId);
+                    ps.setTimestamp(3, purchasedAt, utc);
+                });
+    }
+}
@@ -1,12 +1,40 @@
 package com.khomsi.backend.main.user.repository;
 
 
+import com.khomsi.backend.main.user.model.dto.UserShortGamesDTO;
 import com.khomsi.backend.main.user.model.entity.UserGames;
-import com.khomsi.backend.main.user.model.entity.UserInfo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
-public interface UserGamesRepository extends JpaRepository<UserGames, String> {
-    List<UserGames> findAllByUserOrderByPurchaseDateDesc(UserInfo userInfo);
+public interface UserGamesRepository extends JpaRepository<UserGames, String>, UserGamesBatchRepository {
+    // Flat rows, a game entity would load its eager publisher, developer and media for every owned game.
+    // Newest purchase first, games bought together by id, the page starts after the given purchase date and game
+    @Query("""
+            SELECT new com.khomsi.backend.main.user.model.dto.UserShortGamesDTO(
+                g.id, g.title, g.description, g.effectivePrice, g.discount, g.coverImageUrl, g.active,
+                ug.purchaseDate, ug.playtime)
+            FROM UserGames ug JOIN ug.game g
+            WHERE ug.user.externalId = :userId
+                AND (:afterDate IS NULL OR ug.purchaseDate < :afterDate
+                    OR ug.purchaseDate = :afterDate AND g.id < :afterGameId)
+            ORDER BY ug.purchaseDate DESC, g.id DESC
+            """)
+    List<UserShortGamesDTO> findLibraryPage(@Param("userId") String userId, @Param("afterDate") Instant afterDate,
+                                            @Param("afterGameId") Long afterGameId, Pageable pageable);
+
+    default List<UserShortGamesDTO> findLibraryPageAfter(String userId, UserShortGamesDTO last, Pageable pageable) {
+        return last == null ? findLibraryPage(userId, null, null, pageable)
+                : findLibraryPage(userId, last.purchaseDate(), last.game().id(), pageable);
+    }
+
+    @Query("SELECT ug.game.id FROM UserGames ug WHERE ug.user.externalId = :userId AND ug.game.id IN :gameIds")
+    List<Long> findOwnedGameIds(@Param("userId") String userId, @Param("gameIds") Collection<Long> gameIds);
+
+    boolean existsByUserExternalIdAndGameId(String userId, Long gameId);
 }
@@ -3,17 +3,55 @@ package com.khomsi.backend.main.user.repository;
 
 import com.khomsi.backend.main.user.model.entity.UserInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 
-public interface UserInfoRepository extends JpaRepository<UserInfo, Long> {
+public interface UserInfoRepository extends JpaRepository<UserInfo, Long>, JpaSpecificationExecutor<UserInfo> {
     UserInfo findUserInfoByExternalId(String externalId);
     Optional<UserInfo> findByUsername(String username);
     Optional<UserInfo> findByEmail(String email);
 
+    // Claims synced from the token, a missing username claim keeps the stored one
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE UserInfo u SET u.email = :email, u.username = COALESCE(:username, u.username)
+            WHERE u.externalId = :externalId
+            """)
+    int updateClaims(@Param("externalId") String externalId, @Param("email") String email,
+                     @Param("username") String username);
+
+    // 0 rows when the balance does not cover the amount, so concurrent debits can never overspend
+    @Modifying
+    @Query("""
+            UPDATE UserInfo u SET u.balance = u.balance - :amount
+            WHERE u.externalId = :userId AND u.balance >= :amount
+            """)
+    int debitBalance(@Param("userId") String userId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE UserInfo u SET u.balance = u.balance + :amount WHERE u.externalId = :userId")
+    int creditBalance(@Param("userId") String userId, @Param("amount") BigDecimal amount);
+
+    // Compare-and-set, 0 rows when the balance has changed since it was read
+    @Modifying
+    @Query("""
+            UPDATE UserInfo u SET u.balance = :newBalance
+            WHERE u.externalId = :userId AND u.balance = :expectedBalance
+            """)
+    int replaceBalance(@Param("userId") String userId, @Param("expectedBalance") BigDecimal expectedBalance,
+                       @Param("newBalance") BigDecimal newBalance);
+
+    @Query("SELECT u.balance FROM UserInfo u WHERE u.externalId = :userId")
+    BigDecimal findBalance(@Param("userId") String userId);
+
     @Query(nativeQuery = true, value = """
             SELECT COUNT(*) > 0 FROM user_has_games
             WHERE users_id = :userId AND games_id = :gameId
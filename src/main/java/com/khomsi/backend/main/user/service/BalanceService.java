@@ -0,0 +1,23 @@
+package com.khomsi.backend.main.user.service;
+
+import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.model.enums.BalanceOperation;
+
+import java.math.BigDecimal;
+
+/**
+ * The only writer of users.balance. Every change is one conditional UPDATE plus a balance_ledger row
+ * in the caller's transaction; the returned balance is the one just written, and the given entity is updated to it.
+ */
+public interface BalanceService {
+    //Fails with CONFLICT when the balance does not cover the amount
+    BigDecimal debit(UserInfo user, BigDecimal amount, BalanceOperation operation, String reference);
+
+    BigDecimal credit(UserInfo user, BigDecimal amount, BalanceOperation operation, String reference);
+
+    //Fails with CONFLICT when the balance changed after it was read
+    BigDecimal replace(UserInfo user, BigDecimal newBalance, BalanceOperation operation, String reference);
+
+    //Net amount taken from the balance under the reference, zero when nothing was debited or it was given back
+    BigDecimal getReserved(UserInfo user, String reference);
+}
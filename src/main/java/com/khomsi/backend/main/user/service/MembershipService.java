@@ -0,0 +1,12 @@
+package com.khomsi.backend.main.user.service;
+
+// Is a game in the user's library, reviews, wishlist or cart; each check is one unique index probe
+public interface MembershipService {
+    boolean ownsGame(String userId, Long gameId);
+
+    boolean hasReviewed(String userId, Long gameId);
+
+    boolean hasInWishlist(String userId, Long gameId);
+
+    boolean hasInCart(String userId, Long gameId);
+}
@@ -2,14 +2,13 @@ package com.khomsi.backend.main.user.service;
 
 import com.khomsi.backend.main.checkout.model.entity.Transaction;
 import com.khomsi.backend.main.game.model.entity.Game;
-import com.khomsi.backend.main.user.model.dto.UserShortGamesDTO;
 import com.khomsi.backend.main.user.model.entity.UserGames;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
-
-import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public interface UserGamesService {
-    List<UserShortGamesDTO> getAllUserGames();
+    ResponseEntity<StreamingResponseBody> getAllUserGames();
 
     void getGamesFromTransactionToLibrary(UserInfo user, Transaction transaction);
 
@@ -3,9 +3,12 @@ package com.khomsi.backend.main.user.service;
 import com.khomsi.backend.main.user.model.dto.BalanceUserInfoDTO;
 import com.khomsi.backend.main.game.model.entity.Game;
 import com.khomsi.backend.main.user.model.dto.FullUserInfoDTO;
+import com.khomsi.backend.main.user.model.dto.OwnedGameIds;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.util.Collection;
+
 public interface UserInfoService {
     FullUserInfoDTO getCurrentUser();
 
@@ -20,5 +23,8 @@ public interface UserInfoService {
 
     boolean checkIfGameIsOwnedByCurrentUser(Game game);
 
+    //Resolve ownership for a whole page of games with a single query
+    OwnedGameIds getOwnedGameIds(Collection<Long> gameIds);
+
     UserInfo getUserInfo();
 }
@@ -0,0 +1,81 @@
+package com.khomsi.backend.main.user.service.impl;
+
+import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import com.khomsi.backend.main.user.model.entity.BalanceLedgerEntry;
+import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.model.enums.BalanceOperation;
+import com.khomsi.backend.main.user.repository.BalanceLedgerRepository;
+import com.khomsi.backend.main.user.repository.UserInfoRepository;
+import com.khomsi.backend.main.user.service.BalanceService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+@Service
+@RequiredArgsConstructor
+public class BalanceServiceImpl implements BalanceService {
+    private final UserInfoRepository userInfoRepository;
+    private final BalanceLedgerRepository balanceLedgerRepository;
+
+    @Override
+    @Transactional
+    public BigDecimal debit(UserInfo user, BigDecimal amount, BalanceOperation operation, String reference) {
+        if (requirePositiveOrZero(amount).signum() == 0) {
+            return user.getBalance();
+        }
+        if (userInfoRepository.debitBalance(user.getExternalId(), amount) == 0) {
+            throw new GlobalServiceException(HttpStatus.CONFLICT, "Insufficient balance.");
+        }
+        return record(user, amount.negate(), operation, reference);
+    }
+
+    @Override
+    @Transactional
+    public BigDecimal credit(UserInfo user, BigDecimal amount, BalanceOperation operation, String reference) {
+        if (requirePositiveOrZero(amount).signum() == 0) {
+            return user.getBalance();
+        }
+        if (userInfoRepository.creditBalance(user.getExternalId(), amount) == 0) {
+            throw new GlobalServiceException(HttpStatus.NOT_FOUND, "User " + user.getExternalId() + " is not found.");
+        }
+        return record(user, amount, operation, reference);
+    }
+
+    @Override
+    @Transactional
+    public BigDecimal replace(UserInfo user, BigDecimal newBalance, BalanceOperation operation, String reference) {
+        requirePositiveOrZero(newBalance);
+        BigDecimal oldBalance = userInfoRepository.findBalance(user.getExternalId());
+        if (oldBalance == null) {
+            throw new GlobalServiceException(HttpStatus.NOT_FOUND, "User " + user.getExternalId() + " is not found.");
+        }
+        if (userInfoRepository.replaceBalance(user.getExternalId(), oldBalance, newBalance) == 0) {
+            throw new GlobalServiceException(HttpStatus.CONFLICT, "Balance was changed meanwhile, please retry.");
+        }
+        return record(user, newBalance.subtract(oldBalance), operation, reference);
+    }
+
+    @Override
+    public BigDecimal getReserved(UserInfo user, String reference) {
+        BigDecimal net = balanceLedgerRepository.sumByUserIdAndReference(user.getExternalId(), reference);
+        return net.signum() < 0 ? net.negate() : BigDecimal.ZERO;
+    }
+
+    // The balance is read back in the same transaction, so the ledger row holds exactly what this change produced
+    private BigDecimal record(UserInfo user, BigDecimal amount, BalanceOperation operation, String reference) {
+        BigDecimal balance = userInfoRepository.findBalance(user.getExternalId());
+        balanceLedgerRepository.save(new BalanceLedgerEntry(user.getExternalId(), amount, balance, operation, reference));
+        user.setBalance(balance);
+        return balance;
+    }
+
+    private static BigDecimal requirePositiveOrZero(BigDecimal amount) {
+        if (amount == null || amount.signum() < 0) {
+            throw new GlobalServiceException(HttpStatus.BAD_REQUEST, "Amount must not be negative.");
+        }
+        return amount;
+    }
+}
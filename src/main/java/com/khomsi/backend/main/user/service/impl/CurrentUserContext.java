@@ -0,0 +1,94 @@
+package com.khomsi.backend.main.user.service.impl;
+
+import com.khomsi.backend.main.user.model.dto.ResolvedUser;
+import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.repository.UserInfoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves the authenticated user once per request and keeps it in the request attributes.
+ * Outside of a request (schedulers, async listeners) every call goes to the database.
+ * <p>
+ * Lookups are counted in {@code user.lookups} and, per request, in {@code user.lookups.per.request},
+ * so a service that starts loading the user again shows up in the metrics.
+ */
+@Component
+@Slf4j
+public class CurrentUserContext {
+    private static final String USER_ATTRIBUTE = CurrentUserContext.class.getName() + ".user";
+    private static final String LOOKUPS_ATTRIBUTE = CurrentUserContext.class.getName() + ".lookups";
+
+    private final UserInfoRepository userRepository;
+    private final Counter lookups;
+    private final DistributionSummary lookupsPerRequest;
+
+    public CurrentUserContext(UserInfoRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.lookups = Counter.builder("user.lookups")
+                .description("Current user rows loaded from the database")
+                .register(meterRegistry);
+        this.lookupsPerRequest = DistributionSummary.builder("user.lookups.per.request")
+                .description("Current user rows loaded from the database within one request")
+                .register(meterRegistry);
+    }
+
+    public ResolvedUser resolve(Jwt jwt) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            UserInfo userInfo = load(jwt.getSubject());
+            return userInfo == null ? null : ResolvedUser.of(jwt, userInfo);
+        }
+        if (attributes.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof ResolvedUser user
+                && user.externalId().equals(jwt.getSubject())) {
+            return user;
+        }
+        UserInfo userInfo = load(jwt.getSubject());
+        if (userInfo == null) {
+            return null;
+        }
+        ResolvedUser user = ResolvedUser.of(jwt, userInfo);
+        attributes.setAttribute(USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+
+    // Called right after authentication, so the rest of the request never has to look the user up
+    void seed(Jwt jwt, UserInfo userInfo) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(USER_ATTRIBUTE, ResolvedUser.of(jwt, userInfo), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    UserInfo load(String externalId) {
+        lookups.increment();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            countRequestLookup(attributes);
+        }
+        return userRepository.findUserInfoByExternalId(externalId);
+    }
+
+    private void countRequestLookup(RequestAttributes attributes) {
+        if (attributes.getAttribute(LOOKUPS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AtomicInteger count) {
+            count.incrementAndGet();
+            return;
+        }
+        AtomicInteger count = new AtomicInteger(1);
+        attributes.setAttribute(LOOKUPS_ATTRIBUTE, count, RequestAttributes.SCOPE_REQUEST);
+        attributes.registerDestructionCallback(LOOKUPS_ATTRIBUTE, () -> {
+            lookupsPerRequest.record(count.get());
+            if (count.get() > 1) {
+                log.debug("Current user was loaded {} times within one request", count.get());
+            }
+        }, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,38 @@
+package com.khomsi.backend.main.user.service.impl;
+
+import com.khomsi.backend.additional.cart.CartRepository;
+import com.khomsi.backend.additional.review.ReviewRepository;
+import com.khomsi.backend.additional.wishlist.WishlistRepository;
+import com.khomsi.backend.main.user.repository.UserGamesRepository;
+import com.khomsi.backend.main.user.service.MembershipService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class MembershipServiceImpl implements MembershipService {
+    private final UserGamesRepository userGamesRepository;
+    private final ReviewRepository reviewRepository;
+    private final WishlistRepository wishlistRepository;
+    private final CartRepository cartRepository;
+
+    @Override
+    public boolean ownsGame(String userId, Long gameId) {
+        return userGamesRepository.existsByUserExternalIdAndGameId(userId, gameId);
+    }
+
+    @Override
+    public boolean hasReviewed(String userId, Long gameId) {
+        return reviewRepository.existsByUsersExternalIdAndGamesId(userId, gameId);
+    }
+
+    @Override
+    public boolean hasInWishlist(String userId, Long gameId) {
+        return wishlistRepository.existsByUsersExternalIdAndGamesId(userId, gameId);
+    }
+
+    @Override
+    public boolean hasInCart(String userId, Long gameId) {
+        return cartRepository.existsByUserExternalIdAndGamesId(userId, gameId);
+    }
+}
@@ -3,56 +3,57 @@ package com.khomsi.backend.main.user.service.impl;
 import com.khomsi.backend.main.checkout.model.entity.Transaction;
 import com.khomsi.backend.main.checkout.model.entity.TransactionGames;
 import com.khomsi.backend.main.game.model.entity.Game;
-import com.khomsi.backend.main.user.mapper.UserInfoMapper;
 import com.khomsi.backend.main.user.model.dto.UserShortGamesDTO;
 import com.khomsi.backend.main.user.model.entity.UserGames;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
 import com.khomsi.backend.main.user.repository.UserGamesRepository;
+import com.khomsi.backend.main.user.service.MembershipService;
 import com.khomsi.backend.main.user.service.UserGamesService;
 import com.khomsi.backend.main.user.service.UserInfoService;
+import com.khomsi.backend.main.utils.JsonArrayStreamer;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.time.LocalTime;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class UserGamesServiceImpl implements UserGamesService {
     private final UserGamesRepository userGamesRepository;
     private final UserInfoService userInfoService;
-    private final UserInfoMapper userInfoMapper;
+    private final MembershipService membershipService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @Override
-    public List<UserShortGamesDTO> getAllUserGames() {
+    public ResponseEntity<StreamingResponseBody> getAllUserGames() {
         //TODO in future add filter and sorting
-        UserInfo user = userInfoService.getUserInfo();
-        List<UserGames> userGames = userGamesRepository.findAllByUserOrderByPurchaseDateDesc(user);
-        return userGames.stream()
-                .map(userInfoMapper::toUserShortGame)
-                .collect(Collectors.toList());
+        // Resolved here, the body is written on another thread without the security context
+        String userId = userInfoService.getUserInfo().getExternalId();
+        return jsonArrayStreamer.stream((UserShortGamesDTO last, Pageable page) ->
+                userGamesRepository.findLibraryPageAfter(userId, last, page), Function.identity());
     }
 
     @Override
     @Transactional
     public void getGamesFromTransactionToLibrary(UserInfo user, Transaction transaction) {
-        Set<TransactionGames> transactionGamesList = transaction.getTransactionGames();
-        Set<UserGames> userGames = new LinkedHashSet<>();
-        transactionGamesList.forEach(transactionGames -> userGames.add(createUserGames(user, transactionGames.getGames())));
-        userGamesRepository.saveAll(userGames);
-        user.setUserGames(userGames);
+        // Only the ids are read, the lazy games are not initialized
+        List<Long> gameIds = transaction.getTransactionGames().stream()
+                .map(TransactionGames::getGames)
+                .map(Game::getId)
+                .toList();
+        userGamesRepository.grantGames(user.getExternalId(), gameIds, Instant.now());
     }
 
     @Override
     public Boolean checkIfGameExists(UserInfo userInfo, Game game) {
-        Set<UserGames> userGames = userInfo.getUserGames();
-        return userGames.stream()
-                .anyMatch(userGame -> userGame.getGame().equals(game));
+        return membershipService.ownsGame(userInfo.getExternalId(), game.getId());
     }
 
     @Override
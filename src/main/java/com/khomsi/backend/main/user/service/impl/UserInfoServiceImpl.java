@@ -4,8 +4,12 @@ import com.khomsi.backend.main.game.model.entity.Game;
 import com.khomsi.backend.main.handler.exception.GlobalServiceException;
 import com.khomsi.backend.main.user.model.dto.BalanceUserInfoDTO;
 import com.khomsi.backend.main.user.model.dto.FullUserInfoDTO;
+import com.khomsi.backend.main.user.model.dto.OwnedGameIds;
+import com.khomsi.backend.main.user.model.dto.ResolvedUser;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.repository.UserGamesRepository;
 import com.khomsi.backend.main.user.repository.UserInfoRepository;
+import com.khomsi.backend.main.user.service.MembershipService;
 import com.khomsi.backend.main.user.service.UserInfoService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +19,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.Objects;
 
 @Service
@@ -22,17 +27,19 @@ import java.util.Objects;
 @Slf4j
 public class UserInfoServiceImpl implements UserInfoService {
     private final UserInfoRepository userRepository;
+    private final UserGamesRepository userGamesRepository;
+    private final CurrentUserContext currentUserContext;
+    private final MembershipService membershipService;
 
     @Override
     public FullUserInfoDTO getCurrentUser() {
         try {
-            Jwt jwt = getJwt();
-            UserInfo existingUser = getExistingUser(jwt.getSubject());
+            ResolvedUser existingUser = currentUserContext.resolve(getJwt());
             if (existingUser == null) {
                 throw new GlobalServiceException(HttpStatus.BAD_REQUEST,
                         "User is empty in external database to view full profile.");
             }
-            return getUserInfo(existingUser, jwt);
+            return getUserInfo(existingUser);
         } catch (GlobalServiceException ignored) {
             return null;
         }
@@ -45,7 +52,8 @@ public class UserInfoServiceImpl implements UserInfoService {
             if (jwt == null) {
                 throw new GlobalServiceException(HttpStatus.UNAUTHORIZED, "User is not authenticated.");
             }
-            return getExistingUser(jwt.getSubject());
+            ResolvedUser user = currentUserContext.resolve(jwt);
+            return user == null ? null : user.userInfo();
         } catch (GlobalServiceException ignored) {
             return null;
         }
@@ -62,16 +70,16 @@ public class UserInfoServiceImpl implements UserInfoService {
         }
     }
 
-    private FullUserInfoDTO getUserInfo(UserInfo existingUser, Jwt jwt) {
+    private FullUserInfoDTO getUserInfo(ResolvedUser user) {
         return FullUserInfoDTO.builder()
-                .externalId(jwt.getSubject())
-                .email(jwt.getClaimAsString("email"))
-                .username(existingUser.getUsername())
-                .givenName(jwt.getClaimAsString("given_name"))
-                .familyName(jwt.getClaimAsString("family_name"))
-                .gender(jwt.getClaimAsString("gender"))
-                .birthdate(jwt.getClaimAsString("birthdate"))
-                .balance(existingUser.getBalance())
+                .externalId(user.externalId())
+                .email(user.email())
+                .username(user.userInfo().getUsername())
+                .givenName(user.givenName())
+                .familyName(user.familyName())
+                .gender(user.gender())
+                .birthdate(user.birthdate())
+                .balance(user.userInfo().getBalance())
                 // Add other user information based on JWT claims or user in db
                 .build();
     }
@@ -101,6 +109,21 @@ public class UserInfoServiceImpl implements UserInfoService {
         if (currentUser == null)
             return false;
         // Check if this game is contacting for this user
-        return userRepository.gameExistsInUserGames(currentUser.externalId(), game.getId()) > 0;
+        return membershipService.ownsGame(currentUser.externalId(), game.getId());
+    }
+
+    @Override
+    public OwnedGameIds getOwnedGameIds(Collection<Long> gameIds) {
+        if (gameIds == null || gameIds.isEmpty()) {
+            return OwnedGameIds.empty();
+        }
+        String userId;
+        try {
+            // Subject of the token is the id of the user in db, so no need to load the user itself
+            userId = getJwt().getSubject();
+        } catch (GlobalServiceException ignored) {
+            return OwnedGameIds.empty();
+        }
+        return OwnedGameIds.of(userGamesRepository.findOwnedGameIds(userId, gameIds));
     }
 }
@@ -1,8 +1,11 @@
 package com.khomsi.backend.main.user.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.khomsi.backend.main.user.repository.UserInfoRepository;
 import com.khomsi.backend.main.user.model.entity.UserInfo;
-import lombok.RequiredArgsConstructor;
+import com.khomsi.backend.main.utils.CoalescingTaskRunner;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
@@ -10,13 +13,37 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Keeps users in the db in line with the token claims. Authentication happens on every request,
+ * so a subject whose claims were synced recently is skipped without touching the db,
+ * a new user is created right away and changed claims are written in the background.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserSynchronizationService {
+    private static final int MAX_SYNCED_SUBJECTS = 10_000;
+    private static final Duration SYNC_TTL = Duration.ofMinutes(30);
+
     private final UserInfoRepository userRepository;
-    private final UserInfoServiceImpl userInfoServiceImpl;
+    private final CurrentUserContext currentUserContext;
+    // subject -> hash of the claims that are stored in db
+    private final Cache<String, Integer> syncedClaims = Caffeine.newBuilder()
+            .maximumSize(MAX_SYNCED_SUBJECTS)
+            .expireAfterWrite(SYNC_TTL)
+            .build();
+    // Latest claims per subject waiting to be written, newer ones replace older
+    private final Map<String, SyncedClaims> pendingUpdates = new ConcurrentHashMap<>();
+    private final CoalescingTaskRunner updateRunner = new CoalescingTaskRunner("user-claims-sync", this::flushUpdates);
+
+    public UserSynchronizationService(UserInfoRepository userRepository, CurrentUserContext currentUserContext) {
+        this.userRepository = userRepository;
+        this.currentUserContext = currentUserContext;
+    }
 
     //TODO temporary problem, can't track when user in keycloak was deleted.
     // Due to this, user in external db remains undeleted.
@@ -25,14 +52,24 @@ public class UserSynchronizationService {
     // refresh external db with event listener plugin or User Federation
     private void syncWithDatabase(final Jwt jwt) {
         String userId = jwt.getSubject();
-        UserInfo user = userInfoServiceImpl.getExistingUser(userId);
-        //Create user
+        SyncedClaims claims = SyncedClaims.of(jwt);
+        if (Objects.equals(syncedClaims.getIfPresent(userId), claims.hashCode())) {
+            return;
+        }
+        UserInfo user = currentUserContext.load(userId);
+        //Create user, the rest of this request needs the row
         if (user == null) {
             user = createUserInfoToDB(jwt);
+            user.setEmail(claims.email());
+            user = userRepository.save(user);
+            syncedClaims.put(userId, claims.hashCode());
+        } else if (claims.matches(user)) {
+            syncedClaims.put(userId, claims.hashCode());
+        } else {
+            pendingUpdates.put(userId, claims);
+            updateRunner.request();
         }
-        user.setEmail(jwt.getClaimAsString("email"));
-        // Save user information
-        userRepository.save(user);
+        currentUserContext.seed(jwt, user);
     }
 
     @EventListener(AuthenticationSuccessEvent.class)
@@ -41,6 +78,27 @@ public class UserSynchronizationService {
         syncWithDatabase(jwt);
     }
 
+    private void flushUpdates() {
+        for (String userId : pendingUpdates.keySet()) {
+            SyncedClaims claims = pendingUpdates.remove(userId);
+            if (claims == null) {
+                continue;
+            }
+            try {
+                userRepository.updateClaims(userId, claims.email(), claims.username());
+                syncedClaims.put(userId, claims.hashCode());
+            } catch (RuntimeException e) {
+                // Not cached, the next request of this user will try again
+                log.warn("Failed to sync claims of user {}", userId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updateRunner.close();
+    }
+
     private UserInfo createUserInfoToDB(Jwt jwt) {
         UserInfo user = new UserInfo();
         user.setExternalId(jwt.getSubject());
@@ -49,4 +107,15 @@ public class UserSynchronizationService {
         // Set other user attributes based on JWT claims
         return user;
     }
+
+    private record SyncedClaims(String email, String username) {
+        private static SyncedClaims of(Jwt jwt) {
+            return new SyncedClaims(jwt.getClaimAsString("email"), jwt.getClaimAsString("preferred_username"));
+        }
+
+        private boolean matches(UserInfo user) {
+            return Objects.equals(email, user.getEmail())
+                    && (username == null || username.equals(user.getUsername()));
+        }
+    }
 }
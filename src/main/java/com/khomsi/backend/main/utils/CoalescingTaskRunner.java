@@ -0,0 +1,35 @@
+package com.khomsi.backend.main.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs a task on its own background thread, requests that arrive while a run is still queued are folded into it
+public final class CoalescingTaskRunner implements AutoCloseable {
+    private final Runnable task;
+    private final ExecutorService executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public CoalescingTaskRunner(String threadName, Runnable task) {
+        this.task = task;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void request() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                scheduled.set(false);
+                task.run();
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,71 @@
+package com.khomsi.backend.main.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Writes a JSON array page by page, so the heap holds one page of rows instead of the whole list and its serialized
+ * form. The body is written on the MVC async executor after the controller returns; every page is read in its own
+ * short read-only transaction, so a slow client never keeps a database connection while it downloads.
+ */
+@Component
+@Slf4j
+public class JsonArrayStreamer {
+    // Rows per query, the next query seeks right after the last row of the previous page
+    public static final int PAGE_SIZE = 100;
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public JsonArrayStreamer(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // pageAfter gets the last row written, null for the first page, and must return rows as plain DTOs
+    public <T, R> ResponseEntity<StreamingResponseBody> stream(BiFunction<T, Pageable, List<T>> pageAfter,
+                                                               Function<T, R> mapper) {
+        Pageable pageable = PageRequest.ofSize(PAGE_SIZE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.writeStartArray();
+                T last = null;
+                List<T> page;
+                do {
+                    T after = last;
+                    page = readOnlyTransaction.execute(status -> pageAfter.apply(after, pageable));
+                    for (T row : page) {
+                        generator.writeObject(mapper.apply(row));
+                    }
+                    generator.flush();
+                    last = page.isEmpty() ? last : page.get(page.size() - 1);
+                } while (page.size() == PAGE_SIZE);
+                generator.writeEndArray();
+            } catch (IOException e) {
+                // Usually the client went away, the response is already committed so there is nothing to answer
+                log.debug("Streaming JSON response aborted", e);
+                throw new UncheckedIOException(e);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
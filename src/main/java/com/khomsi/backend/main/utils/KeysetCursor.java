@@ -0,0 +1,36 @@
+package com.khomsi.backend.main.utils;
+
+import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token of a keyset page: the sort key and id of the last row that was returned.
+ * Encoded as url-safe base64 of {@code field|direction|id|value}, an empty value stands for null.
+ */
+public record KeysetCursor(String field, Sort.Direction direction, String lastId, String lastValue) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, field, direction.name(), lastId, lastValue == null ? "" : lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The value goes last, so it may contain the separator itself
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Cursor has " + parts.length + " parts");
+            }
+            return new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), parts[2],
+                    parts[3].isEmpty() ? null : parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new GlobalServiceException(HttpStatus.BAD_REQUEST, "Cursor is not valid.");
+        }
+    }
+}
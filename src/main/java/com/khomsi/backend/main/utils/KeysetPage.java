@@ -0,0 +1,7 @@
+package com.khomsi.backend.main.utils;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record KeysetPage<T>(List<T> content, String nextCursor) {
+}
@@ -0,0 +1,123 @@
+package com.khomsi.backend.main.utils;
+
+import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import lombok.experimental.UtilityClass;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Seek pagination: instead of OFFSET the next page starts right after the sort key and id of the last row,
+ * so deep pages cost the same as the first one and no COUNT(*) is needed.
+ * Only the first sort order is used, the id breaks ties. Sorting by a nested property is not supported.
+ */
+@UtilityClass
+public final class KeysetPagination {
+    public static <T> KeysetPage<T> findPage(JpaSpecificationExecutor<T> repository, Specification<T> specification,
+                                             Sort sort, String idField, String cursorToken, int size,
+                                             String... fetchedAttributes) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.desc(idField));
+        if (order.getProperty().contains(".")) {
+            throw new GlobalServiceException(HttpStatus.BAD_REQUEST,
+                    "Sorting by '" + order.getProperty() + "' is not supported with a cursor.");
+        }
+        KeysetCursor cursor = cursorToken == null || cursorToken.isBlank() ? null : KeysetCursor.decode(cursorToken);
+        if (cursor != null && (!cursor.field().equals(order.getProperty()) || cursor.direction() != order.getDirection())) {
+            throw new GlobalServiceException(HttpStatus.BAD_REQUEST, "Cursor was issued for another sorting.");
+        }
+        Sort seekSort = order.getProperty().equals(idField)
+                ? Sort.by(order)
+                : Sort.by(order, new Sort.Order(order.getDirection(), idField));
+        Specification<T> seekSpecification = cursor == null ? specification
+                : specification.and(seekAfter(cursor, idField));
+
+        List<T> rows = repository.findBy(seekSpecification, query -> query
+                .project(fetchedAttributes)
+                .sortBy(seekSort)
+                .limit(size + 1)
+                .all());
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        T last = content.get(size - 1);
+        KeysetCursor next = new KeysetCursor(order.getProperty(), order.getDirection(),
+                Objects.toString(readField(last, idField)), toCursorValue(readField(last, order.getProperty())));
+        return new KeysetPage<>(List.copyOf(content), next.encode());
+    }
+
+    // (field, id) strictly after the cursor in the sort direction; MySQL puts nulls first ascending, last descending
+    private static <T> Specification<T> seekAfter(KeysetCursor cursor, String idField) {
+        boolean ascending = cursor.direction().isAscending();
+        return (root, query, criteriaBuilder) -> {
+            Path<Object> id = root.get(idField);
+            Object lastId = fromCursorValue(cursor.lastId(), id.getJavaType());
+            Predicate afterId = after(criteriaBuilder, id, lastId, ascending);
+            if (cursor.field().equals(idField)) {
+                return afterId;
+            }
+            Path<Object> field = root.get(cursor.field());
+            if (cursor.lastValue() == null) {
+                Predicate nullTail = criteriaBuilder.and(criteriaBuilder.isNull(field), afterId);
+                return ascending ? criteriaBuilder.or(nullTail, criteriaBuilder.isNotNull(field)) : nullTail;
+            }
+            Object lastValue = fromCursorValue(cursor.lastValue(), field.getJavaType());
+            Predicate seek = criteriaBuilder.or(
+                    after(criteriaBuilder, field, lastValue, ascending),
+                    criteriaBuilder.and(criteriaBuilder.equal(field, lastValue), afterId));
+            return ascending ? seek : criteriaBuilder.or(seek, criteriaBuilder.isNull(field));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder criteriaBuilder, Path<Object> path, Object value, boolean ascending) {
+        Path<Comparable> comparablePath = (Path<Comparable>) (Path<?>) path;
+        return ascending
+                ? criteriaBuilder.greaterThan(comparablePath, (Comparable) value)
+                : criteriaBuilder.lessThan(comparablePath, (Comparable) value);
+    }
+
+    // Direct field access, getters may return derived values (Game.getPrice() applies the discount)
+    private static Object readField(Object entity, String field) {
+        return PropertyAccessorFactory.forDirectFieldAccess(entity).getPropertyValue(field);
+    }
+
+    private static String toCursorValue(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static Object fromCursorValue(String value, Class<?> type) {
+        try {
+            if (type == String.class) return value;
+            if (type == Long.class || type == long.class) return Long.valueOf(value);
+            if (type == Integer.class || type == int.class) return Integer.valueOf(value);
+            if (type == BigDecimal.class) return new BigDecimal(value);
+            if (type == Boolean.class || type == boolean.class) return Boolean.valueOf(value);
+            if (type == LocalDate.class) return LocalDate.parse(value);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (type == Instant.class) return Instant.parse(value);
+            if (type.isEnum()) return enumValue(type, value);
+        } catch (RuntimeException e) {
+            throw new GlobalServiceException(HttpStatus.BAD_REQUEST, "Cursor is not valid.");
+        }
+        throw new GlobalServiceException(HttpStatus.BAD_REQUEST,
+                "Sorting by a " + type.getSimpleName() + " field is not supported with a cursor.");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(Class<?> type, String value) {
+        return Enum.valueOf((Class<? extends Enum>) type, value);
+    }
+}
@@ -0,0 +1,25 @@
+package com.khomsi.backend.main.utils.email.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.mail.outbox")
+public class EmailOutboxProperties {
+    // Emails sent over one SMTP connection
+    private int batchSize = 20;
+    // Batches sent in parallel, also the size of the email worker pool
+    private int workers = 4;
+    private int maxAttempts = 8;
+    // Delay after the first failure, doubled on every next one up to maxBackoff
+    private Duration initialBackoff = Duration.ofSeconds(30);
+    private Duration maxBackoff = Duration.ofHours(1);
+    // A claimed email is retried after this long if the node sending it never reports back
+    private Duration lease = Duration.ofMinutes(5);
+    // Sent emails are kept this long, then deleted
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,10 @@
+package com.khomsi.backend.main.utils.email.model.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    // Claimed by a drainer, next_attempt_at is the end of its lease
+    SENDING,
+    SENT,
+    // Gave up after the last attempt
+    FAILED
+}
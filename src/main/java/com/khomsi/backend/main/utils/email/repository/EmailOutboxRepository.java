@@ -0,0 +1,36 @@
+package com.khomsi.backend.main.utils.email.repository;
+
+import com.khomsi.backend.main.utils.email.model.entity.EmailOutbox;
+import com.khomsi.backend.main.utils.email.model.enums.EmailOutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    // SKIP LOCKED (lock timeout -2), so several nodes can drain at once without waiting on or double sending a row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT e FROM EmailOutbox e
+            WHERE e.status IN :statuses AND e.nextAttemptAt <= :now
+            ORDER BY e.nextAttemptAt, e.id
+            """)
+    List<EmailOutbox> findDueForUpdate(@Param("statuses") Collection<EmailOutboxStatus> statuses,
+                                       @Param("now") Instant now, Pageable pageable);
+
+    long countByStatusIn(Collection<EmailOutboxStatus> statuses);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = :status AND e.sentAt < :before")
+    int deleteByStatusAndSentAtBefore(@Param("status") EmailOutboxStatus status, @Param("before") Instant before);
+}
@@ -0,0 +1,6 @@
+package com.khomsi.backend.main.utils.email.service;
+
+public interface EmailOutboxService {
+    //Sends every email that is due, returns how many were attempted
+    int drain();
+}
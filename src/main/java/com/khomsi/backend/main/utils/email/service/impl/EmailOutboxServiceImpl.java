@@ -0,0 +1,222 @@
+package com.khomsi.backend.main.utils.email.service.impl;
+
+import com.khomsi.backend.main.utils.email.config.EmailOutboxProperties;
+import com.khomsi.backend.main.utils.email.model.entity.EmailOutbox;
+import com.khomsi.backend.main.utils.email.model.enums.EmailOutboxStatus;
+import com.khomsi.backend.main.utils.email.repository.EmailOutboxRepository;
+import com.khomsi.backend.main.utils.email.service.EmailOutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains email_outbox: claims due rows with SKIP LOCKED, sends them in batches on a fixed pool of workers,
+ * every batch over a single SMTP connection, and reschedules failures with exponential backoff.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(prefix = "app.mail", name = "enabled", havingValue = "true")
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+    private static final Set<EmailOutboxStatus> DUE = EnumSet.of(EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender emailSender;
+    private final EmailOutboxProperties properties;
+    private final String mailSender;
+    private final TransactionTemplate transaction;
+    private final ExecutorService workers;
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Timer deliveryLatency;
+    private final Timer batchSend;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public EmailOutboxServiceImpl(EmailOutboxRepository emailOutboxRepository, JavaMailSender emailSender,
+                                  EmailOutboxProperties properties, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry, @Value("${spring.mail.username}") String mailSender) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailSender = emailSender;
+        this.properties = properties;
+        this.mailSender = mailSender;
+        this.transaction = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(properties.getWorkers(), 1), runnable -> {
+            Thread thread = new Thread(runnable, "email-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("email.outbox.depth", queueDepth, AtomicLong::get)
+                .description("Emails waiting to be sent, refreshed on every drain")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("email.outbox.latency")
+                .description("Time from enqueue to a successful send")
+                .register(meterRegistry);
+        this.batchSend = Timer.builder("email.outbox.batch.send")
+                .description("Time to send one batch over SMTP")
+                .register(meterRegistry);
+        this.sent = Counter.builder("email.outbox.sent").register(meterRegistry);
+        this.retried = Counter.builder("email.outbox.retried").register(meterRegistry);
+        this.failed = Counter.builder("email.outbox.failed").register(meterRegistry);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval:PT5S}")
+    public int drain() {
+        int batchSize = Math.max(properties.getBatchSize(), 1);
+        int limit = batchSize * Math.max(properties.getWorkers(), 1);
+        int attempted = 0;
+        try {
+            List<EmailOutbox> claimed;
+            do {
+                claimed = claim(limit);
+                List<CompletableFuture<Void>> batches = new ArrayList<>();
+                for (int from = 0; from < claimed.size(); from += batchSize) {
+                    List<EmailOutbox> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+                    batches.add(CompletableFuture.runAsync(() -> sendBatch(batch), workers));
+                }
+                // One round at a time, the pool is never handed more than it can send
+                CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+                attempted += claimed.size();
+            } while (claimed.size() == limit);
+        } catch (RuntimeException e) {
+            log.error("Failed to drain email outbox", e);
+        } finally {
+            queueDepth.set(emailOutboxRepository.countByStatusIn(DUE));
+        }
+        return attempted;
+    }
+
+    @Scheduled(cron = "0 0 * * * *")
+    public void deleteSentEmails() {
+        Instant before = Instant.now().minus(properties.getRetention());
+        Integer deleted = transaction.execute(status ->
+                emailOutboxRepository.deleteByStatusAndSentAtBefore(EmailOutboxStatus.SENT, before));
+        log.debug("Deleted {} sent emails from the outbox", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private List<EmailOutbox> claim(int limit) {
+        Instant now = Instant.now();
+        List<EmailOutbox> claimed = transaction.execute(status -> {
+            List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(DUE, now, PageRequest.of(0, limit));
+            due.forEach(email -> {
+                email.setStatus(EmailOutboxStatus.SENDING);
+                email.setNextAttemptAt(now.plus(properties.getLease()));
+            });
+            return due;
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    private void sendBatch(List<EmailOutbox> batch) {
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        Map<EmailOutbox, String> failures = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.put(toMessage(email), email);
+            } catch (MessagingException e) {
+                failures.put(email, e.getMessage());
+            }
+        }
+        if (!messages.isEmpty()) {
+            try {
+                // JavaMailSender opens one connection for the whole array
+                batchSend.record(() -> emailSender.send(messages.keySet().toArray(MimeMessage[]::new)));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(email -> failures.put(email, e.getMessage()));
+                }
+                e.getFailedMessages().forEach((message, cause) -> {
+                    EmailOutbox email = messages.get(message);
+                    if (email != null) {
+                        failures.put(email, cause.getMessage());
+                    }
+                });
+            } catch (MailException e) {
+                messages.values().forEach(email -> failures.put(email, e.getMessage()));
+            }
+        }
+        saveOutcome(batch, failures);
+    }
+
+    private void saveOutcome(List<EmailOutbox> batch, Map<EmailOutbox, String> failures) {
+        Instant now = Instant.now();
+        for (EmailOutbox email : batch) {
+            if (!failures.containsKey(email)) {
+                email.setStatus(EmailOutboxStatus.SENT);
+                email.setSentAt(now);
+                email.setLastError(null);
+                sent.increment();
+                deliveryLatency.record(Duration.between(email.getCreatedAt(), now));
+                continue;
+            }
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLastError(truncate(failures.get(email)));
+            if (email.getAttempts() >= properties.getMaxAttempts()) {
+                email.setStatus(EmailOutboxStatus.FAILED);
+                failed.increment();
+                log.warn("Giving up on email {} to {} after {} attempts: {}", email.getId(), email.getRecipient(),
+                        email.getAttempts(), email.getLastError());
+            } else {
+                email.setStatus(EmailOutboxStatus.PENDING);
+                email.setNextAttemptAt(now.plus(backoff(email.getAttempts())));
+                retried.increment();
+            }
+        }
+        transaction.executeWithoutResult(status -> emailOutboxRepository.saveAll(batch));
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    private MimeMessage toMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = emailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
+        helper.setTo(email.getRecipient());
+        helper.setFrom(mailSender);
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), true);
+        return message;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return "Unknown error";
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
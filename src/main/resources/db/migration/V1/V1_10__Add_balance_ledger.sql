@@ -0,0 +1,30 @@
+-- -----------------------------------------------------
+-- Table `GridDB`.`balance_ledger`
+-- Append-only history of every balance change. users.balance is its running total, both are written in the same
+-- transaction by a conditional UPDATE, so concurrent debits never overspend and need no row lock held in Java.
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `GridDB`.`balance_ledger` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `users_id` VARCHAR(255) NOT NULL,
+    `amount` DECIMAL(10,2) NOT NULL,
+    `balance_after` DECIMAL(10,2) NOT NULL,
+    `operation` VARCHAR(32) NOT NULL,
+    `reference` VARCHAR(255) NULL,
+    `created_at` DATETIME(6) NOT NULL,
+    PRIMARY KEY (`id`),
+    INDEX `users_created_at_idx` (`users_id` ASC, `created_at` ASC) VISIBLE,
+    -- What an order reserved is summed by user and reference when it is completed, expired or returned
+    INDEX `users_reference_idx` (`users_id` ASC, `reference` ASC) VISIBLE,
+    CONSTRAINT `fk_balance_ledger_users1`
+    FOREIGN KEY (`users_id`)
+    REFERENCES `GridDB`.`users` (`id`)
+    ON DELETE CASCADE
+    ON UPDATE NO ACTION)
+    ENGINE = InnoDB;
+
+-- Opening entry for balances that existed before the ledger
+INSERT INTO `GridDB`.`balance_ledger` (`users_id`, `amount`, `balance_after`, `operation`, `reference`, `created_at`)
+SELECT u.`id`, u.`balance`, u.`balance`, 'OPENING_BALANCE', NULL, NOW(6)
+FROM `GridDB`.`users` u
+WHERE u.`balance` <> 0
+  AND NOT EXISTS (SELECT 1 FROM `GridDB`.`balance_ledger` l WHERE l.`users_id` = u.`id`);
@@ -0,0 +1,23 @@
+-- -----------------------------------------------------
+-- Unpaid transactions of one payment method in creation order,
+-- the reconciliation sweep reads its batches from this index only.
+-- -----------------------------------------------------
+
+-- -----------------------------------------------------
+-- Table `GridDB`.`transactions`
+-- -----------------------------------------------------
+SET @idx_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'transactions'
+      AND index_name = 'paid_payment_methods_created_at_idx'
+);
+SET @sql := IF(
+    @idx_exists = 0,
+    'ALTER TABLE `GridDB`.`transactions` ADD INDEX `paid_payment_methods_created_at_idx` (`paid` ASC, `payment_methods` ASC, `created_at` ASC, `transaction_id` ASC) VISIBLE',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,16 @@
+-- -----------------------------------------------------
+-- Table `GridDB`.`catalog_version`
+-- One row shared by every node: the version behind the ETag of the public catalog and the time of the change it
+-- stands for, in epoch milliseconds, behind Last-Modified. Bumped by a single UPDATE after every visible change.
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `GridDB`.`catalog_version` (
+    `id` TINYINT NOT NULL,
+    `version` BIGINT NOT NULL,
+    `modified_at` BIGINT NOT NULL,
+    PRIMARY KEY (`id`))
+    ENGINE = InnoDB;
+
+INSERT INTO `GridDB`.`catalog_version` (`id`, `version`, `modified_at`)
+SELECT 1, 1, ROUND(UNIX_TIMESTAMP(NOW(3)) * 1000)
+FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM `GridDB`.`catalog_version` WHERE `id` = 1);
@@ -0,0 +1,56 @@
+-- -----------------------------------------------------
+-- Terminal state of an order that was never paid: expired by the reconciliation or returned to the cart.
+-- The row is kept, so a payment that still arrives for it can be matched and refunded.
+-- -----------------------------------------------------
+
+-- -----------------------------------------------------
+-- Table `GridDB`.`transactions`
+-- -----------------------------------------------------
+SET @column_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.columns
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'transactions'
+      AND column_name = 'expired_at'
+);
+SET @sql := IF(
+    @column_exists = 0,
+    'ALTER TABLE `GridDB`.`transactions` ADD COLUMN `expired_at` DATETIME NULL AFTER `updated_at`',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Expired rows stay unpaid, the sweep index skips them instead of reading them again on every run
+SET @idx_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'transactions'
+      AND index_name = 'paid_payment_methods_created_at_idx'
+);
+SET @sql := IF(
+    @idx_exists > 0,
+    'ALTER TABLE `GridDB`.`transactions` DROP INDEX `paid_payment_methods_created_at_idx`',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'transactions'
+      AND index_name = 'paid_expired_at_payment_methods_created_at_idx'
+);
+SET @sql := IF(
+    @idx_exists = 0,
+    'ALTER TABLE `GridDB`.`transactions` ADD INDEX `paid_expired_at_payment_methods_created_at_idx` (`paid` ASC, `expired_at` ASC, `payment_methods` ASC, `created_at` ASC, `transaction_id` ASC) VISIBLE',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,99 @@
+-- -----------------------------------------------------
+-- One row per (user, game) in library, reviews, wishlist and cart.
+-- Membership checks become a single unique index probe.
+-- -----------------------------------------------------
+
+-- Drop duplicates left by concurrent requests, the oldest row is kept
+DELETE newer FROM `GridDB`.`user_has_games` newer
+    JOIN `GridDB`.`user_has_games` older
+    ON newer.`users_id` = older.`users_id` AND newer.`games_id` = older.`games_id` AND newer.`id` > older.`id`;
+
+DELETE newer FROM `GridDB`.`reviews` newer
+    JOIN `GridDB`.`reviews` older
+    ON newer.`users_id` = older.`users_id` AND newer.`games_id` = older.`games_id`
+        AND newer.`review_id` > older.`review_id`;
+
+DELETE newer FROM `GridDB`.`wishlist` newer
+    JOIN `GridDB`.`wishlist` older
+    ON newer.`users_id` = older.`users_id` AND newer.`games_id` = older.`games_id`
+        AND newer.`wishlist_id` > older.`wishlist_id`;
+
+DELETE newer FROM `GridDB`.`cart` newer
+    JOIN `GridDB`.`cart` older
+    ON newer.`users_id` = older.`users_id` AND newer.`games_id` = older.`games_id` AND newer.`id` > older.`id`;
+
+-- -----------------------------------------------------
+-- Table `GridDB`.`user_has_games`
+-- -----------------------------------------------------
+SET @idx_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'user_has_games'
+      AND index_name = 'users_games_UNIQUE'
+);
+SET @sql := IF(
+    @idx_exists = 0,
+    'ALTER TABLE `GridDB`.`user_has_games` ADD UNIQUE INDEX `users_games_UNIQUE` (`users_id` ASC, `games_id` ASC) VISIBLE',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- -----------------------------------------------------
+-- Table `GridDB`.`reviews`
+-- -----------------------------------------------------
+SET @idx_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'reviews'
+      AND index_name = 'users_games_UNIQUE'
+);
+SET @sql := IF(
+    @idx_exists = 0,
+    'ALTER TABLE `GridDB`.`reviews` ADD UNIQUE INDEX `users_games_UNIQUE` (`users_id` ASC, `games_id` ASC) VISIBLE',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- -----------------------------------------------------
+-- Table `GridDB`.`wishlist`
+-- -----------------------------------------------------
+SET @idx_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'wishlist'
+      AND index_name = 'users_games_UNIQUE'
+);
+SET @sql := IF(
+    @idx_exists = 0,
+    'ALTER TABLE `GridDB`.`wishlist` ADD UNIQUE INDEX `users_games_UNIQUE` (`users_id` ASC, `games_id` ASC) VISIBLE',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- -----------------------------------------------------
+-- Table `GridDB`.`cart`
+-- -----------------------------------------------------
+SET @idx_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'cart'
+      AND index_name = 'users_games_UNIQUE'
+);
+SET @sql := IF(
+    @idx_exists = 0,
+    'ALTER TABLE `GridDB`.`cart` ADD UNIQUE INDEX `users_games_UNIQUE` (`users_id` ASC, `games_id` ASC) VISIBLE',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
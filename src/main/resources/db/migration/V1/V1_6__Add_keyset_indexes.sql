@@ -0,0 +1,42 @@
+-- -----------------------------------------------------
+-- Indexes matching the default keyset orderings of the admin listings,
+-- a page then reads only its own rows from the index.
+-- -----------------------------------------------------
+
+-- -----------------------------------------------------
+-- Table `GridDB`.`transactions`
+-- -----------------------------------------------------
+SET @idx_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'transactions'
+      AND index_name = 'created_at_transaction_idx'
+);
+SET @sql := IF(
+    @idx_exists = 0,
+    'ALTER TABLE `GridDB`.`transactions` ADD INDEX `created_at_transaction_idx` (`created_at` ASC, `transaction_id` ASC) VISIBLE',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- -----------------------------------------------------
+-- Table `GridDB`.`reviews`
+-- -----------------------------------------------------
+SET @idx_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'reviews'
+      AND index_name = 'games_review_date_idx'
+);
+SET @sql := IF(
+    @idx_exists = 0,
+    'ALTER TABLE `GridDB`.`reviews` ADD INDEX `games_review_date_idx` (`games_id` ASC, `review_date` ASC, `review_id` ASC) VISIBLE',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
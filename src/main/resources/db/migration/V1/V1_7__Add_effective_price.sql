@@ -0,0 +1,36 @@
+-- -----------------------------------------------------
+-- Price after discount, stored and indexed so filters, sorting and MAX read the price users see.
+-- Generated by MySQL, so every write path (admin, procedures, raw inserts) keeps it in line;
+-- the discount rate is rounded to two places first, as Game.getPrice() used to do.
+-- -----------------------------------------------------
+SET @column_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.columns
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'games'
+      AND column_name = 'effective_price'
+);
+SET @sql := IF(
+    @column_exists = 0,
+    'ALTER TABLE `GridDB`.`games` ADD COLUMN `effective_price` DECIMAL(10,2) GENERATED ALWAYS AS (ROUND(`price` * (1 - ROUND(`discount` / 100, 2)), 2)) STORED NOT NULL AFTER `discount`',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @idx_exists := (
+    SELECT COUNT(1)
+    FROM information_schema.statistics
+    WHERE table_schema = 'GridDB'
+      AND table_name = 'games'
+      AND index_name = 'effective_price_idx'
+);
+SET @sql := IF(
+    @idx_exists = 0,
+    'ALTER TABLE `GridDB`.`games` ADD INDEX `effective_price_idx` (`effective_price` ASC) VISIBLE',
+    'SELECT 1'
+);
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
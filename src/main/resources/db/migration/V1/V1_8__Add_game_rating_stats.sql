@@ -0,0 +1,42 @@
+-- -----------------------------------------------------
+-- Per-game review aggregate: count, sum and a histogram of the 1-5 star ratings.
+-- Kept up to date by the review writes with a single upsert, so listing and sorting never aggregate reviews.
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `GridDB`.`game_rating_stats` (
+    `game_id` INT NOT NULL,
+    `review_count` INT NOT NULL DEFAULT 0,
+    `rating_sum` BIGINT NOT NULL DEFAULT 0,
+    `rating_1` INT NOT NULL DEFAULT 0,
+    `rating_2` INT NOT NULL DEFAULT 0,
+    `rating_3` INT NOT NULL DEFAULT 0,
+    `rating_4` INT NOT NULL DEFAULT 0,
+    `rating_5` INT NOT NULL DEFAULT 0,
+    `average_rating` DECIMAL(3,2) GENERATED ALWAYS AS
+        (IF(`review_count` > 0, ROUND(`rating_sum` / `review_count`, 2), NULL)) STORED,
+    PRIMARY KEY (`game_id`),
+    INDEX `average_rating_idx` (`average_rating` DESC, `review_count` DESC) VISIBLE,
+    CONSTRAINT `fk_game_rating_stats_games1`
+    FOREIGN KEY (`game_id`)
+    REFERENCES `GridDB`.`games` (`game_id`)
+    ON DELETE CASCADE
+    ON UPDATE NO ACTION)
+    ENGINE = InnoDB;
+
+-- Backfill from the existing reviews, re-running it overwrites with the same numbers
+INSERT INTO `GridDB`.`game_rating_stats`
+    (`game_id`, `review_count`, `rating_sum`, `rating_1`, `rating_2`, `rating_3`, `rating_4`, `rating_5`)
+SELECT * FROM (
+    SELECT `games_id`, COUNT(*) AS `review_count`, SUM(`rating`) AS `rating_sum`,
+           SUM(`rating` = 1) AS `rating_1`, SUM(`rating` = 2) AS `rating_2`, SUM(`rating` = 3) AS `rating_3`,
+           SUM(`rating` = 4) AS `rating_4`, SUM(`rating` = 5) AS `rating_5`
+    FROM `GridDB`.`reviews`
+    GROUP BY `games_id`
+) AS fresh
+ON DUPLICATE KEY UPDATE
+    `review_count` = fresh.`review_count`,
+    `rating_sum` = fresh.`rating_sum`,
+    `rating_1` = fresh.`rating_1`,
+    `rating_2` = fresh.`rating_2`,
+    `rating_3` = fresh.`rating_3`,
+    `rating_4` = fresh.`rating_4`,
+    `rating_5` = fresh.`rating_5`;
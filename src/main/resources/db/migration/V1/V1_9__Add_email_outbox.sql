@@ -0,0 +1,20 @@
+-- -----------------------------------------------------
+-- Table `GridDB`.`email_outbox`
+-- Emails are rendered and stored in the transaction that triggers them, a scheduled drainer sends them later.
+-- Rows due for (re)delivery are found by (status, next_attempt_at); a claimed row is pushed into the future
+-- as a lease, so it is picked up again if the node sending it dies.
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `GridDB`.`email_outbox` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT,
+    `recipient` VARCHAR(255) NOT NULL,
+    `subject` VARCHAR(255) NOT NULL,
+    `body` MEDIUMTEXT NOT NULL,
+    `status` VARCHAR(16) NOT NULL,
+    `attempts` INT NOT NULL DEFAULT 0,
+    `next_attempt_at` DATETIME(6) NOT NULL,
+    `created_at` DATETIME(6) NOT NULL,
+    `sent_at` DATETIME(6) NULL,
+    `last_error` VARCHAR(1000) NULL,
+    PRIMARY KEY (`id`),
+    INDEX `status_next_attempt_idx` (`status` ASC, `next_attempt_at` ASC) VISIBLE)
+    ENGINE = InnoDB;
@@ -0,0 +1,190 @@
+package com.khomsi.backend.checkout;
+
+import com.alipay.api.AlipayClient;
+import com.alipay.api.request.AlipayTradeCloseRequest;
+import com.alipay.api.request.AlipayTradeQueryRequest;
+import com.alipay.api.response.AlipayTradeCloseResponse;
+import com.alipay.api.response.AlipayTradeQueryResponse;
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.config.TestData;
+import com.khomsi.backend.main.checkout.apis.AlipayReconciliationService;
+import com.khomsi.backend.main.checkout.model.enums.PaymentMethod;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// Unpaid Alipay transactions are completed or expired against a fake Alipay gateway
+@TestPropertySource(properties = {
+        "app.payment.reconciliation.enabled=true",
+        "app.payment.reconciliation.poll-interval=PT1H",
+        "app.payment.reconciliation.batch-size=2",
+        "app.payment.reconciliation.grace-period=PT2M",
+        "app.payment.reconciliation.expire-after=PT30M"
+})
+class AlipayReconciliationTest extends BaseIntegration {
+    private static final String TRADE_SUCCESS = "TRADE_SUCCESS";
+    private static final String WAIT_BUYER_PAY = "WAIT_BUYER_PAY";
+    private static final String TRADE_NOT_EXIST = "ACQ.TRADE_NOT_EXIST";
+
+    @MockBean
+    private AlipayClient alipayClient;
+    @Autowired
+    private AlipayReconciliationService alipayReconciliationService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TestData testData;
+
+    // Trade status the fake gateway reports per out_trade_no, a missing entry is a trade Alipay does not know
+    private final Map<String, String> tradeStatuses = new ConcurrentHashMap<>();
+    // Biz content of every query and close the fake gateway received, calls come from the provider threads
+    private final List<String> queried = new CopyOnWriteArrayList<>();
+    private final List<String> closed = new CopyOnWriteArrayList<>();
+    private String userId;
+    private List<Long> gameIds;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userId = testData.createUser(BigDecimal.ZERO);
+        gameIds = testData.createGames(5, BigDecimal.TEN);
+
+        when(alipayClient.execute(any(AlipayTradeQueryRequest.class))).thenAnswer(invocation -> {
+            AlipayTradeQueryRequest request = invocation.getArgument(0);
+            queried.add(request.getBizContent());
+            AlipayTradeQueryResponse response = new AlipayTradeQueryResponse();
+            String tradeStatus = tradeStatuses.entrySet().stream()
+                    .filter(entry -> request.getBizContent().contains(entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(null);
+            if (tradeStatus == null) {
+                response.setCode("40004");
+                response.setSubCode(TRADE_NOT_EXIST);
+            } else {
+                response.setCode("10000");
+                response.setTradeStatus(tradeStatus);
+            }
+            return response;
+        });
+        when(alipayClient.execute(any(AlipayTradeCloseRequest.class))).thenAnswer(invocation -> {
+            AlipayTradeCloseRequest request = invocation.getArgument(0);
+            closed.add(request.getBizContent());
+            AlipayTradeCloseResponse response = new AlipayTradeCloseResponse();
+            response.setCode("10000");
+            return response;
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteCreated();
+        tradeStatuses.clear();
+        queried.clear();
+        closed.clear();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void sweepCompletesPaidAndExpiresAbandonedTransactions() {
+        LocalDateTime now = LocalDateTime.now();
+        String paid = transaction(now.minusMinutes(10), PaymentMethod.ALIPAY, gameIds.get(0));
+        String waiting = transaction(now.minusMinutes(10), PaymentMethod.ALIPAY, gameIds.get(1));
+        String abandoned = transaction(now.minusHours(1), PaymentMethod.ALIPAY, gameIds.get(2));
+        String neverScanned = transaction(now.minusHours(2), PaymentMethod.ALIPAY, gameIds.get(3));
+        String justCreated = transaction(now, PaymentMethod.ALIPAY, gameIds.get(4));
+        String local = transaction(now.minusHours(1), PaymentMethod.LOCAL, gameIds.get(4));
+        tradeStatuses.put(paid, TRADE_SUCCESS);
+        tradeStatuses.put(waiting, WAIT_BUYER_PAY);
+        tradeStatuses.put(abandoned, WAIT_BUYER_PAY);
+        tradeStatuses.put(justCreated, WAIT_BUYER_PAY);
+        double expiredBefore = counter("expired");
+
+        int resolved = alipayReconciliationService.sweep();
+
+        assertEquals(3, resolved);
+        // Paid at Alipay, completed as if the notification had arrived
+        assertTrue(jdbcTemplate.queryForObject("SELECT paid FROM transactions WHERE transaction_id = ?",
+                Boolean.class, paid));
+        assertEquals(1, testData.count("SELECT COUNT(*) FROM user_has_games WHERE users_id = ? AND games_id = ?",
+                userId, gameIds.get(0)));
+        // Within the payment window, left alone and not closed
+        assertEquals(1, testData.count("SELECT COUNT(*) FROM transactions WHERE transaction_id = ? AND paid = 0",
+                waiting));
+        assertFalse(received(closed, waiting));
+        // Overdue, closed at Alipay even if never scanned, kept as expired and the games are back in the cart
+        for (String expired : List.of(abandoned, neverScanned)) {
+            assertTrue(received(closed, expired));
+            assertEquals(1, testData.count("""
+                    SELECT COUNT(*) FROM transactions WHERE transaction_id = ? AND paid = 0 AND expired_at IS NOT NULL
+                    """, expired));
+        }
+        assertEquals(2, testData.count("SELECT COUNT(*) FROM cart WHERE users_id = ? AND games_id IN (?, ?)",
+                userId, gameIds.get(2), gameIds.get(3)));
+        // Too young to sweep, and other payment methods are never asked about
+        for (String untouched : List.of(justCreated, local)) {
+            assertFalse(received(queried, untouched));
+            assertEquals(1, testData.count("SELECT COUNT(*) FROM transactions WHERE transaction_id = ?",
+                    untouched));
+        }
+        assertEquals(2, counter("expired") - expiredBefore);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void repeatedSweepLeavesNothingToDo() {
+        String paid = transaction(LocalDateTime.now().minusMinutes(10), PaymentMethod.ALIPAY, gameIds.get(0));
+        String neverScanned = transaction(LocalDateTime.now().minusHours(1), PaymentMethod.ALIPAY, gameIds.get(1));
+        tradeStatuses.put(paid, TRADE_SUCCESS);
+
+        assertEquals(2, alipayReconciliationService.sweep());
+        // Expired orders are kept, but never read again
+        assertEquals(0, alipayReconciliationService.sweep());
+        assertEquals(1, queried.stream().filter(bizContent -> bizContent.contains(neverScanned)).count());
+        assertEquals(1, testData.count("SELECT COUNT(*) FROM user_has_games WHERE users_id = ? AND games_id = ?",
+                userId, gameIds.get(0)));
+    }
+
+    private String transaction(LocalDateTime createdAt, PaymentMethod paymentMethod, Long gameId) {
+        String transactionId = UUID.randomUUID().toString();
+        jdbcTemplate.update("""
+                INSERT INTO transactions (transaction_id, users_id, balance_action, created_at, total_amount,
+                                          payment_methods, paid)
+                VALUES (?, ?, 'NO_ACTION', ?, 10.00, ?, 0)
+                """, transactionId, userId, Timestamp.valueOf(createdAt), String.valueOf(paymentMethod));
+        jdbcTemplate.update("INSERT INTO transaction_games (transactions_id, games_id, price_on_pay) VALUES (?, ?, 10.00)",
+                transactionId, gameId);
+        return transactionId;
+    }
+
+    private static boolean received(List<String> requests, String transactionId) {
+        return requests.stream().anyMatch(bizContent -> bizContent.contains(transactionId));
+    }
+
+    private double counter(String outcome) {
+        return meterRegistry.get("payment.reconciliation.transactions").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,152 @@
+package com.khomsi.backend.checkout;
+
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.config.TestData;
+import com.khomsi.backend.main.checkout.model.dto.OrderLine;
+import com.khomsi.backend.main.checkout.model.entity.Transaction;
+import com.khomsi.backend.main.checkout.model.enums.BalanceAction;
+import com.khomsi.backend.main.checkout.model.enums.PaymentMethod;
+import com.khomsi.backend.main.checkout.repository.TransactionGamesRepository;
+import com.khomsi.backend.main.checkout.repository.TransactionRepository;
+import com.khomsi.backend.main.checkout.service.TransactionService;
+import com.khomsi.backend.main.user.model.dto.FullUserInfoDTO;
+import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.repository.UserGamesRepository;
+import com.khomsi.backend.main.user.repository.UserInfoRepository;
+import com.khomsi.backend.main.user.service.UserInfoService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+// Order lines and library rows written by the JDBC batches: one row per game with its price and purchase date,
+// whatever the cart size, and a repeated grant leaves the library as it was
+class CheckoutBatchInsertTest extends BaseIntegration {
+    private static final int[] CART_SIZES = {1, 10, 200};
+    private static final int GAMES = 200;
+
+    @MockBean
+    private UserInfoService userInfoService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionGamesRepository transactionGamesRepository;
+    @Autowired
+    private UserGamesRepository userGamesRepository;
+    @Autowired
+    private UserInfoRepository userInfoRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestData testData;
+
+    private List<Long> gameIds;
+
+    // Seeded in the test transaction, rolled back with the orders and library rows after every test
+    @BeforeEach
+    void seedGames() {
+        gameIds = testData.createGames(GAMES, BigDecimal.TEN);
+    }
+
+    @Test
+    void checkoutWritesOneRowPerGame() {
+        for (int cartSize : CART_SIZES) {
+            List<Long> cart = gameIds.subList(0, cartSize);
+            String transactionId = checkout(cart);
+
+            assertEquals(cart, jdbcTemplate.queryForList("""
+                    SELECT games_id FROM transaction_games WHERE transactions_id = ? ORDER BY games_id
+                    """, Long.class, transactionId));
+            assertEquals(cartSize, testData.count("""
+                    SELECT COUNT(*) FROM transaction_games WHERE transactions_id = ? AND price_on_pay = 10
+                    """, transactionId));
+            assertEquals(cart, jdbcTemplate.queryForList("""
+                    SELECT ug.games_id FROM user_has_games ug JOIN transactions t ON t.users_id = ug.users_id
+                    WHERE t.transaction_id = ? ORDER BY ug.games_id
+                    """, Long.class, transactionId));
+        }
+    }
+
+    @Test
+    void orderLinesKeepTheirPrices() {
+        Transaction transaction = placeTransaction(newUser());
+        List<OrderLine> orderLines = gameIds.stream()
+                .map(gameId -> new OrderLine(gameId, BigDecimal.valueOf(gameId % 7)))
+                .toList();
+
+        transactionGamesRepository.insertOrderLines(transaction.getTransactionId(), List.of());
+        transactionGamesRepository.insertOrderLines(transaction.getTransactionId(), orderLines);
+
+        List<OrderLine> written = jdbcTemplate.query("""
+                SELECT games_id, price_on_pay FROM transaction_games WHERE transactions_id = ? ORDER BY games_id
+                """, (rs, rowNum) -> new OrderLine(rs.getLong(1), rs.getBigDecimal(2).stripTrailingZeros()),
+                transaction.getTransactionId());
+        assertEquals(orderLines.stream()
+                .map(line -> new OrderLine(line.gameId(), line.priceOnPay().stripTrailingZeros()))
+                .toList(), written);
+    }
+
+    @Test
+    void repeatedGrantKeepsTheLibrary() {
+        String userId = newUser().getExternalId();
+        Instant purchasedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        userGamesRepository.grantGames(userId, gameIds, purchasedAt);
+        userGamesRepository.grantGames(userId, gameIds.subList(0, 10), purchasedAt.plus(1, ChronoUnit.DAYS));
+
+        assertEquals(GAMES, testData.count("SELECT COUNT(*) FROM user_has_games WHERE users_id = ?", userId));
+        List<Timestamp> purchaseDates = jdbcTemplate.queryForList(
+                "SELECT DISTINCT purchase_date FROM user_has_games WHERE users_id = ?", Timestamp.class, userId);
+        assertEquals(1, purchaseDates.size());
+    }
+
+    private String checkout(List<Long> cart) {
+        UserInfo user = newUser();
+        testData.addToCart(user.getExternalId(), cart);
+        String transactionId = UUID.randomUUID().toString();
+        transactionService.placeTemporaryTransaction(null, transactionId, null,
+                BalanceAction.NO_ACTION, PaymentMethod.LOCAL);
+        // Payment is completed by a later request, which loads the order lines written by the batch
+        entityManager.clear();
+        transactionService.completeTransaction(transactionId);
+        entityManager.flush();
+        return transactionId;
+    }
+
+    private UserInfo newUser() {
+        String userId = testData.createUser(BigDecimal.ZERO);
+        UserInfo user = userInfoRepository.findUserInfoByExternalId(userId);
+        when(userInfoService.getUserInfo()).thenReturn(user);
+        when(userInfoService.getCurrentUser()).thenReturn(FullUserInfoDTO.builder().externalId(userId).build());
+        return user;
+    }
+
+    private Transaction placeTransaction(UserInfo user) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setUsers(user);
+        transaction.setCreatedAt(LocalDateTime.now());
+        transaction.setTotalAmount(BigDecimal.ZERO);
+        transaction.setPaymentMethods(String.valueOf(PaymentMethod.LOCAL));
+        transaction.setPaid(false);
+        transaction.setBalanceAction(BalanceAction.NO_ACTION);
+        return transactionRepository.saveAndFlush(transaction);
+    }
+}
@@ -0,0 +1,183 @@
+package com.khomsi.backend.checkout;
+
+import com.khomsi.backend.main.checkout.apis.config.PaymentHttpProperties;
+import com.khomsi.backend.main.checkout.apis.impl.PaymentProviderClient;
+import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import com.khomsi.backend.main.utils.CircuitBreaker;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Timeouts, bulkhead and circuit breaker of the payment provider client against a local stub provider
+class PaymentProviderClientTest {
+    private static final String TARGET = "stub-provider";
+    private static final String QR_CODE_RESPONSE = "{\"data\":{\"qrCode\":\"https://qr.example/1\"}}";
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile int status = 200;
+    private volatile long delayMillis;
+    private volatile boolean blockUntilReleased;
+
+    private HttpServer server;
+    private PaymentProviderClient client;
+
+    @BeforeEach
+    void startStubProvider() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/pay", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        if (client != null) {
+            client.shutdown();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void postsFormOverPooledConnections() throws Exception {
+        client = new PaymentProviderClient(properties());
+
+        for (int i = 0; i < 5; i++) {
+            ResponseEntity<String> response = client.postForm(TARGET, url(), form()).get(5, TimeUnit.SECONDS);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(QR_CODE_RESPONSE, response.getBody());
+        }
+        assertEquals(5, hits.get());
+    }
+
+    @Test
+    void slowProviderHitsReadTimeout() {
+        PaymentHttpProperties properties = properties();
+        properties.setReadTimeout(Duration.ofMillis(200));
+        client = new PaymentProviderClient(properties);
+        delayMillis = 2_000;
+
+        long started = System.nanoTime();
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> client.postForm(TARGET, url(), form()).get(5, TimeUnit.SECONDS));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertInstanceOf(ResourceAccessException.class, failure.getCause());
+        assertTrue(elapsed < 1_500, "Timed out after " + elapsed + " ms");
+    }
+
+    @Test
+    void bulkheadRejectsCallsOverTheLimit() throws Exception {
+        PaymentHttpProperties properties = properties();
+        properties.setMaxConcurrentCalls(2);
+        client = new PaymentProviderClient(properties);
+        blockUntilReleased = true;
+
+        List<CompletableFuture<ResponseEntity<String>>> inFlight = new ArrayList<>();
+        inFlight.add(client.postForm(TARGET, url(), form()));
+        inFlight.add(client.postForm(TARGET, url(), form()));
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> client.postForm(TARGET, url(), form()).get(1, TimeUnit.SECONDS));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                assertInstanceOf(GlobalServiceException.class, rejected.getCause()).getStatusCode());
+
+        release.countDown();
+        for (CompletableFuture<ResponseEntity<String>> call : inFlight) {
+            assertEquals(HttpStatus.OK, call.get(5, TimeUnit.SECONDS).getStatusCode());
+        }
+        // The permits are back once the calls are done
+        assertEquals(HttpStatus.OK, client.postForm(TARGET, url(), form()).get(5, TimeUnit.SECONDS).getStatusCode());
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedFailuresAndClosesAfterTrial() throws Exception {
+        PaymentHttpProperties properties = properties();
+        properties.setFailureThreshold(3);
+        properties.setOpenDuration(Duration.ofMillis(300));
+        client = new PaymentProviderClient(properties);
+        status = 500;
+
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<ResponseEntity<String>> call = client.postForm(TARGET, url(), form());
+            assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState(TARGET));
+
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> client.postForm(TARGET, url(), form()).get(1, TimeUnit.SECONDS));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                assertInstanceOf(GlobalServiceException.class, rejected.getCause()).getStatusCode());
+        assertEquals(3, hits.get());
+
+        Thread.sleep(400);
+        status = 200;
+        assertEquals(HttpStatus.OK, client.postForm(TARGET, url(), form()).get(5, TimeUnit.SECONDS).getStatusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState(TARGET));
+        assertEquals(4, hits.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        try {
+            if (blockUntilReleased) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = QR_CODE_RESPONSE.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private PaymentHttpProperties properties() {
+        PaymentHttpProperties properties = new PaymentHttpProperties();
+        properties.setConnectTimeout(Duration.ofSeconds(1));
+        properties.setReadTimeout(Duration.ofSeconds(3));
+        return properties;
+    }
+
+    private String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/pay";
+    }
+
+    private MultiValueMap<String, String> form() {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("merchantTradeNo", "stub-order");
+        form.add("totalAmount", "10.00");
+        return form;
+    }
+}
@@ -0,0 +1,97 @@
+package com.khomsi.backend.checkout;
+
+import com.khomsi.backend.additional.wishlist.service.WishlistService;
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.main.checkout.event.TransactionCompletedEvent;
+import com.khomsi.backend.main.checkout.event.TransactionCompletedListener;
+import com.khomsi.backend.main.checkout.event.TransactionEventProperties;
+import com.khomsi.backend.main.checkout.model.enums.BalanceAction;
+import com.khomsi.backend.main.game.service.GameSalesRankingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+// Side effects of a completion start only once it has committed, never for a rolled back one, and still run when
+// the completion commits while the application is stopping
+@TestPropertySource(properties = "app.checkout.events.workers=1")
+class TransactionCompletedListenerTest extends BaseIntegration {
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @MockBean
+    private GameSalesRankingService gameSalesRankingService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void sideEffectsRunAfterCommit() {
+        TransactionCompletedEvent event = event();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event);
+            verify(gameSalesRankingService, never()).recordSales(event.gameIds(), event.completedAt());
+        });
+
+        verify(gameSalesRankingService, timeout(TIMEOUT_MILLIS)).recordSales(event.gameIds(), event.completedAt());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rolledBackCompletionHasNoSideEffects() {
+        TransactionCompletedEvent rolledBack = event();
+        TransactionCompletedEvent committed = event();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(rolledBack);
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(committed));
+
+        // One worker runs the side effects in order, once the later one ran the earlier one would have too
+        verify(gameSalesRankingService, timeout(TIMEOUT_MILLIS))
+                .recordSales(committed.gameIds(), committed.completedAt());
+        verify(gameSalesRankingService, never()).recordSales(rolledBack.gameIds(), rolledBack.completedAt());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void completionAfterShutdownRunsOnTheCaller() throws InterruptedException {
+        GameSalesRankingService salesRanking = mock(GameSalesRankingService.class);
+        TransactionCompletedListener listener = new TransactionCompletedListener(mock(WishlistService.class),
+                salesRanking, new TransactionEventProperties(), transactionManager, new SimpleMeterRegistry());
+        listener.shutdown();
+        TransactionCompletedEvent event = event();
+
+        listener.onTransactionCompleted(event);
+
+        verify(salesRanking).recordSales(event.gameIds(), event.completedAt());
+    }
+
+    // Distinct game ids per event, so the verifications tell the events apart
+    private static TransactionCompletedEvent event() {
+        long gameId = UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE;
+        return new TransactionCompletedEvent(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                BalanceAction.NO_ACTION, BigDecimal.TEN, List.of(gameId), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,244 @@
+package com.khomsi.backend.checkout;
+
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.config.TestData;
+import com.khomsi.backend.main.checkout.model.enums.BalanceAction;
+import com.khomsi.backend.main.checkout.model.enums.PaymentMethod;
+import com.khomsi.backend.main.checkout.service.TransactionService;
+import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import com.khomsi.backend.main.user.model.dto.FullUserInfoDTO;
+import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.repository.UserInfoRepository;
+import com.khomsi.backend.main.user.service.UserInfoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+// A balance payment reserves what the provider does not charge when placed and is rejected when the balance no longer
+// covers it, completing it any number of times queues the email and grants games once without touching the balance
+// again, an order left unpaid gives the reserved balance back, and a payment that arrives after that is kept as balance
+@TestPropertySource(properties = {
+        "app.mail.enabled=true",
+        "app.mail.outbox.poll-interval=PT1H",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025"
+})
+class TransactionCompletionTest extends BaseIntegration {
+    private static final int THREADS = 8;
+    private static final int GAMES = 3;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("5.00");
+    private static final BigDecimal GAME_PRICE = new BigDecimal("10.00");
+    // Charged by the provider, the opening balance pays the rest of the three games
+    private static final BigDecimal CHARGED = new BigDecimal("25.00");
+
+    @MockBean
+    private UserInfoService userInfoService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private UserInfoRepository userInfoRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TestData testData;
+
+    private String userId;
+    private String sessionId;
+
+    @BeforeEach
+    void placeTransaction() {
+        userId = testData.createUser(OPENING_BALANCE);
+        UserInfo user = userInfoRepository.findUserInfoByExternalId(userId);
+        when(userInfoService.getUserInfo()).thenReturn(user);
+        when(userInfoService.getCurrentUser()).thenReturn(FullUserInfoDTO.builder().externalId(userId).build());
+        testData.addToCart(userId, testData.createGames(GAMES, GAME_PRICE));
+        sessionId = UUID.randomUUID().toString();
+        transactionService.placeTemporaryTransaction(CHARGED, sessionId, null,
+                BalanceAction.PAYMENT_WITH_BALANCE, PaymentMethod.ALIPAY);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteCreated();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void placedOrderReservesTheBalance() {
+        assertEquals(1, ledgerEntries("PURCHASE"));
+        assertEquals(0, OPENING_BALANCE.compareTo(usedBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(testData.balance(userId)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void orderIsRejectedWhenTheBalanceNoLongerCoversTheRest() {
+        testData.addToCart(userId, testData.createGames(GAMES, GAME_PRICE));
+        String otherSessionId = UUID.randomUUID().toString();
+
+        // The first order took the whole balance after this bill was computed
+        GlobalServiceException exception = assertThrows(GlobalServiceException.class, () ->
+                transactionService.placeTemporaryTransaction(CHARGED, otherSessionId, null,
+                        BalanceAction.PAYMENT_WITH_BALANCE, PaymentMethod.ALIPAY));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertNotPlaced(otherSessionId);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void orderIsRejectedWhenTheChargeExceedsTheCart() {
+        testData.addToCart(userId, testData.createGames(1, GAME_PRICE));
+        String otherSessionId = UUID.randomUUID().toString();
+
+        GlobalServiceException exception = assertThrows(GlobalServiceException.class, () ->
+                transactionService.placeTemporaryTransaction(CHARGED, otherSessionId, null,
+                        BalanceAction.PAYMENT_WITH_BALANCE, PaymentMethod.ALIPAY));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertNotPlaced(otherSessionId);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void expiredOrderGivesTheBalanceBack() {
+        assertTrue(transactionService.expireTransaction(sessionId));
+
+        assertEquals(0, OPENING_BALANCE.compareTo(testData.balance(userId)));
+        assertEquals(1, ledgerEntries("REFUND"));
+        assertEquals(GAMES, testData.count("SELECT COUNT(*) FROM cart WHERE users_id = ?", userId));
+        // Kept as expired, a repeated expiry finds nothing and refunds nothing again
+        assertEquals(1, testData.count("""
+                SELECT COUNT(*) FROM transactions WHERE transaction_id = ? AND paid = 0 AND expired_at IS NOT NULL
+                """, sessionId));
+        assertFalse(transactionService.expireTransaction(sessionId));
+        assertEquals(0, OPENING_BALANCE.compareTo(testData.balance(userId)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void paymentAfterExpiryIsRefundedToTheBalance() {
+        double refundedBefore = latePayments("refunded");
+        assertTrue(transactionService.expireTransaction(sessionId));
+
+        transactionService.completeTransaction(sessionId);
+        transactionService.completeTransaction(sessionId);
+
+        // Recorded as paid, the charge is kept as balance once and the games stay in the cart
+        assertTrue(jdbcTemplate.queryForObject("SELECT paid FROM transactions WHERE transaction_id = ?",
+                Boolean.class, sessionId));
+        assertEquals(0, OPENING_BALANCE.add(CHARGED).compareTo(testData.balance(userId)));
+        assertEquals(2, ledgerEntries("REFUND"));
+        assertEquals(0, testData.count("SELECT COUNT(*) FROM user_has_games WHERE users_id = ?", userId));
+        assertEquals(GAMES, testData.count("SELECT COUNT(*) FROM cart WHERE users_id = ?", userId));
+        assertEquals(1, latePayments("refunded") - refundedBefore);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void paymentOfUnknownTransactionIsRejected() {
+        double unknownBefore = latePayments("unknown");
+
+        GlobalServiceException exception = assertThrows(GlobalServiceException.class, () ->
+                transactionService.completeTransaction(UUID.randomUUID().toString()));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals(1, latePayments("unknown") - unknownBefore);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void repeatedCompletionHasNoEffect() {
+        transactionService.completeTransaction(sessionId);
+        transactionService.completeTransaction(sessionId);
+
+        assertCompletedOnce();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentCompletionsCompleteOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> completions = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                completions.add(executor.submit(() -> {
+                    start.await();
+                    transactionService.completeTransaction(sessionId);
+                    return null;
+                }));
+            }
+            start.countDown();
+            // Losers wait on the winner's row lock and return once it has committed, none of them fails
+            for (Future<?> completion : completions) {
+                completion.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertCompletedOnce();
+    }
+
+    // Rolled back as a whole: no order, no reservation and the cart is kept
+    private void assertNotPlaced(String otherSessionId) {
+        assertEquals(0, testData.count("SELECT COUNT(*) FROM transactions WHERE transaction_id = ?",
+                otherSessionId));
+        assertEquals(0, testData.count("SELECT COUNT(*) FROM balance_ledger WHERE reference = ?", otherSessionId));
+        assertEquals(0, BigDecimal.ZERO.compareTo(testData.balance(userId)));
+        assertTrue(testData.count("SELECT COUNT(*) FROM cart WHERE users_id = ?", userId) > 0);
+    }
+
+    private void assertCompletedOnce() {
+        assertTrue(jdbcTemplate.queryForObject("SELECT paid FROM transactions WHERE transaction_id = ?",
+                Boolean.class, sessionId));
+        assertEquals(1, ledgerEntries("PURCHASE"));
+        assertEquals(0, BigDecimal.ZERO.compareTo(testData.balance(userId)));
+        assertEquals(1, testData.count("SELECT COUNT(*) FROM email_outbox WHERE recipient = ?",
+                TestData.email(userId)));
+        assertEquals(GAMES, testData.count("SELECT COUNT(*) FROM user_has_games WHERE users_id = ?", userId));
+    }
+
+    private double latePayments(String outcome) {
+        Counter counter = meterRegistry.find("payment.late").tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private long ledgerEntries(String operation) {
+        return testData.count("SELECT COUNT(*) FROM balance_ledger WHERE users_id = ? AND operation = ?", userId,
+                operation);
+    }
+
+    private BigDecimal usedBalance() {
+        return jdbcTemplate.queryForObject("SELECT used_balance FROM transactions WHERE transaction_id = ?",
+                BigDecimal.class, sessionId);
+    }
+}
@@ -0,0 +1,152 @@
+package com.khomsi.backend.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Users and games for integration tests, written with plain JDBC. Inside the test transaction they roll back with it;
+ * tests that commit call {@link #deleteCreated()} afterwards, which removes the created rows and everything that
+ * references them.
+ */
+@Component
+public class TestData {
+    private static final long AWAIT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final String USER_ROWS = """
+            DELETE FROM email_outbox WHERE recipient IN (SELECT email FROM users WHERE id = ?);
+            DELETE FROM balance_ledger WHERE users_id = ?;
+            DELETE FROM user_has_games WHERE users_id = ?;
+            DELETE FROM cart WHERE users_id = ?;
+            DELETE FROM wishlist WHERE users_id = ?;
+            DELETE FROM reviews WHERE users_id = ?;
+            DELETE tg FROM transaction_games tg JOIN transactions t ON t.transaction_id = tg.transactions_id
+                WHERE t.users_id = ?;
+            DELETE FROM transactions WHERE users_id = ?;
+            DELETE FROM users WHERE id = ?
+            """;
+    private static final String GAME_ROWS = """
+            DELETE FROM games_has_genres WHERE games_id = ?;
+            DELETE FROM games_has_tags WHERE games_id = ?;
+            DELETE FROM games_has_platforms WHERE games_id = ?;
+            DELETE FROM game_medias WHERE games_id = ?;
+            DELETE FROM game_rating_stats WHERE game_id = ?;
+            DELETE FROM reviews WHERE games_id = ?;
+            DELETE FROM wishlist WHERE games_id = ?;
+            DELETE FROM cart WHERE games_id = ?;
+            DELETE FROM user_has_games WHERE games_id = ?;
+            DELETE FROM transaction_games WHERE games_id = ?;
+            DELETE FROM games WHERE game_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<String> users = ConcurrentHashMap.newKeySet();
+    private final Set<Long> games = ConcurrentHashMap.newKeySet();
+
+    public TestData(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public String createUser(BigDecimal balance) {
+        String userId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, balance) VALUES (?, ?, ?, ?)",
+                userId, "user-" + userId, email(userId), balance);
+        track(users, List.of(userId));
+        return userId;
+    }
+
+    public static String email(String userId) {
+        return userId + "@localhost";
+    }
+
+    public List<Long> createGames(int count, BigDecimal price) {
+        return createGames(count, price, BigDecimal.ZERO);
+    }
+
+    // Fresh ids above every existing game, with the first developer and publisher
+    public List<Long> createGames(int count, BigDecimal price, BigDecimal discount) {
+        Long developerId = jdbcTemplate.queryForObject("SELECT MIN(developer_id) FROM developers", Long.class);
+        Long publisherId = jdbcTemplate.queryForObject("SELECT MIN(publisher_id) FROM publishers", Long.class);
+        Long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(game_id), 0) + 1 FROM games", Long.class);
+        List<Long> gameIds = new ArrayList<>(count);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long gameId = firstId + i;
+            gameIds.add(gameId);
+            rows.add(new Object[]{gameId, "Test game " + gameId, price, discount, developerId, publisherId});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO games (game_id, title, price, discount, release_date, developer_id, publisher_id)
+                VALUES (?, ?, ?, ?, CURRENT_DATE, ?, ?)
+                """, rows);
+        track(games, gameIds);
+        return gameIds;
+    }
+
+    public void addToCart(String userId, Collection<Long> gameIds) {
+        jdbcTemplate.batchUpdate("INSERT INTO cart (users_id, games_id, created_date) VALUES (?, ?, CURRENT_DATE)",
+                gameIds.stream()
+                        .map(gameId -> new Object[]{userId, gameId})
+                        .toList());
+    }
+
+    public long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    public BigDecimal balance(String userId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM users WHERE id = ?", BigDecimal.class, userId);
+    }
+
+    // For state updated in the background: reads until the condition holds and returns that value
+    public static <T> T await(Supplier<T> read, Predicate<T> condition) {
+        long deadline = System.currentTimeMillis() + AWAIT_MILLIS;
+        while (true) {
+            T value = read.get();
+            if (condition.test(value)) {
+                return value;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                return Assertions.fail("Condition not met in time, last value " + value);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Assertions.fail("Interrupted while waiting", e);
+            }
+        }
+    }
+
+    // Users first, their orders reference the games
+    public void deleteCreated() {
+        users.forEach(userId -> deleteRows(USER_ROWS, userId));
+        games.forEach(gameId -> deleteRows(GAME_ROWS, gameId));
+        users.clear();
+        games.clear();
+    }
+
+    // Rows written in a transaction go away with its rollback, their ids may be taken again by committed rows
+    private static <T> void track(Set<T> created, Collection<T> ids) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            created.addAll(ids);
+        }
+    }
+
+    private void deleteRows(String statements, Object id) {
+        for (String statement : statements.split(";")) {
+            jdbcTemplate.update(statement, id);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.khomsi.backend.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.utils.email.model.entity.EmailOutbox;
+import com.khomsi.backend.main.utils.email.model.enums.EmailOutboxStatus;
+import com.khomsi.backend.main.utils.email.repository.EmailOutboxRepository;
+import com.khomsi.backend.main.utils.email.service.EmailOutboxService;
+import com.khomsi.backend.main.utils.email.service.EmailService;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Outbox rows are written with the caller's transaction and delivered to a local GreenMail SMTP server
+@TestPropertySource(properties = {
+        "app.mail.enabled=true",
+        "app.mail.outbox.batch-size=3",
+        "app.mail.outbox.workers=2",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=grid@localhost",
+        "spring.mail.password=secret",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false"
+})
+class EmailOutboxTest extends BaseIntegration {
+    private static final int EMAILS = 7;
+
+    @RegisterExtension
+    static final GreenMailExtension GREEN_MAIL = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void queuedEmailsAreSentInBatches() {
+        for (int i = 0; i < EMAILS; i++) {
+            emailService.sendWarningEmail("Notification " + i, user("player" + i + "@localhost"));
+        }
+
+        emailOutboxService.drain();
+
+        assertTrue(GREEN_MAIL.waitForIncomingEmail(5000, EMAILS));
+        MimeMessage[] received = GREEN_MAIL.getReceivedMessages();
+        assertEquals(EMAILS, received.length);
+        List<EmailOutbox> outbox = emailOutboxRepository.findAll();
+        assertEquals(EMAILS, outbox.size());
+        assertTrue(outbox.stream().allMatch(email -> email.getStatus() == EmailOutboxStatus.SENT));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rolledBackEmailIsNeverSent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendWarningEmail("Never sent", user("rollback@localhost"));
+            status.setRollbackOnly();
+        });
+
+        emailOutboxService.drain();
+
+        assertEquals(0, emailOutboxRepository.count());
+        assertEquals(0, GREEN_MAIL.getReceivedMessages().length);
+    }
+
+    private static UserInfo user(String email) {
+        UserInfo user = new UserInfo();
+        user.setEmail(email);
+        return user;
+    }
+}
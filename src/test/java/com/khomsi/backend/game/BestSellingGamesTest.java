@@ -0,0 +1,68 @@
+package com.khomsi.backend.game;
+
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.main.game.model.dto.CatalogGame;
+import com.khomsi.backend.main.game.model.dto.PopularGameModel;
+import com.khomsi.backend.main.game.service.GameCatalogService;
+import com.khomsi.backend.main.game.service.GameSalesRankingService;
+import com.khomsi.backend.main.game.service.GameService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+// Popular games while only a few games have sales: the ranked ones first, then distinct random games up to qty
+class BestSellingGamesTest extends BaseIntegration {
+    private static final int QTY = 20;
+    private static final Long UNKNOWN_GAME_ID = -1L;
+
+    @MockBean
+    private GameSalesRankingService gameSalesRankingService;
+    @Autowired
+    private GameCatalogService gameCatalogService;
+    @Autowired
+    private GameService gameService;
+
+    @Test
+    void fewSalesAreToppedUpToQty() {
+        int qty = Math.min(QTY, gameCatalogService.size());
+        List<Long> topSellers = gameCatalogService.getRandomGames(2).stream()
+                .map(CatalogGame::id)
+                .toList();
+        when(gameSalesRankingService.getTopSellingGameIds(anyInt())).thenReturn(topSellers);
+
+        // Repeated, the random top-up would sooner or later draw a best-seller again
+        for (int i = 0; i < 50; i++) {
+            List<Long> popular = gameService.getPopularQtyOfGames(qty).stream()
+                    .map(PopularGameModel::id)
+                    .toList();
+
+            assertEquals(qty, popular.size());
+            assertEquals(qty, new HashSet<>(popular).size());
+            assertEquals(topSellers, popular.subList(0, topSellers.size()));
+        }
+    }
+
+    @Test
+    void rankedGamesMissingFromTheCatalogAreReplaced() {
+        int qty = Math.min(QTY, gameCatalogService.size());
+        Long topSeller = gameCatalogService.getRandomGames(1).get(0).id();
+        when(gameSalesRankingService.getTopSellingGameIds(anyInt())).thenReturn(List.of(UNKNOWN_GAME_ID, topSeller));
+
+        List<Long> popular = gameService.getPopularQtyOfGames(qty).stream()
+                .map(PopularGameModel::id)
+                .toList();
+
+        assertEquals(qty, popular.size());
+        assertEquals(qty, new HashSet<>(popular).size());
+        assertEquals(topSeller, popular.get(0));
+        assertFalse(popular.contains(UNKNOWN_GAME_ID));
+    }
+}
@@ -0,0 +1,126 @@
+package com.khomsi.backend.game;
+
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.config.TestData;
+import com.khomsi.backend.main.game.service.CatalogVersionService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Conditional GET of an anonymous catalog endpoint: the validators of a response answer its revalidation with 304,
+// and a bump, on this node or written to the shared row by another one, makes them stale
+class CatalogHttpCacheTest extends BaseIntegration {
+    private static final String URL = "/api/v1/tags";
+
+    @Autowired
+    private WebApplicationContext context;
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    // Index rebuilds of earlier tests may still bump in the background, so a revalidation is retried with fresh
+    // validators until nothing changed in between
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void matchingETagIsNotModified() {
+        TestData.await(() -> {
+            String etag = fetch().getHeader(HttpHeaders.ETAG);
+            assertTrue(etag.startsWith("W/\"catalog-"), etag);
+            return status(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag));
+        }, status -> status == HttpStatus.NOT_MODIFIED.value());
+        // The strong form of the tag matches too, some proxies drop the weak prefix
+        TestData.await(() -> {
+            String etag = fetch().getHeader(HttpHeaders.ETAG);
+            return status(get(URL).header(HttpHeaders.IF_NONE_MATCH, etag.substring(2)));
+        }, status -> status == HttpStatus.NOT_MODIFIED.value());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void lastModifiedIsSentOnceItsSecondIsOver() {
+        catalogVersionService.bump();
+        // Within the second of the change even a date in the future can't vouch for it, the response is rendered
+        // and has no Last-Modified; only once the second is over the date is sent and trusted
+        MockHttpServletResponse changedNow = response(get(URL)
+                .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 31 Dec 2100 23:59:59 GMT"));
+        assertEquals(changedNow.getStatus() == HttpStatus.OK.value(),
+                changedNow.getHeader(HttpHeaders.LAST_MODIFIED) == null);
+
+        TestData.await(() -> {
+            MockHttpServletResponse response = TestData.await(this::fetch,
+                    fetched -> fetched.getHeader(HttpHeaders.LAST_MODIFIED) != null);
+            String lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+            return status(get(URL).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified));
+        }, status -> status == HttpStatus.NOT_MODIFIED.value());
+
+        MockHttpServletResponse response = fetch();
+        long lastModified = response.getDateHeader(HttpHeaders.LAST_MODIFIED);
+        assertEquals(HttpStatus.OK.value(), status(get(URL)
+                .header(HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.formatDate(lastModified - 1000))));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bumpInvalidatesTheValidators() {
+        String before = fetch().getHeader(HttpHeaders.ETAG);
+
+        catalogVersionService.bump();
+
+        MockHttpServletResponse response = response(get(URL).header(HttpHeaders.IF_NONE_MATCH, before));
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertNotEquals(before, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bumpOfAnotherNodeIsPickedUp() {
+        String before = fetch().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("UPDATE catalog_version SET version = version + 1 WHERE id = 1");
+
+        // This node re-reads the shared row once its copy is a second old
+        TestData.await(() -> status(get(URL).header(HttpHeaders.IF_NONE_MATCH, before)),
+                status -> status == HttpStatus.OK.value());
+    }
+
+    private MockHttpServletResponse fetch() {
+        MockHttpServletResponse response = response(get(URL));
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        return response;
+    }
+
+    private int status(MockHttpServletRequestBuilder request) {
+        return response(request).getStatus();
+    }
+
+    private MockHttpServletResponse response(MockHttpServletRequestBuilder request) {
+        try {
+            return mockMvc.perform(request).andReturn().getResponse();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
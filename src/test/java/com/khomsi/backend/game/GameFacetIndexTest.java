@@ -0,0 +1,183 @@
+package com.khomsi.backend.game;
+
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.config.TestData;
+import com.khomsi.backend.main.game.model.dto.FacetCount;
+import com.khomsi.backend.main.game.model.dto.FacetSearchResult;
+import com.khomsi.backend.main.game.model.dto.GameCriteria;
+import com.khomsi.backend.main.game.model.event.GameCatalogChangedEvent;
+import com.khomsi.backend.main.game.service.GameFacetIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Facet counts of a few committed games, narrowed to them by id: filters combine, every dimension is counted without
+// its own filter, the price limit applies to the discounted price, and a change of one game is picked up alone
+class GameFacetIndexTest extends BaseIntegration {
+    private static final Sort BY_PRICE = Sort.by(Sort.Order.asc("effectivePrice"), Sort.Order.asc("id"));
+    // Price, discount and the effective price that follows from them
+    private static final String[][] PRICES = {
+            {"10.00", "0.00"},  // 10.00
+            {"20.00", "50.00"}, // 10.00
+            {"25.00", "20.00"}, // 20.00
+            {"30.00", "0.00"},  // 30.00
+            {"40.00", "0.00"}   // 40.00
+    };
+
+    @Autowired
+    private GameFacetIndex gameFacetIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestData testData;
+
+    private List<Long> gameIds;
+    private long firstTag;
+    private long secondTag;
+    private Map<String, Object> firstGenre;
+    private Map<String, Object> secondGenre;
+
+    // Tags: games 0, 1, 2 have the first, games 0, 2, 3 the second. Genres: games 0, 1 the first, the rest the second
+    @BeforeEach
+    void seedGames() {
+        List<Long> tagIds = jdbcTemplate.queryForList("SELECT tag_id FROM tags ORDER BY tag_id LIMIT 2", Long.class);
+        firstTag = tagIds.get(0);
+        secondTag = tagIds.get(1);
+        // Genre filters match names by substring, so neither name may be part of another one
+        List<Map<String, Object>> genres = jdbcTemplate.queryForList("""
+                SELECT g.genre_id AS id, g.name AS name FROM genres g WHERE NOT EXISTS (
+                    SELECT 1 FROM genres o WHERE o.genre_id <> g.genre_id AND LOCATE(LOWER(g.name), LOWER(o.name)) > 0)
+                ORDER BY g.genre_id LIMIT 2
+                """);
+        firstGenre = genres.get(0);
+        secondGenre = genres.get(1);
+
+        gameIds = testData.createGames(PRICES.length, BigDecimal.TEN);
+        for (int i = 0; i < PRICES.length; i++) {
+            jdbcTemplate.update("UPDATE games SET price = ?, discount = ? WHERE game_id = ?",
+                    new BigDecimal(PRICES[i][0]), new BigDecimal(PRICES[i][1]), gameIds.get(i));
+            jdbcTemplate.update("INSERT INTO games_has_genres (games_id, genres_id) VALUES (?, ?)",
+                    gameIds.get(i), (i < 2 ? firstGenre : secondGenre).get("id"));
+        }
+        tag(firstTag, 0, 1, 2);
+        tag(secondTag, 0, 2, 3);
+        gameIds.forEach(gameId -> eventPublisher.publishEvent(GameCatalogChangedEvent.forGame(gameId)));
+        await(criteria(), result -> result.totalItems() == PRICES.length);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteCreated();
+        gameIds.forEach(gameId -> eventPublisher.publishEvent(GameCatalogChangedEvent.forGame(gameId)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void filtersCombineAndDimensionsAreCountedWithoutTheirOwnFilter() {
+        GameCriteria criteria = criteria();
+        criteria.setTags(List.of((int) firstTag, (int) secondTag));
+        criteria.setGenres((String) firstGenre.get("name"));
+
+        FacetSearchResult result = search(criteria);
+
+        assertEquals(List.of(gameIds.get(0)), result.gameIds());
+        assertEquals(1, result.totalItems());
+        // Tags narrow the match, both tags are on the one matching game
+        assertEquals(Map.of(firstTag, 1, secondTag, 1), counts(result.facets().tags()));
+        // Genres are counted over the games with both tags, games 0 and 2
+        assertEquals(Map.of(genreId(firstGenre), 1, genreId(secondGenre), 1), counts(result.facets().genres()));
+        assertEquals(List.of(1), result.facets().developers().stream().map(FacetCount::count).toList());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void priceLimitAppliesToTheDiscountedPrice() {
+        assertEquals(gameIds.subList(0, 2), search(withMaxPrice("10.00")).gameIds());
+        assertEquals(gameIds.subList(0, 3), search(withMaxPrice("29.99")).gameIds());
+        assertEquals(gameIds, search(withMaxPrice("40.00")).gameIds());
+        assertTrue(search(withMaxPrice("9.99")).gameIds().isEmpty());
+
+        GameCriteria byDiscount = criteria();
+        List<Long> mostDiscounted = gameFacetIndex.search(byDiscount, Sort.by(Sort.Order.desc("discount")))
+                .orElseThrow()
+                .gameIds();
+        assertEquals(List.of(gameIds.get(1), gameIds.get(2)), mostDiscounted.subList(0, 2));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void changeOfOneGameIsPickedUp() {
+        GameCriteria tagged = criteria();
+        tagged.setTags(List.of((int) firstTag));
+        assertEquals(gameIds.subList(0, 3), search(tagged).gameIds());
+
+        tag(firstTag, 3);
+        eventPublisher.publishEvent(GameCatalogChangedEvent.forGame(gameIds.get(3)));
+        FacetSearchResult retagged = await(tagged, result -> result.totalItems() == 4);
+        assertEquals(gameIds.subList(0, 4), retagged.gameIds());
+
+        jdbcTemplate.update("UPDATE games SET active = 0 WHERE game_id = ?", gameIds.get(0));
+        eventPublisher.publishEvent(GameCatalogChangedEvent.forGame(gameIds.get(0)));
+        FacetSearchResult hidden = await(tagged, result -> result.totalItems() == 3);
+        assertEquals(gameIds.subList(1, 4), hidden.gameIds());
+        assertEquals(3, counts(hidden.facets().tags()).get(firstTag));
+        assertEquals(Map.of(genreId(firstGenre), 1, genreId(secondGenre), 2), counts(hidden.facets().genres()));
+    }
+
+    private void tag(long tagId, int... games) {
+        for (int game : games) {
+            jdbcTemplate.update("INSERT INTO games_has_tags (tags_id, games_id) VALUES (?, ?)", tagId,
+                    gameIds.get(game));
+        }
+    }
+
+    // Only the games of this test, sorted by price
+    private GameCriteria criteria() {
+        GameCriteria criteria = new GameCriteria();
+        criteria.setSize(PRICES.length);
+        criteria.setId(gameIds.stream().map(Long::intValue).toList());
+        return criteria;
+    }
+
+    private GameCriteria withMaxPrice(String maxPrice) {
+        GameCriteria criteria = criteria();
+        criteria.setMaxPrice(new BigDecimal(maxPrice));
+        return criteria;
+    }
+
+    private FacetSearchResult search(GameCriteria criteria) {
+        return gameFacetIndex.search(criteria, BY_PRICE).orElseThrow();
+    }
+
+    // The index applies changes in the background
+    private FacetSearchResult await(GameCriteria criteria, Predicate<FacetSearchResult> condition) {
+        return TestData.await(() -> gameFacetIndex.search(criteria, BY_PRICE),
+                        result -> result.isPresent() && condition.test(result.get()))
+                .orElseThrow();
+    }
+
+    private static Map<Long, Integer> counts(List<FacetCount> facetCounts) {
+        return facetCounts.stream().collect(Collectors.toMap(FacetCount::id, FacetCount::count));
+    }
+
+    private static long genreId(Map<String, Object> genre) {
+        return ((Number) genre.get("id")).longValue();
+    }
+}
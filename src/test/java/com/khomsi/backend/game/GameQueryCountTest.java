@@ -0,0 +1,72 @@
+package com.khomsi.backend.game;
+
+import com.khomsi.backend.config.BaseIntegration;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Statements issued per catalog endpoint, must not grow with the page size
+@Slf4j
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class GameQueryCountTest extends BaseIntegration {
+    // page/count query + one batch per collection + max price
+    private static final long MAX_STATEMENTS = 8;
+
+    @Autowired
+    private WebApplicationContext context;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+    private String genreName;
+
+    @BeforeAll
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        genreName = jdbcTemplate.queryForObject("SELECT name FROM genres ORDER BY genre_id LIMIT 1", String.class);
+    }
+
+    @Test
+    void gamesPageUsesBoundedStatements() throws Exception {
+        assertBounded("/api/v1/games?page=0&size=5");
+        assertBounded("/api/v1/games?page=0&size=50");
+    }
+
+    @Test
+    void gamesByGenreUseBoundedStatements() throws Exception {
+        assertBounded("/api/v1/games/genre?genre={genre}&qty=5", genreName);
+        assertBounded("/api/v1/games/genre?genre={genre}&qty=50", genreName);
+    }
+
+    @Test
+    void specialOffersUseBoundedStatements() throws Exception {
+        assertBounded("/api/v1/games/offers?query=discount&qty=50");
+        assertBounded("/api/v1/games/offers?query={query}&qty=50", "release date");
+    }
+
+    private void assertBounded(String url, Object... uriVariables) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url, uriVariables)).andExpect(status().isOk());
+        long statements = statistics.getPrepareStatementCount();
+
+        log.info("{}: {} statements", url, statements);
+        assertTrue(statements <= MAX_STATEMENTS, url + " issued " + statements + " statements");
+    }
+}
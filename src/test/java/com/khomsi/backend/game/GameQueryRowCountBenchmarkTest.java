@@ -0,0 +1,93 @@
+package com.khomsi.backend.game;
+
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.main.game.GameRepository;
+import com.khomsi.backend.main.game.model.entity.Game;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Rows materialized by the genre and special offers queries before and after the limit was pushed into SQL
+@Slf4j
+class GameQueryRowCountBenchmarkTest extends BaseIntegration {
+    private static final int GAMES = 100_000;
+    private static final int QTY = 5;
+
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String genreName;
+
+    // Seeded in the test transaction, rolled back after every test so other test classes never see these games
+    @BeforeEach
+    void seedGames() {
+        Long developerId = jdbcTemplate.queryForObject("SELECT MIN(developer_id) FROM developers", Long.class);
+        Long publisherId = jdbcTemplate.queryForObject("SELECT MIN(publisher_id) FROM publishers", Long.class);
+        List<Long> genreIds = jdbcTemplate.queryForList("SELECT genre_id FROM genres ORDER BY genre_id LIMIT 4",
+                Long.class);
+        genreName = jdbcTemplate.queryForObject("SELECT name FROM genres WHERE genre_id = ?", String.class,
+                genreIds.get(0));
+        Long firstId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(game_id), 0) + 1 FROM games", Long.class);
+
+        List<Object[]> games = new ArrayList<>(GAMES);
+        List<Object[]> genres = new ArrayList<>();
+        for (int i = 0; i < GAMES; i++) {
+            long gameId = firstId + i;
+            games.add(new Object[]{gameId, "Benchmark game " + i, i % 3 == 0 ? 25 : 0, developerId, publisherId});
+            // 1 to 4 genres per game, every one of them has the first genre
+            for (int g = 0; g <= i % genreIds.size(); g++) {
+                genres.add(new Object[]{gameId, genreIds.get(g)});
+            }
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO games (game_id, title, price, discount, release_date, developer_id, publisher_id)
+                VALUES (?, ?, 10.00, ?, CURRENT_DATE, ?, ?)
+                """, games);
+        jdbcTemplate.batchUpdate("INSERT INTO games_has_genres (games_id, genres_id) VALUES (?, ?)", genres);
+    }
+
+    @Test
+    void genreQueryFetchesOnlyRequestedRows() {
+        int before = entityManager.createQuery(
+                        "SELECT g FROM Game g JOIN g.genres genre WHERE genre.name = :genre AND g.active = true", Game.class)
+                .setParameter("genre", genreName)
+                .getResultList().size();
+        int after = gameRepository.findGamesByGenre(genreName, 3, PageRequest.of(0, QTY)).size();
+
+        log.info("Games by genre: {} rows fetched before, {} after", before, after);
+        assertTrue(before >= GAMES);
+        assertTrue(after <= QTY);
+    }
+
+    @Test
+    void specialOffersFetchOnlyRequestedRows() {
+        int releaseBefore = entityManager.createQuery(
+                        "SELECT game FROM Game game WHERE game.active = true ORDER BY game.releaseDate DESC", Game.class)
+                .getResultList().size();
+        int releaseAfter = gameRepository.findGamesByEarliestReleaseDate(PageRequest.of(0, QTY)).size();
+        int discountBefore = entityManager.createQuery(
+                        "SELECT game FROM Game game WHERE game.discount > 0 AND game.active = true", Game.class)
+                .getResultList().size();
+        int discountAfter = gameRepository.findGamesWithDiscount(PageRequest.of(0, QTY)).size();
+
+        log.info("Release date offers: {} rows fetched before, {} after", releaseBefore, releaseAfter);
+        log.info("Discount offers: {} rows fetched before, {} after", discountBefore, discountAfter);
+        assertTrue(releaseBefore >= GAMES);
+        assertTrue(releaseAfter <= QTY);
+        assertTrue(discountBefore >= GAMES / 3);
+        assertTrue(discountAfter <= QTY);
+    }
+}
@@ -0,0 +1,141 @@
+package com.khomsi.backend.game;
+
+import com.khomsi.backend.additional.review.model.dto.GameRatingSummary;
+import com.khomsi.backend.additional.review.model.dto.ReviewRequest;
+import com.khomsi.backend.additional.review.service.GameRatingService;
+import com.khomsi.backend.additional.review.service.ReviewService;
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.config.TestData;
+import com.khomsi.backend.main.game.model.dto.GameCriteria;
+import com.khomsi.backend.main.game.model.dto.ShortGameModel;
+import com.khomsi.backend.main.game.service.GameService;
+import com.khomsi.backend.main.user.model.dto.OwnedGameIds;
+import com.khomsi.backend.main.user.repository.UserInfoRepository;
+import com.khomsi.backend.main.user.service.UserInfoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// Creating, editing and deleting reviews moves the stored aggregate along with them, and sorting by rating keeps
+// games that have no aggregate yet, after all rated ones
+class GameRatingTest extends BaseIntegration {
+    @MockBean
+    private UserInfoService userInfoService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private GameRatingService gameRatingService;
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private UserInfoRepository userInfoRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestData testData;
+
+    private String currentUserId;
+
+    // Loaded in the transaction of the review write, which compares the author by identity
+    @BeforeEach
+    void mockCurrentUser() {
+        when(userInfoService.getUserInfo())
+                .thenAnswer(invocation -> userInfoRepository.findUserInfoByExternalId(currentUserId));
+        when(userInfoService.getOwnedGameIds(any())).thenReturn(OwnedGameIds.empty());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteCreated();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void reviewWritesMoveTheAggregate() {
+        Long gameId = testData.createGames(1, BigDecimal.TEN).get(0);
+        String first = owner(gameId);
+        String second = owner(gameId);
+        assertSummary(gameId, 0, null, Map.of());
+
+        currentUserId = first;
+        reviewService.addReview(gameId, new ReviewRequest("Good", 4));
+        currentUserId = second;
+        reviewService.addReview(gameId, new ReviewRequest("Bad", 2));
+        assertSummary(gameId, 2, "3.00", Map.of(4, 1L, 2, 1L));
+
+        currentUserId = first;
+        reviewService.editReview(reviewId(first, gameId), new ReviewRequest("Great", 5));
+        assertSummary(gameId, 2, "3.50", Map.of(5, 1L, 2, 1L));
+
+        currentUserId = second;
+        reviewService.deleteReview(reviewId(second, gameId));
+        assertSummary(gameId, 1, "5.00", Map.of(5, 1L));
+
+        currentUserId = first;
+        reviewService.deleteReview(reviewId(first, gameId));
+        assertSummary(gameId, 0, null, Map.of());
+    }
+
+    // Rolled back with the test transaction
+    @Test
+    void gamesWithoutReviewsAreSortedAfterRatedOnes() {
+        List<Long> gameIds = testData.createGames(4, BigDecimal.TEN);
+        gameRatingService.reviewAdded(gameIds.get(0), 5);
+        gameRatingService.reviewAdded(gameIds.get(1), 5);
+        gameRatingService.reviewAdded(gameIds.get(1), 5);
+        gameRatingService.reviewAdded(gameIds.get(3), 3);
+        GameCriteria criteria = new GameCriteria();
+        criteria.setId(gameIds.stream().map(Long::intValue).toList());
+        criteria.setSize(gameIds.size());
+        criteria.setSort(new String[]{"rating", "desc"});
+
+        List<Long> sorted = gameService.getExtendedGamesByPage(criteria, true).games().stream()
+                .map(ShortGameModel::id)
+                .toList();
+
+        // Equal averages, the game with more reviews first; the unrated game last
+        assertEquals(List.of(gameIds.get(1), gameIds.get(0), gameIds.get(3), gameIds.get(2)), sorted);
+    }
+
+    private String owner(Long gameId) {
+        String userId = testData.createUser(BigDecimal.ZERO);
+        jdbcTemplate.update("""
+                INSERT INTO user_has_games (users_id, games_id, purchase_date, playtime)
+                VALUES (?, ?, NOW(), '00:00:00')
+                """, userId, gameId);
+        return userId;
+    }
+
+    private Long reviewId(String userId, Long gameId) {
+        return jdbcTemplate.queryForObject("SELECT review_id FROM reviews WHERE users_id = ? AND games_id = ?",
+                Long.class, userId, gameId);
+    }
+
+    // Read through the cached summary, which the committed change must have evicted
+    private void assertSummary(Long gameId, long reviewCount, String averageRating, Map<Integer, Long> stars) {
+        GameRatingSummary summary = gameRatingService.getSummary(gameId);
+        assertEquals(reviewCount, summary.reviewCount());
+        if (averageRating == null) {
+            assertNull(summary.averageRating());
+        } else {
+            assertEquals(new BigDecimal(averageRating), summary.averageRating());
+        }
+        for (int rating = 1; rating <= 5; rating++) {
+            assertEquals(stars.getOrDefault(rating, 0L), summary.histogram().get(rating));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.khomsi.backend.game;
+
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.config.TestData;
+import com.khomsi.backend.main.admin.model.request.GameRequest;
+import com.khomsi.backend.main.admin.service.AdminGameService;
+import com.khomsi.backend.main.game.model.entity.PermitAge;
+import com.khomsi.backend.main.game.service.GameSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Title search ranks exact, prefix, word prefix, substring and scattered matches in that order, ignores case and
+// punctuation, and follows admin edits once they commit
+class GameSearchIndexTest extends BaseIntegration {
+    private static final int QTY = 20;
+
+    @Autowired
+    private GameSearchIndex gameSearchIndex;
+    @Autowired
+    private AdminGameService adminGameService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestData testData;
+
+    private String word;
+    private Long adminGameId;
+
+    // A made up word no seeded title contains
+    @BeforeEach
+    void pickWord() {
+        StringBuilder builder = new StringBuilder("zq");
+        ThreadLocalRandom.current().ints(6, 'a', 'z' + 1).forEach(builder::appendCodePoint);
+        word = builder.toString();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        if (adminGameId != null) {
+            adminGameService.deleteGame(adminGameId);
+            adminGameId = null;
+        }
+        testData.deleteCreated();
+        gameSearchIndex.requestRebuild();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void closerMatchesRankFirst() {
+        List<Long> expected = createGames(
+                word,
+                word + " Saga",
+                "The " + word + " Returns",
+                "Ultra" + word,
+                String.join("o", word.split("")));
+        gameSearchIndex.requestRebuild();
+
+        List<Long> found = awaitSearch(word, result -> result.containsAll(expected));
+
+        assertEquals(expected, found.stream().filter(expected::contains).toList());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void caseAndPunctuationAreIgnored() {
+        Long gameId = createGames("Half-Life: " + word).get(0);
+        gameSearchIndex.requestRebuild();
+
+        awaitSearch("halflife" + word, result -> result.contains(gameId));
+
+        assertEquals(gameId, gameSearchIndex.search("HALF LIFE " + word.toUpperCase(), QTY, false).get(0));
+        assertEquals(gameId, gameSearchIndex.search("half-life:" + word, QTY, false).get(0));
+        assertTrue(gameSearchIndex.search("!?-", QTY, false).isEmpty());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void adminEditIsSearchableOnceCommitted() {
+        String title = word + " Original";
+        adminGameService.addGameToDb(gameRequest(title));
+        adminGameId = jdbcTemplate.queryForObject("SELECT game_id FROM games WHERE title = ?", Long.class, title);
+        awaitSearch(title, result -> result.contains(adminGameId));
+
+        String renamed = word + " Remastered";
+        adminGameService.editGame(adminGameId, gameRequest(renamed));
+
+        awaitSearch(renamed, result -> result.contains(adminGameId));
+        assertFalse(gameSearchIndex.search(title, QTY, false).contains(adminGameId));
+    }
+
+    private List<Long> createGames(String... titles) {
+        List<Long> gameIds = testData.createGames(titles.length, BigDecimal.TEN);
+        for (int i = 0; i < titles.length; i++) {
+            jdbcTemplate.update("UPDATE games SET title = ? WHERE game_id = ?", titles[i], gameIds.get(i));
+        }
+        return gameIds;
+    }
+
+    // The index is rebuilt in the background
+    private List<Long> awaitSearch(String text, Predicate<List<Long>> condition) {
+        return TestData.await(() -> gameSearchIndex.search(text, QTY, false), condition);
+    }
+
+    private GameRequest gameRequest(String title) {
+        Long developerId = jdbcTemplate.queryForObject("SELECT MIN(developer_id) FROM developers", Long.class);
+        Long publisherId = jdbcTemplate.queryForObject("SELECT MIN(publisher_id) FROM publishers", Long.class);
+        return new GameRequest(title, "Description", LocalDate.now(), null, true, null, BigDecimal.TEN,
+                BigDecimal.ZERO, PermitAge.AGE_0, null, "https://localhost/banner.png", "https://localhost/trailer.mp4",
+                null, null, developerId, publisherId, Set.of(), Set.of(), Set.of());
+    }
+}
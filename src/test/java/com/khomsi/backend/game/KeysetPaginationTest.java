@@ -0,0 +1,134 @@
+package com.khomsi.backend.game;
+
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.config.TestData;
+import com.khomsi.backend.main.game.GameRepository;
+import com.khomsi.backend.main.game.model.entity.Game;
+import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import com.khomsi.backend.main.utils.KeysetCursor;
+import com.khomsi.backend.main.utils.KeysetPage;
+import com.khomsi.backend.main.utils.KeysetPagination;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Walking every page with the cursor returns each game once and in the same order as one sorted query, also when the
+// sort key is null or shared by games on both sides of a page boundary; foreign or broken cursors are rejected
+class KeysetPaginationTest extends BaseIntegration {
+    private static final int PAGE_SIZE = 2;
+    private static final LocalDate RELEASED = LocalDate.of(2020, 1, 1);
+
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestData testData;
+
+    private List<Long> gameIds;
+    private Specification<Game> createdGames;
+
+    // Two games without a release date, three on the same day and two on later days
+    @BeforeEach
+    void seedGames() {
+        gameIds = testData.createGames(7, BigDecimal.TEN);
+        LocalDate[] releaseDates = {null, RELEASED, RELEASED.plusDays(3), RELEASED, null, RELEASED.plusDays(1),
+                RELEASED};
+        for (int i = 0; i < gameIds.size(); i++) {
+            jdbcTemplate.update("UPDATE games SET release_date = ? WHERE game_id = ?",
+                    releaseDates[i] == null ? null : Date.valueOf(releaseDates[i]), gameIds.get(i));
+        }
+        createdGames = (root, query, criteriaBuilder) -> root.get("id").in(gameIds);
+    }
+
+    @Test
+    void ascendingPagesFollowTheSortedQuery() {
+        assertPagesMatchSortedQuery(Sort.Order.asc("releaseDate"));
+    }
+
+    @Test
+    void descendingPagesFollowTheSortedQuery() {
+        assertPagesMatchSortedQuery(Sort.Order.desc("releaseDate"));
+    }
+
+    @Test
+    void pagesByIdFollowTheSortedQuery() {
+        assertPagesMatchSortedQuery(Sort.Order.desc("id"));
+    }
+
+    @Test
+    void cursorSurvivesEncoding() {
+        KeysetCursor cursor = new KeysetCursor("title", Sort.Direction.ASC, "42", "Half|Life");
+        KeysetCursor withoutValue = new KeysetCursor("releaseDate", Sort.Direction.DESC, "7", null);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+        assertEquals(withoutValue, KeysetCursor.decode(withoutValue.encode()));
+    }
+
+    @Test
+    void cursorOfAnotherSortingIsRejected() {
+        Sort byReleaseDate = Sort.by(Sort.Order.asc("releaseDate"));
+        String cursor = findPage(byReleaseDate, null).nextCursor();
+        assertNotNull(cursor);
+
+        assertBadRequest(() -> findPage(Sort.by(Sort.Order.asc("price")), cursor));
+        assertBadRequest(() -> findPage(Sort.by(Sort.Order.desc("releaseDate")), cursor));
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        Sort byReleaseDate = Sort.by(Sort.Order.asc("releaseDate"));
+        String notAnId = new KeysetCursor("releaseDate", Sort.Direction.ASC, "abc", RELEASED.toString()).encode();
+        String notADate = new KeysetCursor("releaseDate", Sort.Direction.ASC, "1", "yesterday").encode();
+
+        assertBadRequest(() -> findPage(byReleaseDate, "not a cursor!"));
+        assertBadRequest(() -> findPage(byReleaseDate, "cmVsZWFzZURhdGU"));
+        assertBadRequest(() -> findPage(byReleaseDate, notAnId));
+        assertBadRequest(() -> findPage(byReleaseDate, notADate));
+    }
+
+    private void assertPagesMatchSortedQuery(Sort.Order order) {
+        Sort sort = Sort.by(order);
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<Game> page = findPage(sort, cursor);
+            page.content().forEach(game -> paged.add(game.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        Sort withTieBreaker = order.getProperty().equals("id") ? sort
+                : Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+        List<Long> sorted = gameRepository.findAll(createdGames, withTieBreaker).stream()
+                .map(Game::getId)
+                .toList();
+        assertEquals(sorted, paged);
+        assertEquals(new HashSet<>(gameIds), new HashSet<>(paged));
+        assertNull(cursor);
+    }
+
+    private KeysetPage<Game> findPage(Sort sort, String cursor) {
+        return KeysetPagination.findPage(gameRepository, createdGames, sort, "id", cursor, PAGE_SIZE);
+    }
+
+    private static void assertBadRequest(Runnable call) {
+        GlobalServiceException exception = assertThrows(GlobalServiceException.class, call::run);
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+}
@@ -0,0 +1,70 @@
+package com.khomsi.backend.game;
+
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.main.admin.model.request.GameRequest;
+import com.khomsi.backend.main.admin.service.AdminGameService;
+import com.khomsi.backend.main.game.GameRepository;
+import com.khomsi.backend.main.game.model.entity.PermitAge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The cached max price follows admin writes as soon as they commit, also when it is read while they are in flight
+class MaxPriceCacheTest extends BaseIntegration {
+    private static final BigDecimal PRICE_STEP = new BigDecimal("1000.00");
+
+    @Autowired
+    private AdminGameService adminGameService;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String title;
+
+    @AfterEach
+    void cleanUp() {
+        Long gameId = jdbcTemplate.query("SELECT game_id FROM games WHERE title = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, title);
+        if (gameId != null) {
+            adminGameService.deleteGame(gameId);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void newMaxPriceIsVisibleRightAfterTheAdminWrite() {
+        BigDecimal price = gameRepository.findMaxPrice().add(PRICE_STEP);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            adminGameService.addGameToDb(gameRequest(price));
+            // A reader outside the admin transaction still sees the old max price and caches it
+            CompletableFuture.supplyAsync(gameRepository::findMaxPrice).join();
+        });
+
+        assertEquals(0, price.compareTo(gameRepository.findMaxPrice()));
+    }
+
+    private GameRequest gameRequest(BigDecimal price) {
+        title = "Max price game " + UUID.randomUUID();
+        Long developerId = jdbcTemplate.queryForObject("SELECT MIN(developer_id) FROM developers", Long.class);
+        Long publisherId = jdbcTemplate.queryForObject("SELECT MIN(publisher_id) FROM publishers", Long.class);
+        return new GameRequest(title, "Description", LocalDate.now(), null, true, null, price, BigDecimal.ZERO,
+                PermitAge.AGE_0, null, "https://localhost/banner.png", "https://localhost/trailer.mp4", null, null,
+                developerId, publisherId, Set.of(), Set.of(), Set.of());
+    }
+}
@@ -0,0 +1,150 @@
+package com.khomsi.backend.user;
+
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.config.TestData;
+import com.khomsi.backend.main.handler.exception.GlobalServiceException;
+import com.khomsi.backend.main.user.model.entity.UserInfo;
+import com.khomsi.backend.main.user.model.enums.BalanceOperation;
+import com.khomsi.backend.main.user.repository.BalanceLedgerRepository;
+import com.khomsi.backend.main.user.repository.UserInfoRepository;
+import com.khomsi.backend.main.user.service.BalanceService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Many debits against one account at once: none is lost, the balance never goes below zero and the ledger adds up
+@Slf4j
+class BalanceConcurrencyTest extends BaseIntegration {
+    private static final int THREADS = 16;
+    private static final int DEBITS = 400;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("100.00");
+    private static final BigDecimal DEBIT = new BigDecimal("0.50");
+
+    @Autowired
+    private BalanceService balanceService;
+    @Autowired
+    private UserInfoRepository userInfoRepository;
+    @Autowired
+    private BalanceLedgerRepository balanceLedgerRepository;
+    @Autowired
+    private TestData testData;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteCreated();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentDebitsNeverOverspend() throws Exception {
+        UserInfo user = newUser();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long started;
+        try {
+            List<Future<?>> futures = new ArrayList<>(DEBITS);
+            for (int i = 0; i < DEBITS; i++) {
+                String reference = "debit-" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        transactionTemplate.executeWithoutResult(status ->
+                                balanceService.debit(load(user.getExternalId()), DEBIT,
+                                        BalanceOperation.PURCHASE, reference));
+                        succeeded.incrementAndGet();
+                    } catch (GlobalServiceException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            started = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        int affordable = OPENING_BALANCE.divide(DEBIT).intValue();
+        BigDecimal balance = userInfoRepository.findBalance(user.getExternalId());
+        log.info("{} debits on {} threads in {} ms: {} succeeded, {} rejected",
+                DEBITS, THREADS, elapsed, succeeded.get(), rejected.get());
+        assertEquals(affordable, succeeded.get());
+        assertEquals(DEBITS - affordable, rejected.get());
+        assertEquals(0, balance.signum());
+        assertEquals(affordable, balanceLedgerRepository.findAllByUserIdOrderByIdAsc(user.getExternalId()).size());
+        assertEquals(0, OPENING_BALANCE.add(balanceLedgerRepository.sumByUserId(user.getExternalId()))
+                .compareTo(balance));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentCreditsAndDebitsAreAllApplied() throws Exception {
+        UserInfo user = newUser();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(DEBITS);
+            for (int i = 0; i < DEBITS; i++) {
+                boolean credit = i % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status -> {
+                        UserInfo current = load(user.getExternalId());
+                        if (credit) {
+                            balanceService.credit(current, DEBIT, BalanceOperation.RECHARGE, null);
+                        } else {
+                            balanceService.debit(current, DEBIT, BalanceOperation.PURCHASE, null);
+                        }
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal balance = userInfoRepository.findBalance(user.getExternalId());
+        assertEquals(0, OPENING_BALANCE.compareTo(balance));
+        assertTrue(balanceLedgerRepository.findAllByUserIdOrderByIdAsc(user.getExternalId()).stream()
+                .allMatch(entry -> entry.getBalanceAfter().signum() >= 0));
+    }
+
+    private UserInfo newUser() {
+        return load(testData.createUser(OPENING_BALANCE));
+    }
+
+    private UserInfo load(String userId) {
+        return userInfoRepository.findUserInfoByExternalId(userId);
+    }
+}
@@ -0,0 +1,100 @@
+package com.khomsi.backend.user;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.khomsi.backend.config.BaseIntegration;
+import com.khomsi.backend.config.TestData;
+import com.khomsi.backend.main.user.model.dto.UserShortGamesDTO;
+import com.khomsi.backend.main.user.repository.UserGamesRepository;
+import com.khomsi.backend.main.utils.JsonArrayStreamer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A library of several pages is written page by page, newest purchase first and games bought together by id, with
+// the price users pay
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserLibraryStreamingTest extends BaseIntegration {
+    private static final int GAMES = 250;
+    // Games bought together share the purchase date, one such group spans the first page boundary
+    private static final int GAMES_PER_PURCHASE = 3;
+    private static final BigDecimal DISCOUNT = new BigDecimal("50.00");
+
+    @Autowired
+    private UserGamesRepository userGamesRepository;
+    @Autowired
+    private JsonArrayStreamer jsonArrayStreamer;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestData testData;
+
+    private String userId;
+    private List<Long> gameIds;
+
+    // Seeded in the test transaction, every page joins it and everything is rolled back afterwards
+    @BeforeEach
+    void seedLibrary() {
+        userId = testData.createUser(BigDecimal.ZERO);
+        gameIds = testData.createGames(GAMES, BigDecimal.TEN, DISCOUNT);
+
+        Instant purchasedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Object[]> library = new ArrayList<>(GAMES);
+        for (int i = 0; i < GAMES; i++) {
+            library.add(new Object[]{userId, gameIds.get(i),
+                    Timestamp.from(purchasedAt.minus(i / GAMES_PER_PURCHASE, ChronoUnit.MINUTES))});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO user_has_games (users_id, games_id, purchase_date, playtime)
+                VALUES (?, ?, ?, '00:00:00')
+                """, library);
+    }
+
+    @Test
+    void largeLibraryIsStreamedPageByPage() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        jsonArrayStreamer.stream((UserShortGamesDTO last, Pageable page) ->
+                        userGamesRepository.findLibraryPageAfter(userId, last, page), Function.identity())
+                .getBody()
+                .writeTo(body);
+
+        JsonNode games = objectMapper.readTree(body.toByteArray());
+        assertEquals(GAMES, games.size());
+        for (int i = 0; i < GAMES; i++) {
+            // Within a purchase the higher id comes first
+            int purchase = i / GAMES_PER_PURCHASE;
+            int expected = Math.min(purchase * GAMES_PER_PURCHASE + GAMES_PER_PURCHASE, GAMES) - 1
+                    - i % GAMES_PER_PURCHASE;
+            JsonNode game = games.get(i).get("game");
+            assertEquals(gameIds.get(expected), game.get("id").asLong());
+            assertEquals(0, new BigDecimal("5.00").compareTo(game.get("price").decimalValue()));
+            assertEquals(0, DISCOUNT.compareTo(game.get("discount").decimalValue()));
+        }
+        assertEquals((GAMES + JsonArrayStreamer.PAGE_SIZE - 1) / JsonArrayStreamer.PAGE_SIZE,
+                statistics.getPrepareStatementCount());
+    }
+}